@@ -4,6 +4,8 @@ import android.util.Log;
 
 import com.vuzix.ultralite.UltraliteSDK;
 
+import java.util.concurrent.CountDownLatch;
+
 /**
  * This class demonstrates a mechanism that can be used to synchronize data being received by the
  * glasses.
@@ -15,11 +17,14 @@ import com.vuzix.ultralite.UltraliteSDK;
  *
  * If we delay the phone UI, we can make the glasses UI and the phone UI update at almost the exact
  * same moment for a seamless experience.
+ *
+ * The app itself sends scores through {@link GlassesSender}, which keeps several acks in flight.
+ * This class is kept as the one-at-a-time example that GlassesSender's documentation refers to.
  */
 class AckWaiter {
-    private boolean replied;
+    private static final String TAG = "AckWaiter";
+    private static final Metrics.Histogram ACK_LATENCY = Metrics.histogram("glasses.ack_us");
     private final UltraliteSDK ultralite;
-    private String message;
 
     public AckWaiter(UltraliteSDK ultralite) {
         this.ultralite = ultralite;
@@ -30,29 +35,24 @@ class AckWaiter {
      * message has been received. This is useful in this demo scenario since we have a worker thread
      * that is sequentially sending each screen.
      *
+     * Each call waits on its own latch, so an ack that arrives before we start waiting, or a wait
+     * that overlaps another one, can't be missed. To keep several sends in flight at once, use
+     * {@link GlassesSender} instead.
+     *
      * @param message A unique String to identify this wait condition
      */
     public void waitForAck(String message) {
-        replied = false;
-        this.message = message;
+        CountDownLatch replied = new CountDownLatch(1);
+        long requestedAt = System.nanoTime();
         // Request the ack and provide a callback method
-        ultralite.requestAcknowledgement( () -> {
-            synchronized(this) {
-                // Simply set the bool and notify
-                replied = true;
-                this.notify();
-            }
-        });
+        ultralite.requestAcknowledgement(replied::countDown);
         // Then wait
-        synchronized(this) {
-            while (!replied) {
-                try {
-                    this.wait();
-                } catch (InterruptedException e) {
-                    Log.i(MainActivity.TAG, "Wait for \"" + message + "\" interrupted ", e);
-                    break;
-                }
-            }
+        try {
+            replied.await();
+            ACK_LATENCY.recordMicrosSince(requestedAt);
+        } catch (InterruptedException e) {
+            Log.i(TAG, "Wait for \"" + message + "\" interrupted ", e);
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -0,0 +1,128 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the scores of many matches at once.
+ *
+ * Scores are fetched on a pool of at most {@code parallelism} threads, with no more than
+ * {@code perHostLimit} requests to the same host at a time, so that a busy day of matches does not
+ * look like a flood to the site. The whole batch has a deadline: whatever has not finished by then
+ * is cancelled and left out of the result, and the scores that did arrive are returned.
+ *
+ * The pool lives as long as the fetcher, so refreshes reuse its threads rather than starting new
+ * ones. Threads that sit idle between refreshes exit, and are started again when needed.
+ */
+public class BatchScoreFetcher {
+    private static final String TAG = "BatchScoreFetcher";
+
+    /**
+     * Fetches the score of one match page.
+     */
+    public interface ScoreSource {
+        String fetchScore(String matchUrl) throws Exception;
+    }
+
+    private static final long IDLE_THREAD_TIMEOUT_MS = 30_000;
+
+    private final ScoreSource source;
+    private final int perHostLimit;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    // Fetches through CricinfoLive, which brings conditional GET and strategy memoization with it
+    public BatchScoreFetcher(int parallelism, int perHostLimit) {
+        this(CricinfoLive::getLiveScoreOfSelectedMatch, parallelism, perHostLimit);
+    }
+
+    public BatchScoreFetcher(ScoreSource source, int parallelism, int perHostLimit) {
+        this.source = source;
+        this.perHostLimit = perHostLimit;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism,
+                IDLE_THREAD_TIMEOUT_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, TAG + "-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Fetches the scores of all the given matches concurrently.
+     *
+     * @param matchUrls  The match pages to fetch
+     * @param deadlineMs How long the whole batch may take
+     * @return The scores that arrived before the deadline, keyed by match URL, in the order the URLs
+     * were given. Matches that failed or timed out are missing.
+     */
+    public Map<String, String> fetchScores(List<String> matchUrls, long deadlineMs) throws InterruptedException {
+        Map<String, String> scores = new LinkedHashMap<>();
+        if (matchUrls.isEmpty()) {
+            return scores;
+        }
+
+        List<Callable<String>> tasks = new ArrayList<>(matchUrls.size());
+        for (String matchUrl : matchUrls) {
+            tasks.add(() -> fetchWithHostLimit(matchUrl));
+        }
+
+        // invokeAll cancels, and interrupts, every task still running when the deadline passes
+        List<Future<String>> results = executor.invokeAll(tasks, deadlineMs, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < results.size(); i++) {
+            String matchUrl = matchUrls.get(i);
+            try {
+                String score = results.get(i).get();
+                if (score != null) {
+                    scores.put(matchUrl, score);
+                }
+            } catch (CancellationException e) {
+                Log.w(TAG, "Deadline passed before the score of " + matchUrl + " arrived");
+            } catch (ExecutionException e) {
+                Log.w(TAG, "Failed to fetch the score of " + matchUrl, e.getCause());
+            }
+        }
+        DebugLog.d(TAG, () -> "Fetched " + scores.size() + " of " + matchUrls.size() + " scores");
+        return scores;
+    }
+
+    // Stops the pool; a batch still running is interrupted
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String fetchWithHostLimit(String matchUrl) throws Exception {
+        Semaphore permits = hostPermits.computeIfAbsent(hostOf(matchUrl), host -> new Semaphore(perHostLimit));
+        permits.acquire();
+        try {
+            return source.fetchScore(matchUrl);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
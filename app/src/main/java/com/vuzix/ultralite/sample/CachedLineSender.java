@@ -0,0 +1,101 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.List;
+
+/**
+ * Shows lines of text on a fixed number of slice positions on the glasses, rasterizing each line
+ * only the first time it is seen and sending only the slices whose position now shows something new.
+ *
+ * Unlike LiveText, which re-renders and resends the whole text on every call, this keeps the
+ * rendered slices of recent lines in a {@link SliceCache} and remembers which slice each position
+ * on the glasses is already showing. An update where only the score line changed renders and sends
+ * just that line.
+ *
+ * @param <I> The image type of one slice, LVGLImage on the glasses
+ */
+public class CachedLineSender<I> {
+    private static final Metrics.Counter SLICES_SENT = Metrics.counter("glasses.slices_sent");
+    private static final Metrics.Counter SLICES_UNCHANGED = Metrics.counter("glasses.slices_unchanged");
+
+    /**
+     * Cuts one line of text into slices of the configured width and height.
+     */
+    public interface Rasterizer<I> {
+        List<I> rasterize(String line, int sliceHeight, int width);
+    }
+
+    /**
+     * Puts a slice at a position on the glasses, 0 being the top position used by this sender.
+     */
+    public interface SliceSink<I> {
+        void show(I slice, int position);
+    }
+
+    private final SliceCache<List<I>> cache;
+    private final Rasterizer<I> rasterizer;
+    private final SliceSink<I> sink;
+    private final int sliceHeight;
+    private final int width;
+    // The slice each position is showing; compared by identity, since cached slices are reused
+    private final Object[] showing;
+    private final I blank;
+
+    /**
+     * @param positions Number of slice positions this sender owns on the glasses
+     * @param blank     The slice sent to positions left empty when there are fewer slices than positions
+     */
+    public CachedLineSender(SliceCache<List<I>> cache, Rasterizer<I> rasterizer, SliceSink<I> sink,
+                            int sliceHeight, int width, int positions, I blank) {
+        this.cache = cache;
+        this.rasterizer = rasterizer;
+        this.sink = sink;
+        this.sliceHeight = sliceHeight;
+        this.width = width;
+        this.showing = new Object[positions];
+        this.blank = blank;
+    }
+
+    /**
+     * Shows these lines, top to bottom. If they need more slices than there are positions, the last
+     * slices are shown, like a scrolling caption.
+     *
+     * @return The number of slices actually sent to the glasses
+     */
+    public synchronized int send(List<String> lines) {
+        Object[] wanted = new Object[showing.length];
+        int filled = 0;
+        for (int i = lines.size() - 1; i >= 0 && filled < wanted.length; i--) {
+            List<I> slices = sliceLine(lines.get(i));
+            for (int s = slices.size() - 1; s >= 0 && filled < wanted.length; s--) {
+                wanted[wanted.length - 1 - filled++] = slices.get(s);
+            }
+        }
+
+        int sent = 0;
+        for (int position = 0; position < showing.length; position++) {
+            Object slice = wanted[position] != null ? wanted[position] : blank;
+            if (slice != showing[position]) {
+                @SuppressWarnings("unchecked")
+                I image = (I) slice;
+                sink.show(image, position);
+                showing[position] = slice;
+                sent++;
+            }
+        }
+        SLICES_SENT.add(sent);
+        SLICES_UNCHANGED.add(showing.length - sent);
+        return sent;
+    }
+
+    // Forgets what the glasses are showing, e.g. after they reconnect, so the next send redraws everything
+    public synchronized void invalidate() {
+        for (int i = 0; i < showing.length; i++) {
+            showing[i] = null;
+        }
+    }
+
+    private List<I> sliceLine(String line) {
+        return cache.getOrRender(new SliceCache.Key(line, sliceHeight, width),
+                key -> rasterizer.rasterize(key.getText(), key.getSliceHeight(), key.getWidth()));
+    }
+}
@@ -0,0 +1,212 @@
+package com.vuzix.ultralite.sample;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches pages with conditional GET requests so that an unchanged page is neither downloaded nor
+ * parsed a second time.
+ *
+ * The first successful fetch of a URL remembers the ETag / Last-Modified validators sent by the
+ * server together with the parsed result. Later fetches send those validators back as
+ * If-None-Match / If-Modified-Since, and when the server answers 304 Not Modified the remembered
+ * result is returned as-is. During a slow passage of play this turns most polls into a few hundred
+ * bytes of headers.
+ *
+ * Requests go through {@link HttpClients#shared()}, so they reuse its warm connections, and the
+ * decoded body is streamed straight into the parser.
+ *
+ * Every fetch is recorded in {@link Metrics} under its endpoint name: request latency up to the
+ * response headers, parse time (which includes reading the body), decoded body bytes, 304 hits and
+ * failures.
+ */
+class ConditionalFetcher {
+    private static final String TAG = "ConditionalFetcher";
+
+    /**
+     * Turns a response body into the value that is cached for its URL.
+     */
+    interface BodyParser<T> {
+        /**
+         * @param body    The response body, closed by the caller
+         * @param charset The charset named by the Content-Type header, or null if the server did not send one
+         * @param url     The URL that was fetched, usable as the base URI for relative links
+         */
+        T parse(InputStream body, String charset, String url) throws IOException;
+    }
+
+    // What we remember about one URL: the validators to send back, and what we parsed last time
+    private static class Entry {
+        final String etag;
+        final String lastModified;
+        final Object value;
+
+        Entry(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+
+    // The metrics of one endpoint, looked up once per endpoint rather than by name on every fetch
+    private static class EndpointMetrics {
+        final Metrics.Histogram latency;
+        final Metrics.Histogram parse;
+        final Metrics.Counter bytes;
+        final Metrics.Counter notModified;
+        final Metrics.Counter errors;
+
+        EndpointMetrics(String endpoint) {
+            latency = Metrics.histogram("fetch." + endpoint + ".latency_us");
+            parse = Metrics.histogram("fetch." + endpoint + ".parse_us");
+            bytes = Metrics.counter("fetch." + endpoint + ".bytes");
+            notModified = Metrics.counter("fetch." + endpoint + ".not_modified");
+            errors = Metrics.counter("fetch." + endpoint + ".errors");
+        }
+    }
+
+    // Counts the bytes the parser reads from the response body
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    private final OkHttpClient client;
+
+    ConditionalFetcher(int timeoutMillis) {
+        // Shares the connection pool of the app-wide client, with this fetcher's timeout for the whole call
+        this.client = HttpClients.shared().newBuilder()
+                .callTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    <T> T fetch(String url, String referer, BodyParser<T> parser) throws IOException {
+        return fetch("other", url, referer, parser);
+    }
+
+    /**
+     * Fetches the URL, sending the stored validators if we have any. The parser is only invoked
+     * when the server sends a new body; a 304 reply returns the value parsed on a previous call.
+     *
+     * @param endpoint Names the kind of page for the metrics, e.g. "rss" or "match"
+     * @param url      The page to fetch
+     * @param referer  The Referer header to send
+     * @param parser   Converts a fresh response body into the value to return and cache
+     */
+    <T> T fetch(String endpoint, String url, String referer, BodyParser<T> parser) throws IOException {
+        EndpointMetrics metrics = endpointMetrics.get(endpoint);
+        if (metrics == null) {
+            metrics = endpointMetrics.computeIfAbsent(endpoint, EndpointMetrics::new);
+        }
+        try {
+            return fetch(metrics, url, referer, parser);
+        } catch (IOException | RuntimeException e) {
+            metrics.errors.increment();
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T fetch(EndpointMetrics metrics, String url, String referer, BodyParser<T> parser) throws IOException {
+        Entry cached = entries.get(url);
+        Request.Builder request = new Request.Builder()
+                .url(url)
+                .header("Referer", referer);
+        if (cached != null) {
+            if (cached.etag != null) {
+                request.header("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                request.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        long start = System.nanoTime();
+        T value;
+        String etag;
+        String lastModified;
+        try (Response response = client.newCall(request.build()).execute()) {
+            metrics.latency.recordMicrosSince(start);
+            if (response.code() == 304) {
+                if (cached == null) {
+                    // We never sent validators, so the server has no business saying "not modified"
+                    throw new IOException("Unexpected 304 Not Modified for " + url);
+                }
+                DebugLog.d(TAG, () -> "Not modified, reusing parsed result for: " + url);
+                metrics.notModified.increment();
+                return (T) cached.value;
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP error fetching URL. Status=" + response.code() + ", URL=" + url);
+            }
+
+            ResponseBody responseBody = response.body();
+            MediaType contentType = responseBody.contentType();
+            Charset charset = contentType != null ? contentType.charset() : null;
+            long parseStart = System.nanoTime();
+            try (CountingInputStream body = new CountingInputStream(responseBody.byteStream())) {
+                value = parser.parse(body, charset != null ? charset.name() : null, url);
+                metrics.bytes.add(body.count);
+            }
+            metrics.parse.recordMicrosSince(parseStart);
+            etag = response.header("ETag");
+            lastModified = response.header("Last-Modified");
+        }
+
+        if (etag != null || lastModified != null) {
+            entries.put(url, new Entry(etag, lastModified, value));
+        } else {
+            // Without validators there is nothing we can send next time
+            entries.remove(url);
+        }
+        return value;
+    }
+
+    /**
+     * Forgets all validators and parsed results, so the next fetch of every URL is unconditional.
+     */
+    void clear() {
+        entries.clear();
+    }
+}
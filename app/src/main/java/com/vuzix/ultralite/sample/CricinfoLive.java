@@ -6,10 +6,22 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
 
 
 public class CricinfoLive {
@@ -18,132 +30,78 @@ public class CricinfoLive {
     private static final String CRICINFO_LIVE_SCORES_URL = CRICINFO_BASE_URL + "/live-cricket-score";
     private static final String CRICINFO_RSS_LIVE_SCORES_URL = "https://www.espncricinfo.com/rss/livescores.xml";
 
-    // Testable method with HTML content as input
-    public static ArrayList<MatchDetails> getLiveMatches(String htmlContent) {
-        Log.d(TAG, "getLiveMatches(htmlContent) called");
-        ArrayList<MatchDetails> matches = new ArrayList<>();
-        try {
-            // The base URL is needed by Jsoup.parse to resolve relative URLs
-            Document doc = Jsoup.parse(htmlContent, CRICINFO_BASE_URL);
-
-            // Attempt to find a container for all match cards. This is a guess.
-            // Common patterns involve divs with classes like "match-feed", "live-matches", "score-card-list"
-        // Then, individual match elements often have classes like "match-card", "fixture", "list-item"
-        // Let's try a general approach first, looking for elements that seem to contain match details.
-        // Based on typical sports websites, match info is often in a structured list or series of cards.
-        // We'll look for elements that have a distinct title and a link associated with them.
-        // A common structure might be:
-        // <div class="match-container-class">
-        //   <a href="/match-url-1">
-        //     <h3 class="match-title-class">Match Title 1</h3>
-        //     ... other details ...
-        //   </a>
-        // </div>
-        // Or
-        // <div class="match-fixture-class">
-        //  <div class="match-info">
-        //      <a href="/match-url-2" class="match-title-link">
-        //          <span class="match-title">Match Title 2</span>
-        //      </a>
-        //  </div>
-        //  ...
-        // </div>
-
-        // Trying a selector that might identify individual match components.
-        // This selector looks for divs that might be individual match containers.
-        // It's a broad guess and would need refinement if the HTML structure is known.
-        Elements matchElements = doc.select("div.ds-p-4"); // A common padding class, might indicate a card.
-        // Or try: "div.ci-match-card" or "li.match-item" if such specific classes exist.
-
-        if (matchElements.isEmpty()) {
-            // Fallback or alternative selector if the first one doesn't yield results
-            // This selector targets list items within a specific type of layout often used for scores.
-            matchElements = doc.select("div.ds-flex.ds-flex-col.ds-mt-2 > div.ds-mb-4");
-            Log.d(TAG, "Initial selector 'div.ds-p-4' found 0 elements. Trying 'div.ds-flex.ds-flex-col.ds-mt-2 > div.ds-mb-4'");
-        }
-
-        if (matchElements.isEmpty()) {
-            // Broader search for links that could be matches
-            matchElements = doc.select("a[href*='/live-cricket-scores/']"); // Note: Changed from /live-cricket-score/ to /live-cricket-scores/ to match example
-            Log.d(TAG, "Second selector also found 0. Trying 'a[href*=/live-cricket-scores/]'");
-        }
-
-
-        Log.d(TAG, "Found " + matchElements.size() + " potential match elements.");
-
-        for (Element matchElement : matchElements) {
-            String title = "";
-            String matchUrl = "";
-
-            // Try to extract title - often in a heading or a specific span
-            // Look for prominent text elements within the matchElement
-            Element titleElement = matchElement.selectFirst("p.ds-text-tight-m.ds-font-bold.ds-truncate.ds-text-typo"); // Common for titles
-            if (titleElement == null) {
-                titleElement = matchElement.selectFirst("span[class*='title'], h2, h3, p.ci-match-title"); // More generic title selectors
-            }
-            if (titleElement == null && matchElement.tagName().equals("a")) { // If the matchElement itself is an 'a' tag
-                // Attempt to get text from a child span or directly from the 'a' tag
-                Element spanInLink = matchElement.selectFirst("span");
-                if (spanInLink != null) {
-                    title = spanInLink.text();
-                } else {
-                    title = matchElement.text();
-                }
-            }
-
+    // Shared by the RSS and score fetchers so that ETag/Last-Modified validators survive between polls
+    private static final ConditionalFetcher FETCHER = new ConditionalFetcher(15000); // 15 seconds timeout
+    // In front of it, callers asking for the same page at once share one fetch, and a result is
+    // reused for a few seconds, so a burst of taps costs one request
+    private static final long GATEWAY_TTL_MS = 5000;
+    private static final int GATEWAY_MAX_ENTRIES = 32;
+    private static final LongSupplier SYSTEM_CLOCK = () -> System.nanoTime() / 1_000_000;
+    private static volatile LongSupplier gatewayClock = SYSTEM_CLOCK;
+    private static final FetchGateway GATEWAY = new FetchGateway(GATEWAY_TTL_MS, GATEWAY_MAX_ENTRIES,
+            () -> gatewayClock.getAsLong());
+
+    // Matches the user doesn't follow are dropped while the listing is parsed, so they are never
+    // score-fetched, polled or rendered
+    private static volatile TeamFilter teamFilter = TeamFilter.ALLOW_ALL;
+
+    public static void setTeamFilter(TeamFilter filter) {
+        teamFilter = filter == null ? TeamFilter.ALLOW_ALL : filter;
+        // Lists parsed with the old filter must not come back from a 304 or the gateway
+        FETCHER.clear();
+        GATEWAY.clear();
+    }
 
-            if (titleElement != null) {
-                title = titleElement.text();
-            }
+    // Replaces the clock the gateway's TTL runs on, e.g. with a simulation's virtual time, or goes
+    // back to the real one if null. For tests.
+    static void setGatewayClock(LongSupplier clockMillis) {
+        gatewayClock = clockMillis != null ? clockMillis : SYSTEM_CLOCK;
+        GATEWAY.clear();
+    }
 
-            // Try to extract URL - usually in an 'a' tag's href
-            Element linkElement = matchElement.selectFirst("a[href]");
-            if (linkElement == null && matchElement.tagName().equals("a")) { // If the matchElement itself is an 'a' tag
-                linkElement = matchElement;
-            }
+    public static TeamFilter getTeamFilter() {
+        return teamFilter;
+    }
 
+    // Testable method with HTML content as input
+    public static ArrayList<MatchDetails> getLiveMatches(String htmlContent) {
+        DebugLog.d(TAG, () -> "getLiveMatches(htmlContent) called");
+        // The base URL is needed by Jsoup.parse to resolve relative URLs
+        return getLiveMatches(Jsoup.parse(htmlContent, CRICINFO_BASE_URL));
+    }
 
-            if (linkElement != null) {
-                matchUrl = linkElement.absUrl("href"); // absUrl ensures it's absolute based on CRICINFO_BASE_URL
-            }
+    // Parses the listing page straight from a response stream, without an intermediate String
+    public static ArrayList<MatchDetails> getLiveMatches(InputStream htmlStream, String charset) throws IOException {
+        DebugLog.d(TAG, () -> "getLiveMatches(htmlStream) called");
+        return getLiveMatches(Jsoup.parse(htmlStream, charset, CRICINFO_BASE_URL));
+    }
 
-            // Basic validation: Ensure URL is for a specific match and not a generic link
-            // Changed /live-cricket-score/ to /live-cricket-scores/ to match example and likely real URL structure
-            if (!title.isEmpty() && !matchUrl.isEmpty() && matchUrl.contains("/live-cricket-scores/")) {
-                // Further filter out non-match links if possible, e.g. by checking for keywords in title or URL structure
-                if (title.matches(".* vs .*") || title.toLowerCase().contains("match")) { // Simple heuristic for a match title
-                    matches.add(new MatchDetails(title, matchUrl));
-                    Log.d(TAG, "Found match: " + title + " - " + matchUrl);
-                } else {
-                    Log.d(TAG, "Filtered out (likely not a match title): " + title + " - " + matchUrl);
-                }
-            } else {
-                Log.d(TAG, "Skipping element, title or URL missing or invalid. Title: '" + title + "', URL: '" + matchUrl + "'");
-            }
-        }
+    // Extracts matches from an already parsed listing page. The document's base URI is used to
+    // resolve relative match links.
+    public static ArrayList<MatchDetails> getLiveMatches(Document doc) {
+        ArrayList<MatchDetails> matches;
+        try {
+            // One walk over the page finds every kind of match card, see ListingPageParser
+            matches = ListingPageParser.parse(doc, teamFilter);
         } catch (Exception e) {
             Log.e(TAG, "Error parsing live matches HTML: " + e.getMessage(), e);
-            // Optionally, return matches accumulated so far, or just an empty list
+            matches = new ArrayList<>();
         }
-        // Removed catch (IOException e) because Jsoup.parse doesn't throw it for string input
-        // Consider adding a general catch (Exception e) if complex parsing might fail
-        Log.d(TAG, "getLiveMatches(htmlContent) finished, found " + matches.size() + " matches.");
+        final int found = matches.size();
+        DebugLog.d(TAG, () -> "getLiveMatches(doc) finished, found " + found + " matches.");
         return matches;
     }
 
     // Public method that fetches live data
     public static ArrayList<MatchDetails> getLiveMatches() {
-        Log.d(TAG, "getLiveMatches (network) called");
+        DebugLog.d(TAG, () -> "getLiveMatches (network) called");
         try {
-            Document doc = Jsoup.connect(CRICINFO_LIVE_SCORES_URL)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Referer", "https://www.google.com/")
-                    .followRedirects(true) // Add this line
-                    .get();
-            Log.d(TAG, "Successfully fetched HTML from: " + CRICINFO_LIVE_SCORES_URL);
-            return getLiveMatches(doc.html()); // Call the testable method
+            // Parsed once, directly from the response stream
+            ArrayList<MatchDetails> matches = GATEWAY.get(CRICINFO_LIVE_SCORES_URL,
+                    () -> FETCHER.fetch("listing", CRICINFO_LIVE_SCORES_URL, "https://www.google.com/",
+                            (body, charset, url) -> getLiveMatches(body, charset)));
+            DebugLog.d(TAG, () -> "Successfully fetched HTML from: " + CRICINFO_LIVE_SCORES_URL);
+            return new ArrayList<>(matches);
         } catch (IOException e) {
             Log.e(TAG, "Error fetching live matches from network: " + e.getMessage());
             return new ArrayList<>(); // Return empty list on network error
@@ -151,43 +109,18 @@ public class CricinfoLive {
     }
 
     public static ArrayList<MatchDetails> getLiveMatchesFromRSS() {
-        Log.d(TAG, "getLiveMatchesFromRSS called");
-        ArrayList<MatchDetails> matches = new ArrayList<>();
-        try {
-            String xmlString = Jsoup.connect(CRICINFO_RSS_LIVE_SCORES_URL)
-                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                    .header("Accept-Language", "en-US,en;q=0.9")
-                    .header("Accept-Encoding", "gzip, deflate, br")
-                    .header("Referer", "https://www.google.com/") // General referer
-                    .timeout(15000) // 15 seconds timeout
-                    .execute()
-                    .body();
-
-            Document doc = Jsoup.parse(xmlString, "", Parser.xmlParser());
-            Elements items = doc.select("item");
-            Log.d(TAG, "Found " + items.size() + " items in RSS feed.");
-
-            for (Element item : items) {
-                String title = item.selectFirst("title").text(); // Use selectFirst for safety
-                String link = item.selectFirst("link").text(); // Use selectFirst for safety
-
-                Element descriptionElement = item.selectFirst("description");
-                String scoreText = "Score not available"; // Default value
-                if (descriptionElement != null) {
-                    String tempScore = descriptionElement.text().trim();
-                    if (tempScore != null && !tempScore.isEmpty()) {
-                        scoreText = tempScore;
-                    }
-                }
+        return getLiveMatchesFromRSS(CRICINFO_RSS_LIVE_SCORES_URL);
+    }
 
-                if (title != null && !title.isEmpty() && link != null && !link.isEmpty()) {
-                    // RSS links are usually absolute, no need to resolve with base URL normally
-                    matches.add(new MatchDetails(title, link, scoreText));
-                    Log.d(TAG, "Found match via RSS: " + title + " - " + link + " - Score: " + scoreText);
-                } else {
-                    Log.w(TAG, "Skipping RSS item with missing title or link. Title: '" + title + "', Link: '" + link + "', Score: " + scoreText);
-                }
-            }
+    // Reads the feed from another address, e.g. a local replay server in tests
+    static ArrayList<MatchDetails> getLiveMatchesFromRSS(String feedUrl) {
+        DebugLog.d(TAG, () -> "getLiveMatchesFromRSS called for " + feedUrl);
+        ArrayList<MatchDetails> matches;
+        try {
+            // A 304 from the server hands back the list parsed on a previous poll without re-parsing.
+            // Otherwise the items are streamed straight out of the response body.
+            matches = GATEWAY.get(feedUrl, () -> FETCHER.fetch("rss", feedUrl, "https://www.google.com/", // General referer
+                    (body, charset, url) -> RssFeedParser.parse(body, charset, RssFeedParser.NO_LIMIT, teamFilter)));
         } catch (IOException e) {
             Log.e(TAG, "IOException fetching or parsing RSS feed: " + e.getMessage(), e);
             return new ArrayList<>(); // Return empty list on network error
@@ -195,123 +128,320 @@ public class CricinfoLive {
             Log.e(TAG, "Exception parsing RSS feed: " + e.getMessage(), e);
             return new ArrayList<>(); // Return empty list on parsing error
         }
-        Log.d(TAG, "getLiveMatchesFromRSS finished, found " + matches.size() + " matches.");
-        return matches;
+        DebugLog.d(TAG, () -> "getLiveMatchesFromRSS finished, found " + matches.size() + " matches.");
+        // The cached list is shared between polls, so callers get their own copy
+        return new ArrayList<>(matches);
     }
 
-    protected static int selectedMatchIndex=0;
+    /**
+     * The current state of one match, for {@link MatchFeed}. The score comes from the match page,
+     * which gives the overs ("IND 245/6 (42.3 ov)") that the over-by-over history, the scorecard's
+     * rate fields and the end-of-over events need. The RSS feed only has "India 245/6 * v Australia",
+     * so its entry just supplies the title, and the score if the page has none.
+     *
+     * @throws IOException If no score could be found, so that the poller backs off
+     */
+    static MatchDetails getMatch(String matchUrl) throws IOException {
+        return getMatch(matchUrl, CRICINFO_RSS_LIVE_SCORES_URL);
+    }
 
-    protected static String selectedMatchTitle="";
+    // The same, reading the feed from another address, e.g. a local replay server in tests
+    static MatchDetails getMatch(String matchUrl, String feedUrl) throws IOException {
+        MatchDetails listed = null;
+        for (MatchDetails match : getLiveMatchesFromRSS(feedUrl)) {
+            if (match.getMatchUrl().equals(matchUrl)) {
+                listed = match;
+                break;
+            }
+        }
+        String score = getLiveScoreOfSelectedMatch(matchUrl);
+        if (hasScore(score)) {
+            return new MatchDetails(listed != null ? listed.getMatchTitle() : "", matchUrl, score);
+        }
+        if (listed != null && hasScore(listed.getScore())) {
+            RSS_SCORE_FALLBACKS.increment();
+            return listed;
+        }
+        throw new IOException("No score for " + matchUrl);
+    }
+
+    private static boolean hasScore(String score) {
+        return score != null && !score.equals("Score not available");
+    }
+
+    // Score shapes accepted by the extraction strategies. Compiled once, where String.matches(...)
+    // would recompile the expression for every element checked on every poll.
+    private static final Pattern TEAM_AND_SCORE = Pattern.compile(".+\\s+\\d+/\\d+.*"); // "TEAM 123/4"
+    private static final Pattern SCORE_FIRST = Pattern.compile("\\d+/\\d+.*"); // "123/4 ..."
+    private static final Pattern CONTAINS_SCORE = Pattern.compile("\\d+/\\d+"); // "... 123/4 ..." anywhere, used with find()
+
+    private static final int SCORE_STRATEGY_COUNT = 4;
+
+    // Where strategy 1 looks for the score, near the top of the match page
+    private static final String PRIMARY_SCORE_SELECTOR = "div.ds-text-compact-m.ds-text-typo-title.ds-text-right.ds-whitespace-nowrap";
+    private static final Evaluator PRIMARY_SCORE = QueryParser.parse(PRIMARY_SCORE_SELECTOR);
+
+    // The strategy (1-4) that last produced a score for each match URL. A match page keeps its layout
+    // for the whole game, so the next poll tries that strategy first instead of failing through the others.
+    private static final Map<String, Integer> winningScoreStrategy = new ConcurrentHashMap<>();
+
+    // How often each strategy produced the score (index 1-4), how often the remembered one was right
+    // first time, and how often the page yielded only a status line or nothing at all
+    private static final Metrics.Counter[] SCORE_STRATEGY_HITS = new Metrics.Counter[SCORE_STRATEGY_COUNT + 1];
+    static {
+        for (int strategy = 1; strategy <= SCORE_STRATEGY_COUNT; strategy++) {
+            SCORE_STRATEGY_HITS[strategy] = Metrics.counter("score.strategy." + strategy);
+        }
+    }
+    private static final Metrics.Counter REMEMBERED_STRATEGY_HITS = Metrics.counter("score.strategy.remembered_hits");
+    private static final Metrics.Counter STATUS_FALLBACKS = Metrics.counter("score.status_fallback");
+    private static final Metrics.Counter SCORES_NOT_FOUND = Metrics.counter("score.not_found");
+    // Followed matches whose page had no score, shown with the feed's score and no overs
+    private static final Metrics.Counter RSS_SCORE_FALLBACKS = Metrics.counter("score.rss_fallback");
+    // Match pages whose score was read before the end of the page, and those that had to be read in full
+    private static final Metrics.Counter STREAM_EARLY_STOPS = Metrics.counter("score.stream.early_stop");
+    private static final Metrics.Counter STREAM_FULL_PARSES = Metrics.counter("score.stream.full_parse");
+
+    // Which strategy produced the last score for this match, or 0 if none is remembered. For tests.
+    static int rememberedScoreStrategy(String matchUrl) {
+        Integer strategy = matchUrl == null ? null : winningScoreStrategy.get(matchUrl);
+        return strategy == null ? 0 : strategy;
+    }
 
     // Testable method with HTML content as input
     public static String getLiveScoreOfSelectedMatch(String matchUrl, String htmlContent) {
-        Log.d(TAG, "getLiveScoreOfSelectedMatch(htmlContent) called for URL: " + matchUrl);
-        String score = "Score not available";
+        DebugLog.d(TAG, () -> "getLiveScoreOfSelectedMatch(htmlContent) called for URL: " + matchUrl);
+        Document doc;
+        try {
+            doc = Jsoup.parse(htmlContent, matchUrl); // Use matchUrl as base URI for parsing this specific page
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing score HTML for " + matchUrl + ": " + e.getMessage(), e);
+            return "Score not available";
+        }
+        return getLiveScoreOfSelectedMatch(matchUrl, doc);
+    }
+
+    /**
+     * Reads the score straight from a response stream, stopping as soon as it has been found.
+     *
+     * The score line that strategy 1 looks for sits near the top of the page, ahead of the commentary,
+     * ads and footer that make up most of it. The page is tokenized as it arrives, and once that
+     * element has been closed and holds a valid score, the rest of the body is never read: the stream
+     * is closed, which drops the connection. Otherwise the page is parsed to the end and every
+     * strategy runs as usual, so the result is always the same as parsing the whole page first.
+     *
+     * The whole page is also parsed when the charset is not known up front, since it may only be
+     * declared inside the page, and when an earlier poll found the score with another strategy.
+     */
+    public static String getLiveScoreOfSelectedMatch(String matchUrl, InputStream htmlStream, String charset) throws IOException {
+        DebugLog.d(TAG, () -> "getLiveScoreOfSelectedMatch(htmlStream) called for URL: " + matchUrl);
+        int remembered = rememberedScoreStrategy(matchUrl);
+        Charset decoder = supportedCharset(charset);
+        if (decoder == null || remembered > 1) {
+            STREAM_FULL_PARSES.increment();
+            return getLiveScoreOfSelectedMatch(matchUrl, Jsoup.parse(htmlStream, charset, matchUrl));
+        }
+
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser())) {
+            streamer.parse(new BufferedReader(new InputStreamReader(htmlStream, decoder)), matchUrl);
+            String score = primaryScoreFromStream(streamer);
+            if (score != null) {
+                if (matchUrl != null) {
+                    winningScoreStrategy.put(matchUrl, 1);
+                }
+                SCORE_STRATEGY_HITS[1].increment();
+                if (remembered == 1) {
+                    REMEMBERED_STRATEGY_HITS.increment();
+                }
+                STREAM_EARLY_STOPS.increment();
+                DebugLog.d(TAG, () -> "Found score before the end of the page for " + matchUrl + ": " + score);
+                return score;
+            }
+            STREAM_FULL_PARSES.increment();
+            return getLiveScoreOfSelectedMatch(matchUrl, streamer.complete());
+        }
+    }
+
+    // The charset to decode a response with, or null if it is missing or not one we can decode
+    private static Charset supportedCharset(String charset) {
         try {
-            Document doc = Jsoup.parse(htmlContent, matchUrl); // Use matchUrl as base URI for parsing this specific page
+            return charset != null && Charset.isSupported(charset) ? Charset.forName(charset) : null;
+        } catch (IllegalCharsetNameException e) {
+            return null;
+        }
+    }
 
+    /**
+     * Reads until the first element strategy 1 would pick has been closed, and returns its score if
+     * strategy 1 would accept it. Returns null, leaving the rest of the page unread, if there is no
+     * such element or its text is not a score.
+     *
+     * Elements come off the stream as they are closed, which is not quite document order: if the
+     * first one to close sits inside another match that is still open, the outer one is what
+     * selectFirst would have found, and its text is not complete yet.
+     */
+    private static String primaryScoreFromStream(StreamParser streamer) throws IOException {
+        Element scoreElement = streamer.selectNext(PRIMARY_SCORE);
+        if (scoreElement == null) {
+            return null;
+        }
+        Document partial = streamer.document();
+        for (Element ancestor = scoreElement.parent(); ancestor != null; ancestor = ancestor.parent()) {
+            if (PRIMARY_SCORE.matches(partial, ancestor)) {
+                return null;
+            }
+        }
+        String score = scoreElement.text().trim();
+        return TEAM_AND_SCORE.matcher(score).matches() ? score : null;
+    }
+
+    // Extracts the score from an already parsed match page
+    public static String getLiveScoreOfSelectedMatch(String matchUrl, Document doc) {
+        String score = "Score not available";
+        try {
             // Strategy to find the score:
             // 1. Look for highly specific selectors that often contain live scores.
-        // 2. If not found, try slightly more generic selectors related to scores or team info.
-        // 3. As a fallback, look for text patterns matching cricket scores.
+            // 2. If not found, try slightly more generic selectors related to scores or team info.
+            // 3. As a fallback, look for text patterns matching cricket scores.
+            // Whichever strategy succeeded on the previous poll of this match is tried first.
+            int remembered = rememberedScoreStrategy(matchUrl);
+            if (remembered != 0) {
+                String found = tryScoreStrategy(remembered, doc);
+                if (found != null) {
+                    SCORE_STRATEGY_HITS[remembered].increment();
+                    REMEMBERED_STRATEGY_HITS.increment();
+                    return found;
+                }
+                DebugLog.d(TAG, () -> "Remembered score strategy " + remembered + " no longer matches, running all strategies.");
+                winningScoreStrategy.remove(matchUrl);
+            }
 
-        Element scoreElement;
+            for (int strategy = 1; strategy <= SCORE_STRATEGY_COUNT; strategy++) {
+                if (strategy == remembered) {
+                    continue; // Already failed above
+                }
+                String found = tryScoreStrategy(strategy, doc);
+                if (found != null) {
+                    if (matchUrl != null) {
+                        winningScoreStrategy.put(matchUrl, strategy);
+                    }
+                    SCORE_STRATEGY_HITS[strategy].increment();
+                    return found;
+                }
+            }
+
+            // If no specific score element found, try to find a general match status
+            Element statusElement = doc.selectFirst("p.ds-text-tight-s.ds-font-regular.ds-line-clamp-2.ds-text-typo");
+            if (statusElement != null) {
+                String status = statusElement.text().trim();
+                score = status;
+                STATUS_FALLBACKS.increment();
+                DebugLog.d(TAG, () -> "Found match status as fallback: " + status);
+            } else {
+                SCORES_NOT_FOUND.increment();
+                DebugLog.d(TAG, () -> "No suitable score or status elements found after all attempts.");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing score HTML for " + matchUrl + ": " + e.getMessage(), e);
+            // score remains "Score not available"
+        }
+        String returned = score;
+        DebugLog.d(TAG, () -> "Returning score for " + matchUrl + " from document: " + returned);
+        return returned;
+    }
 
-        // Attempt 1: More specific selectors (these are educated guesses)
-        // Common classes for live scores might include "current-score", "live-score", "match-score"
-        // ESPNCricinfo uses complex, often auto-generated class names.
-        // Let's try to find elements that contain score-like text.
-        // Looking for something like: <div class="ds-text-compact-m ...">TEAM 123/4</div>
-        // Or: <div class="ci-score-overview ..."> <span>TEAM</span> <span>123/4</span> ... </div>
+    // Runs one score extraction strategy, returning the score or null if the strategy found nothing
+    private static String tryScoreStrategy(int strategy, Document doc) {
+        switch (strategy) {
+            case 1:
+                return scoreFromPrimarySelector(doc);
+            case 2:
+                return scoreFromTeamAndScorePairs(doc);
+            case 3:
+                return scoreFromCompactSpans(doc);
+            case 4:
+                return scoreFromGenericElements(doc);
+            default:
+                return null;
+        }
+    }
 
+    // Attempt 1: More specific selectors (these are educated guesses)
+    // Common classes for live scores might include "current-score", "live-score", "match-score"
+    // ESPNCricinfo uses complex, often auto-generated class names.
+    // Looking for something like: <div class="ds-text-compact-m ...">TEAM 123/4</div>
+    // Or: <div class="ci-score-overview ..."> <span>TEAM</span> <span>123/4</span> ... </div>
+    private static String scoreFromPrimarySelector(Document doc) {
         // Selector based on common ESPNCricinfo structure for displaying scores prominently
-        scoreElement = doc.selectFirst("div.ds-text-compact-m.ds-text-typo-title.ds-text-right.ds-whitespace-nowrap");
+        Element scoreElement = doc.selectFirst(PRIMARY_SCORE);
         if (scoreElement != null) {
-            score = scoreElement.text().trim();
-            Log.d(TAG, "Found score with selector 1: " + score);
-            if (score.matches(".+\\s+\\d+/\\d+.*")) { // Basic validation: "TEAM 123/4"
+            String score = scoreElement.text().trim();
+            DebugLog.d(TAG, () -> "Found score with selector 1: " + score);
+            if (TEAM_AND_SCORE.matcher(score).matches()) { // Basic validation: "TEAM 123/4"
                 return score;
             }
         }
+        return null;
+    }
 
-        // Attempt 2: Try to find elements that show team scores separately and combine them
+    // Attempt 2: Try to find elements that show team scores separately and combine them
+    private static String scoreFromTeamAndScorePairs(Document doc) {
         Elements teamNameElements = doc.select("p.ds-text-tight-m.ds-font-bold.ds-truncate.ds-text-typo"); // Team names
         Elements teamScoreElements = doc.select("div.ds-text-compact-m.ds-text-typo-title.ds-text-right.ds-whitespace-nowrap"); // Scores like 123/4
 
-        if (!teamNameElements.isEmpty() && !teamScoreElements.isEmpty()) {
-            // This assumes the first team name corresponds to the first score, etc.
-            // This might need more sophisticated pairing logic if the structure is complex.
-            for (int i = 0; i < teamNameElements.size() && i < teamScoreElements.size(); i++) {
-                String teamName = teamNameElements.get(i).text().trim();
-                String teamScoreText = teamScoreElements.get(i).text().trim();
-                if (!teamName.isEmpty() && !teamScoreText.isEmpty() && teamScoreText.matches("\\d+/\\d+.*")) {
-                    score = teamName + " " + teamScoreText;
-                    Log.d(TAG, "Found score with selector combination 2: " + score);
-                    // Potentially look for "overs" information nearby if needed
-                    Element oversElement = teamScoreElements.get(i).nextElementSibling(); // Or parent().selectFirst(...)
-                    if (oversElement != null && oversElement.text().contains("overs")) {
-                        score += " (" + oversElement.text().trim() + ")";
-                    }
-                    return score; // Return the first combined score found
+        // This assumes the first team name corresponds to the first score, etc.
+        // This might need more sophisticated pairing logic if the structure is complex.
+        for (int i = 0; i < teamNameElements.size() && i < teamScoreElements.size(); i++) {
+            String teamName = teamNameElements.get(i).text().trim();
+            String teamScoreText = teamScoreElements.get(i).text().trim();
+            if (!teamName.isEmpty() && !teamScoreText.isEmpty() && SCORE_FIRST.matcher(teamScoreText).matches()) {
+                String score = teamName + " " + teamScoreText;
+                DebugLog.d(TAG, () -> "Found score with selector combination 2: " + teamName + " " + teamScoreText);
+                // Potentially look for "overs" information nearby if needed
+                Element oversElement = teamScoreElements.get(i).nextElementSibling(); // Or parent().selectFirst(...)
+                if (oversElement != null && oversElement.text().contains("overs")) {
+                    score += " (" + oversElement.text().trim() + ")";
                 }
+                return score; // Return the first combined score found
             }
         }
+        return null;
+    }
 
-        // Attempt 3: More generic selectors, looking for score patterns
-        // This looks for spans that might contain the score, often styled differently.
+    // Attempt 3: More generic selectors, looking for score patterns
+    // This looks for spans that might contain the score, often styled differently.
+    private static String scoreFromCompactSpans(Document doc) {
         Elements potentialScoreElements = doc.select("div.ds-flex.ds-items-center.ds-justify-between.ds-mb-1 > div > span.ds-text-compact-s");
-        if (!potentialScoreElements.isEmpty()) {
-            for (Element el : potentialScoreElements) {
-                String potentialScoreText = el.text().trim();
-                Log.d(TAG, "Checking potential score (selector 3): " + potentialScoreText);
-                if (potentialScoreText.matches(".+\\s+\\d+/\\d+.*") || potentialScoreText.matches("\\d+/\\d+.*")) {
-                    score = potentialScoreText;
-                    Log.d(TAG, "Found score with selector 3: " + score);
-                    return score;
-                }
+        for (Element el : potentialScoreElements) {
+            String potentialScoreText = el.text().trim();
+            DebugLog.d(TAG, () -> "Checking potential score (selector 3): " + potentialScoreText);
+            if (TEAM_AND_SCORE.matcher(potentialScoreText).matches() || SCORE_FIRST.matcher(potentialScoreText).matches()) {
+                DebugLog.d(TAG, () -> "Found score with selector 3: " + potentialScoreText);
+                return potentialScoreText;
             }
         }
+        return null;
+    }
 
-        // Attempt 4: Fallback - Select all prominent text elements and check for score patterns.
-        // This could be divs or spans with "score" in their class name, or just generally large/bold text.
+    // Attempt 4: Fallback - Select all prominent text elements and check for score patterns.
+    // This could be divs or spans with "score" in their class name, or just generally large/bold text.
+    private static String scoreFromGenericElements(Document doc) {
         Elements genericElements = doc.select("div[class*='score'], span[class*='score'], p[class*='score'], div.ds-text-title-s, div.ds-text-typo-title");
         for (Element el : genericElements) {
             String text = el.text().trim();
-            Log.d(TAG, "Checking generic element text: " + text);
-            // Regex for "TEAM_NAME (optional) SCORE/WICKETS (OVERS optional)"
-            if (text.matches(".*\\d+/\\d+\\s*(\\(.*\\))?.*") || text.matches(".*\\d+/\\d+.*")) {
-                score = text;
-                Log.d(TAG, "Found score by generic element text pattern: " + score);
-                // Attempt to refine if it's too broad
-                if (score.length() > 50) { // If the string is too long, it might be a summary, not the main score
-                    Log.d(TAG, "Score string too long, attempting to find a more concise part.");
-                    // Try to extract a more specific part using regex again, if possible
-                }
-                return score;
-            }
-        }
-
-        // If no specific score element found, try to find a general match status
-        if (score.equals("Score not available")) {
-            Element statusElement = doc.selectFirst("p.ds-text-tight-s.ds-font-regular.ds-line-clamp-2.ds-text-typo");
-            if (statusElement != null) {
-                score = statusElement.text().trim();
-                Log.d(TAG, "Found match status as fallback: " + score);
-            } else {
-                Log.d(TAG, "No suitable score or status elements found after all attempts.");
+            DebugLog.d(TAG, () -> "Checking generic element text: " + text);
+            // "TEAM_NAME (optional) SCORE/WICKETS (OVERS optional)" reduces to a SCORE/WICKETS anywhere in the text
+            if (CONTAINS_SCORE.matcher(text).find()) {
+                DebugLog.d(TAG, () -> "Found score by generic element text pattern: " + text);
+                return text;
             }
         }
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing score HTML for " + matchUrl + ": " + e.getMessage(), e);
-            // score remains "Score not available"
-        }
-        Log.d(TAG, "Returning score for " + matchUrl + " from HTML content: " + score);
-        return score;
-}
+        return null;
+    }
 
 // Public method that fetches live data
 public static String getLiveScoreOfSelectedMatch(String matchUrl) {
-    Log.d(TAG, "getLiveScoreOfSelectedMatch (network) called for URL: " + matchUrl);
+    DebugLog.d(TAG, () -> "getLiveScoreOfSelectedMatch (network) called for URL: " + matchUrl);
     String score = "Score not available";
 
     if (matchUrl == null || matchUrl.isEmpty()) {
@@ -320,16 +450,10 @@ public static String getLiveScoreOfSelectedMatch(String matchUrl) {
     }
 
     try {
-        Document doc = Jsoup.connect(matchUrl)
-                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                .header("Accept-Language", "en-US,en;q=0.9")
-                .header("Accept-Encoding", "gzip, deflate, br")
-                .header("Referer", "https://www.espncricinfo.com/") // Referer can be the site itself for internal navigation
-                .timeout(15000) // 15 seconds timeout
-                .followRedirects(true) // Add this line
-                .get();
-        Log.d(TAG, "Successfully fetched HTML from: " + matchUrl);
-        return getLiveScoreOfSelectedMatch(matchUrl, doc.html()); // Call the testable method
+        // Referer can be the site itself for internal navigation. A 304 returns the score parsed last time.
+        // The page is parsed once, directly from the response stream.
+        return GATEWAY.get(matchUrl, () -> FETCHER.fetch("match", matchUrl, CRICINFO_BASE_URL + "/",
+                (body, charset, url) -> getLiveScoreOfSelectedMatch(url, body, charset)));
     } catch (IOException e) {
         Log.e(TAG, "Error fetching score for " + matchUrl + " from network: " + e.getMessage());
     } catch (Exception e) { // Catching other potential parsing errors from network fetch
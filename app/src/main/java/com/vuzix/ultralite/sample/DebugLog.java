@@ -0,0 +1,52 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Debug logging that costs next to nothing when it is off.
+ *
+ * Log.d(TAG, "Found " + x) builds its string even when nobody will read it, and the scraping
+ * loops log for every element they look at. Here the message is a supplier that is only called
+ * when debug logging is on, which MainActivity turns on for debuggable builds only.
+ *
+ * A release build can still log one tag at debug level for a field report, by raising that tag
+ * with "adb shell setprop log.tag.CricinfoFetcher DEBUG" before the app starts. Log.isLoggable()
+ * is a system property lookup, so it is asked once per tag and the answer kept; a setprop made
+ * while the app is running takes effect on its next start. Debuggable builds log every tag without
+ * any setup.
+ */
+final class DebugLog {
+    private static volatile boolean enabled;
+    // Whether each tag has been raised to DEBUG with setprop, as first asked
+    private static final Map<String, Boolean> LOGGABLE = new ConcurrentHashMap<>();
+
+    private DebugLog() {
+    }
+
+    static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void d(String tag, Supplier<String> message) {
+        if (enabled || isLoggable(tag)) {
+            Log.d(tag, message.get());
+        }
+    }
+
+    private static boolean isLoggable(String tag) {
+        Boolean loggable = LOGGABLE.get(tag);
+        if (loggable == null) {
+            loggable = Log.isLoggable(tag, Log.DEBUG);
+            LOGGABLE.put(tag, loggable);
+        }
+        return loggable;
+    }
+}
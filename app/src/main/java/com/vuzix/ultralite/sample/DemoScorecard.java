@@ -0,0 +1,153 @@
+package com.vuzix.ultralite.sample;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.Observer;
+
+import com.vuzix.ultralite.LVGLImage;
+import com.vuzix.ultralite.Layout;
+import com.vuzix.ultralite.UltraliteSDK;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class demonstrates a fixed scorecard on the glasses canvas, updated field by field.
+ *
+ * Where {@link DemoTapInput} scrolls lines of text and waits for a tap, the scorecard is pushed to
+ * the glasses as soon as the score changes, since only the fields that changed are sent. A
+ * Manhattan chart of the innings sits between the score and the status line. Tap twice to stop.
+ *
+ * It follows the scroll demo: double-tapping out of {@link DemoTapInput} starts it for the same match.
+ */
+public class DemoScorecard {
+    final static String SCORECARD_REGION = "scorecard."; // Followed by the field name, for GlassesSender
+    final static String CHART_REGION = "scorecard.chart";
+    final static int HISTORY_OVERS = 120; // Two innings of a one day match, or the recent overs of a longer one
+
+    // Draws a field's text into a 1 bit image the size of its region, shrinking the text to fit the width
+    static LVGLImage rasterize(String text, int fontSize, int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.drawColor(Color.BLACK);
+        Paint paint = new Paint();
+        paint.setColor(Color.WHITE);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        paint.setTextSize(fontSize);
+        float textWidth = paint.measureText(text);
+        if (textWidth > width) {
+            paint.setTextSize(fontSize * width / textWidth);
+        }
+        Paint.FontMetrics metrics = paint.getFontMetrics();
+        canvas.drawText(text, 0, height / 2f - (metrics.ascent + metrics.descent) / 2, paint);
+        return LVGLImage.fromBitmap(bitmap, LVGLImage.CF_INDEXED_1_BIT);
+    }
+
+    public static void runDemo(Context context, MainActivity.DemoActivityViewModel demoActivityViewModel, UltraliteSDK ultralite, String matchUrl) throws MainActivity.Stop {
+        final int SCREEN_TIMEOUT_SECS = 15;
+        final boolean HIDE_STATUS_BAR = true;
+        final int maxTaps = 2;
+        ultralite.setLayout(Layout.CANVAS, SCREEN_TIMEOUT_SECS, HIDE_STATUS_BAR, true, maxTaps);
+        UltraliteSDK.Canvas canvas = ultralite.getCanvas();
+
+        // Every field and the chart is its own region, so a newer image for one replaces an older one
+        // still waiting to go out without holding up the others
+        GlassesSender glassesSender = new GlassesSender(GlassesSender.linkTo(ultralite), 4);
+        Map<ScorecardRenderer.Field, ScorecardRenderer.Region> layout =
+                ScorecardRenderer.defaultLayout(UltraliteSDK.Canvas.WIDTH, UltraliteSDK.Canvas.HEIGHT);
+        ScorecardRenderer<LVGLImage> renderer = new ScorecardRenderer<>(layout, DemoScorecard::rasterize,
+                (field, image, x, y) -> glassesSender.submit(SCORECARD_REGION + field.name(), () -> {
+                    canvas.drawBackground(image, x, y);
+                    canvas.commit();
+                }));
+        ScorecardRenderer.Region chartRegion = ScorecardRenderer.chartRegion(UltraliteSDK.Canvas.WIDTH, UltraliteSDK.Canvas.HEIGHT);
+        ScoreChart chart = new ScoreChart(chartRegion.width, chartRegion.height);
+        ScoreHistory history = new ScoreHistory(HISTORY_OVERS);
+
+        // Updates arrive on the feed's thread and redraws on reconnect on the main thread, one at a time
+        Object drawing = new Object();
+        AtomicReference<MatchState> latest = new AtomicReference<>();
+        AtomicInteger chartedOvers = new AtomicInteger(-1);
+        Runnable draw = () -> {
+            synchronized (drawing) {
+                MatchState state = latest.get();
+                if (state == null) {
+                    return;
+                }
+                renderer.show(state);
+                history.update(state);
+                // The chart only changes at the end of an over
+                if (chartedOvers.getAndSet(history.size()) != history.size()) {
+                    LVGLImage image = chart.drawManhattan(history).toImage();
+                    glassesSender.submit(CHART_REGION, () -> {
+                        canvas.drawBackground(image, chartRegion.x, chartRegion.y);
+                        canvas.commit();
+                    });
+                }
+            }
+        };
+
+        MatchFeed feed = MatchFeed.shared();
+        MatchFeed.Listener onUpdate = match -> {
+            MatchState state = match.getMatchState();
+            if (state != null) {
+                latest.set(state);
+                draw.run();
+            }
+        };
+        AtomicReference<MatchFeed.Subscription> updates = new AtomicReference<>(feed.subscribe(matchUrl, Runnable::run, onUpdate));
+
+        // Nobody can see the score while the glasses are disconnected, so stop following the match until
+        // they're back, and then draw the whole scorecard again. LiveData observers have to be registered
+        // on the main thread.
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        Observer<Boolean> connectedObserver = connected -> {
+            MatchFeed.Subscription previous;
+            if (Boolean.TRUE.equals(connected)) {
+                glassesSender.reset(); // Acks for frames sent before the drop will never come
+                synchronized (drawing) {
+                    renderer.invalidate();
+                    chartedOvers.set(-1);
+                }
+                draw.run();
+                previous = updates.getAndSet(feed.subscribe(matchUrl, Runnable::run, onUpdate));
+            } else {
+                previous = updates.getAndSet(null);
+            }
+            if (previous != null) {
+                previous.cancel();
+            }
+        };
+        mainHandler.post(() -> ultralite.getConnected().observeForever(connectedObserver));
+
+        DemoTapInput.TapListener tapListener = new DemoTapInput.TapListener();
+        ultralite.addEventListener(tapListener);
+        try {
+            while (tapListener.waitForTaps() != 2) {
+                // Single taps do nothing; the scorecard is already up to date
+            }
+        } finally {
+            glassesSender.close();
+            // On the main thread, after which the observer cannot subscribe again
+            mainHandler.post(() -> {
+                ultralite.getConnected().removeObserver(connectedObserver);
+                MatchFeed.Subscription subscription = updates.getAndSet(null);
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        demoActivityViewModel.pause(2000);
+        // Unregister this so our listener stops being called
+        ultralite.removeEventListener(tapListener);
+    }
+}
@@ -1,6 +1,10 @@
 package com.vuzix.ultralite.sample;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.Observer;
 
 import com.vuzix.ultralite.EventListener;
 import com.vuzix.ultralite.LVGLImage;
@@ -9,8 +13,11 @@ import com.vuzix.ultralite.UltraliteSDK;
 import com.vuzix.ultralite.utils.scroll.LiveText;
 import com.vuzix.ultralite.utils.scroll.TextToImageSlicer;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class demonstrates using tap input from the glasses.
@@ -21,14 +28,14 @@ public class DemoTapInput {
     final static int lowestLineShowing = 3;
     final static int maxLinesShowing = 2;
     final static int fastScrollMilliSecs = 500;
-
-    final static Pattern pattern = Pattern.compile("india|chennai|mumbai|rajasthan|gujarat|lucknow|royal|delhi|kolkata|netherlands", Pattern.CASE_INSENSITIVE);
-
+    final static String SCORE_REGION = "score"; // The lines showing the score, for GlassesSender
+    final static long SLICE_CACHE_BYTES = 256 * 1024; // Rendered slices kept for reuse across updates
 
     private static void chunkStringsToEngine(MainActivity.DemoActivityViewModel demoActivityViewModel, LiveText liveTextSender, int intervalMs, List<String> fullStrings) throws MainActivity.Stop {
         String fullTextToSend = "";
+        TeamFilter filter = CricinfoLive.getTeamFilter();
         for (String eachLine : fullStrings) {
-            if(pattern.matcher(eachLine).find()) {
+            if(!filter.accept(eachLine)) {
                 continue;
             }
             // We append lines together to simulate the results of a speech engine. It will give us a partial
@@ -43,12 +50,13 @@ public class DemoTapInput {
         }
     }
 
-    public static void runDemo(Context context, MainActivity.DemoActivityViewModel demoActivityViewModel, UltraliteSDK ultralite) throws MainActivity.Stop {
+    public static void runDemo(Context context, MainActivity.DemoActivityViewModel demoActivityViewModel, UltraliteSDK ultralite, String matchUrl) throws MainActivity.Stop {
         final int SCREEN_TIMEOUT_SECS = 15;
         final boolean HIDE_STATUS_BAR = false;
         final int maxTaps = 2;
         boolean animateTaps = true;
         CricinfoLive cricInfo = new CricinfoLive();
+        ScoreDeltaEngine scoreDeltas = new ScoreDeltaEngine();
 
         final int sliceHeightInPixels = 48;    // The lines will be 48 pixels high, so each line is 1/10th the screen height. This affects the
         // ranges for all other values below since this configuration now has a maximum of 10 lines.
@@ -62,33 +70,121 @@ public class DemoTapInput {
         UltraliteSDK.ScrollingTextView scrollingTextView = ultralite.getScrollingTextView();
         scrollingTextView.scrollLayoutConfig(sliceHeight, lowestLineShowing, maxLinesShowing, fastScrollMilliSecs, false);
 
-        LiveText liveTextSender = new LiveText(ultralite, sliceHeightInPixels, sliceWidthInPixels, startingScreenLocation, numberLinesShowing, null);
-        liveTextSender.sendText(context.getString(R.string.tap_once));
+        // Each line is rasterized once and reused from the cache on later updates, and only the
+        // positions whose slice changed are sent again
+        SliceCache<List<LVGLImage>> sliceCache = new SliceCache<>(SLICE_CACHE_BYTES,
+                (key, slices) -> slices.size() * ((key.getWidth() + 7) / 8 * key.getSliceHeight() + 8)); // 1 bit per pixel plus palette
+        CachedLineSender.Rasterizer<LVGLImage> rasterizer = (line, height, width) -> {
+            List<LVGLImage> slices = new ArrayList<>();
+            TextToImageSlicer slicer = new TextToImageSlicer(line, width, height);
+            while (slicer.hasMoreSlices()) {
+                slices.add(slicer.getNextSlice());
+            }
+            return slices;
+        };
+        List<LVGLImage> blankSlices = rasterizer.rasterize(" ", sliceHeightInPixels, sliceWidthInPixels);
+        CachedLineSender<LVGLImage> lineSender = new CachedLineSender<>(sliceCache, rasterizer,
+                // Position 0 is the top line; screen locations count up from the bottom
+                (slice, position) -> scrollingTextView.sendScrollImage(slice, startingScreenLocation + numberLinesShowing - 1 - position, false),
+                sliceHeightInPixels, sliceWidthInPixels, numberLinesShowing,
+                blankSlices.isEmpty() ? null : blankSlices.get(0));
+        // Score updates are pipelined to the glasses, with up to 4 waiting for their ack at once
+        GlassesSender glassesSender = new GlassesSender(GlassesSender.linkTo(ultralite), 4);
+
+        // Put the score saved by the last refresh on the glasses straight away, ahead of the first poll
+        SnapshotCache.Snapshot cached = new SnapshotCache(new File(context.getFilesDir(), SnapshotCache.FILE_NAME)).load();
+        MatchDetails cachedMatch = null;
+        if (cached != null) {
+            for (MatchDetails match : cached.getMatches()) {
+                if (match.getMatchUrl().equals(matchUrl)) {
+                    cachedMatch = match;
+                    break;
+                }
+            }
+        }
+        if (cachedMatch != null) {
+            List<ScoreEvent> events = scoreDeltas.update(cachedMatch);
+            List<String> lines = ScoreEvent.lines(events);
+            glassesSender.submit(SCORE_REGION, () -> lineSender.send(lines));
+        } else {
+            lineSender.send(Collections.singletonList(context.getString(R.string.tap_once)));
+        }
+
 
+        // The score is polled in the background, shared with the phone UI if it follows the same match,
+        // so a tap only has to read the latest value from memory
+        MatchFeed feed = MatchFeed.shared();
+        AtomicReference<MatchDetails> latest = new AtomicReference<>();
+        MatchFeed.Listener onUpdate = latest::set;
+        AtomicReference<MatchFeed.Subscription> updates = new AtomicReference<>(feed.subscribe(matchUrl, Runnable::run, onUpdate));
+
+        // Nobody can see the score while the glasses are disconnected, so stop following the match until
+        // they're back; the feed stops polling it unless the phone is still showing it.
+        // LiveData observers have to be registered on the main thread.
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        Observer<Boolean> connectedObserver = connected -> {
+            MatchFeed.Subscription previous;
+            if (Boolean.TRUE.equals(connected)) {
+                glassesSender.reset(); // Acks for frames sent before the drop will never come
+                lineSender.invalidate(); // The glasses may have lost what they were showing
+                previous = updates.getAndSet(feed.subscribe(matchUrl, Runnable::run, onUpdate));
+            } else {
+                previous = updates.getAndSet(null);
+            }
+            if (previous != null) {
+                previous.cancel();
+            }
+        };
+        mainHandler.post(() -> ultralite.getConnected().observeForever(connectedObserver));
 
         // We need to add an event listener if we want to know when the taps occur
         TapListener tapListener = new TapListener();
         ultralite.addEventListener(tapListener);
 
         int numTaps;
-        do {
-            numTaps = tapListener.waitForTaps();
-            if(numTaps == 1) {
-                try {
-                    List<String> scores=CricinfoLive.fetchLiveScores();
-                    liveTextSender.sendText(scores.get(CricinfoLive.selectedMatchIndex));
-                    //chunkStringsToEngine(demoActivityViewModel, liveTextSender, 2000, scores);
-                } catch (Exception e) {
-                    e.printStackTrace();
+        try {
+            do {
+                numTaps = tapListener.waitForTaps();
+                if(numTaps == 1) {
+                    try {
+                        MatchDetails match = latest.get();
+                        if (match == null) {
+                            continue; // The first poll hasn't come back yet
+                        }
+                        // Only what changed since the last update goes over Bluetooth; an unchanged
+                        // score leaves the glasses showing what they already have.
+                        List<ScoreEvent> events = scoreDeltas.update(match);
+                        if (!events.isEmpty()) {
+                            // Queued rather than sent inline; a newer score replaces one still waiting to go out
+                            List<String> lines = ScoreEvent.lines(events);
+                            glassesSender.submit(SCORE_REGION, () -> lineSender.send(lines));
+                        }
+                        //chunkStringsToEngine(demoActivityViewModel, liveTextSender, 2000, scores);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+
+                    }
 
                 }
-
-            }
-        } while (numTaps != 2);
+            } while (numTaps != 2);
+        } finally {
+            glassesSender.close();
+            // On the main thread, after which the observer cannot subscribe again
+            mainHandler.post(() -> {
+                ultralite.getConnected().removeObserver(connectedObserver);
+                MatchFeed.Subscription subscription = updates.getAndSet(null);
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            });
+        }
 
         demoActivityViewModel.pause(2000);
         // Unregister this so our listener stops being called
         ultralite.removeEventListener(tapListener);
+
+        // The double tap moves on to the same match as a fixed scorecard
+        DemoScorecard.runDemo(context, demoActivityViewModel, ultralite, matchUrl);
     }
 
     // The event listener has many indications, this one is occurs when the frames are touched
@@ -0,0 +1,152 @@
+package com.vuzix.ultralite.sample;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Makes sure a URL is fetched and parsed at most once at a time, and not again for a short while
+ * after that.
+ *
+ * The tap handler, the spinner refresh and the background poller can all ask for the same page at
+ * the same moment. The first caller for a URL does the fetch; callers that arrive while it is in
+ * flight wait for it and get the same parsed result, or the same failure. A successful result is
+ * then served from memory for {@code ttlMillis}, so a burst of taps costs one request. The cache
+ * holds at most {@code maxEntries} URLs, dropping the least recently used.
+ *
+ * This sits in front of {@link ConditionalFetcher}, which still revalidates with the server once
+ * the TTL has passed.
+ */
+class FetchGateway {
+
+    /**
+     * Does the actual fetch and parse for one URL.
+     */
+    interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    // A parsed result and when it was fetched
+    private static class Cached {
+        final Object value;
+        final long fetchedAtMillis;
+
+        Cached(Object value, long fetchedAtMillis) {
+            this.value = value;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+
+    private static final Metrics.Counter CACHE_HITS = Metrics.counter("gateway.cache_hits");
+    private static final Metrics.Counter COALESCED = Metrics.counter("gateway.coalesced");
+    private static final Metrics.Counter LOADS = Metrics.counter("gateway.loads");
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Guarded by itself; in access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Cached> cache;
+    // Bumped by clear(), so that a fetch started before it cannot put a stale result back
+    private volatile long generation;
+
+    /**
+     * @param clock Monotonic milliseconds, e.g. System.nanoTime() / 1000000
+     */
+    FetchGateway(long ttlMillis, int maxEntries, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.cache = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the result for this URL from the cache if it is fresh, from a fetch already in flight
+     * if there is one, or from a new fetch with the loader.
+     *
+     * @throws IOException If the fetch this call ended up sharing failed, or the wait was interrupted
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String url, Loader<T> loader) throws IOException {
+        synchronized (cache) {
+            Cached entry = cache.get(url);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.fetchedAtMillis < ttlMillis) {
+                    CACHE_HITS.increment();
+                    return (T) entry.value;
+                }
+                cache.remove(url);
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(url, mine);
+        if (shared != null) {
+            COALESCED.increment();
+            return (T) await(shared);
+        }
+
+        long startedIn = generation;
+        try {
+            LOADS.increment();
+            T value = loader.load();
+            synchronized (cache) {
+                if (generation == startedIn) {
+                    cache.put(url, new Cached(value, clock.getAsLong()));
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(url, mine);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> shared) throws IOException {
+        try {
+            return shared.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a shared fetch");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Forgets every cached result. Fetches in flight still complete for their callers, but their
+     * results are not cached, and new callers start a fresh fetch.
+     */
+    void clear() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+        }
+        inFlight.clear();
+    }
+
+    // Number of cached results, fresh or not. For tests.
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import com.vuzix.ultralite.UltraliteSDK;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends frames to the glasses without waiting for each one to be acknowledged before sending the next.
+ *
+ * {@link AckWaiter} shows the simplest way to stay in step with the glasses: send, request an ack,
+ * block until it comes back. That leaves the Bluetooth link idle for a full round trip after every
+ * frame. This class instead keeps up to {@code window} ack requests outstanding at once. Each frame
+ * gets a sequence number and a CompletableFuture that completes when the glasses acknowledge it.
+ *
+ * Frames are queued per screen region. If a new frame for a region arrives while an older one for
+ * the same region is still waiting to be sent, the older one is dropped and both callers are told
+ * when the newer one lands, since the glasses would only have drawn over it anyway.
+ *
+ * An ack can be lost, when the glasses disconnect or the SDK drops a callback. A frame whose ack has
+ * not come back within the ack timeout fails and gives up its place in the window, so one lost ack
+ * cannot stall every later frame. When the link comes back, {@link #reset()} frees the whole window
+ * at once rather than waiting out the timeouts.
+ */
+public class GlassesSender {
+    private static final String TAG = "GlassesSender";
+
+    /**
+     * The part of UltraliteSDK the sender needs, so that tests can use a fake with its own ack latency.
+     */
+    public interface Link {
+        void requestAcknowledgement(Runnable onAck);
+    }
+
+    public static Link linkTo(UltraliteSDK ultralite) {
+        return onAck -> ultralite.requestAcknowledgement(onAck::run);
+    }
+
+    // Time from handing a frame to the SDK until the glasses acknowledge it
+    private static final Metrics.Histogram ACK_LATENCY = Metrics.histogram("glasses.ack_us");
+    private static final Metrics.Counter COALESCED = Metrics.counter("glasses.frames_coalesced");
+    private static final Metrics.Counter ACK_TIMEOUTS = Metrics.counter("glasses.ack_timeouts");
+
+    // Far longer than an ack takes on a working link, which is tens of milliseconds
+    static final long DEFAULT_ACK_TIMEOUT_MS = 5_000;
+
+    // A frame waiting to be sent, and the future its callers are waiting on
+    private static class Pending {
+        Runnable frame;
+        final CompletableFuture<Void> acked = new CompletableFuture<>();
+        long sentAtNanos;
+        ScheduledFuture<?> timeout; // Guarded by the sender
+
+        Pending(Runnable frame) {
+            this.frame = frame;
+        }
+    }
+
+    private final Link link;
+    private final int window;
+    private final long ackTimeoutMs;
+    // All frame sending happens on this thread, in submission order; ack timeouts fire on it too
+    private final ScheduledThreadPoolExecutor dispatcher = new ScheduledThreadPoolExecutor(1);
+
+    // Guarded by this
+    private final LinkedHashMap<String, Pending> queued = new LinkedHashMap<>();
+    private final Map<Long, Pending> inFlight = new LinkedHashMap<>();
+    private long nextSequence;
+    private boolean closed;
+
+    public GlassesSender(Link link, int window) {
+        this(link, window, DEFAULT_ACK_TIMEOUT_MS);
+    }
+
+    /**
+     * @param ackTimeoutMs How long a sent frame may wait for its ack before it fails and frees its slot
+     */
+    public GlassesSender(Link link, int window, long ackTimeoutMs) {
+        this.link = link;
+        this.window = window;
+        this.ackTimeoutMs = ackTimeoutMs;
+        // Acked frames cancel their timeout, which should not stay queued until it would have fired
+        dispatcher.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues a frame for a screen region.
+     *
+     * @param region Identifies the part of the screen the frame draws; a queued frame for the same
+     *               region that has not been sent yet is replaced
+     * @param frame  Performs the UltraliteSDK calls that draw the frame, on the sender's thread
+     * @return Completes once the glasses have acknowledged this frame or the one that replaced it
+     */
+    public CompletableFuture<Void> submit(String region, Runnable frame) {
+        CompletableFuture<Void> acked;
+        synchronized (this) {
+            if (closed) {
+                CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IllegalStateException("Sender is closed"));
+                return failed;
+            }
+            Pending pending = queued.get(region);
+            if (pending != null) {
+                // Superseded before it was sent; the newer frame carries the same future
+                pending.frame = frame;
+                COALESCED.increment();
+                return pending.acked;
+            }
+            pending = new Pending(frame);
+            queued.put(region, pending);
+            acked = pending.acked;
+        }
+        scheduleDrain();
+        return acked;
+    }
+
+    // Number of frames sent but not yet acknowledged. For tests and diagnostics.
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Forgets the frames waiting for an ack, e.g. when the glasses reconnect and their acks will never
+     * come. Their futures are cancelled and the window is free again; queued frames are sent next.
+     */
+    public void reset() {
+        List<Pending> dropped;
+        synchronized (this) {
+            dropped = new ArrayList<>(inFlight.values());
+            inFlight.clear();
+            for (Pending pending : dropped) {
+                cancelTimeout(pending);
+            }
+        }
+        for (Pending pending : dropped) {
+            pending.acked.cancel(false);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Drops all queued frames and stops the sender. Frames already sent still complete when acknowledged.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (Pending pending : queued.values()) {
+                pending.acked.cancel(false);
+            }
+            queued.clear();
+        }
+        dispatcher.shutdown();
+    }
+
+    // Sends queued frames while there is room in the window. Runs on the dispatcher thread.
+    private void drain() {
+        while (true) {
+            Pending next;
+            long sequence;
+            synchronized (this) {
+                if (inFlight.size() >= window || queued.isEmpty()) {
+                    return;
+                }
+                Iterator<Pending> oldest = queued.values().iterator();
+                next = oldest.next();
+                oldest.remove();
+                sequence = nextSequence++;
+                inFlight.put(sequence, next);
+            }
+            try {
+                next.sentAtNanos = System.nanoTime();
+                next.frame.run();
+                try {
+                    synchronized (this) {
+                        // Before the ack is requested, which may call back straight away
+                        next.timeout = dispatcher.schedule(() -> onAckTimeout(sequence), ackTimeoutMs, TimeUnit.MILLISECONDS);
+                    }
+                } catch (RejectedExecutionException e) {
+                    // Closed while this frame was being sent; it can still be acked, but never times out
+                }
+                link.requestAcknowledgement(() -> onAck(sequence));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to send frame " + sequence, e);
+                synchronized (this) {
+                    inFlight.remove(sequence);
+                    cancelTimeout(next);
+                }
+                next.acked.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Called by the SDK when the glasses have processed everything up to and including this frame
+    private void onAck(long sequence) {
+        Pending acked;
+        synchronized (this) {
+            acked = inFlight.remove(sequence);
+            if (acked != null) {
+                cancelTimeout(acked);
+            }
+        }
+        if (acked != null) {
+            ACK_LATENCY.recordMicrosSince(acked.sentAtNanos);
+            acked.acked.complete(null);
+        }
+        scheduleDrain();
+    }
+
+    // The ack for this frame is presumed lost; an ack that turns up later finds nothing to complete
+    private void onAckTimeout(long sequence) {
+        Pending lost;
+        synchronized (this) {
+            lost = inFlight.remove(sequence);
+        }
+        if (lost == null) {
+            return;
+        }
+        ACK_TIMEOUTS.increment();
+        Log.w(TAG, "No ack for frame " + sequence + " within " + ackTimeoutMs + " ms");
+        lost.acked.completeExceptionally(new TimeoutException("No ack within " + ackTimeoutMs + " ms"));
+        scheduleDrain();
+    }
+
+    // Holding the lock; a frame still being drawn has no timeout yet
+    private static void cancelTimeout(Pending pending) {
+        if (pending.timeout != null) {
+            pending.timeout.cancel(false);
+        }
+    }
+
+    private void scheduleDrain() {
+        try {
+            dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Closed in the meantime; nothing more will be sent
+        }
+    }
+}
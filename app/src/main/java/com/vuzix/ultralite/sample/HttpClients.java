@@ -0,0 +1,56 @@
+package com.vuzix.ultralite.sample;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.brotli.BrotliInterceptor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one HTTP client every fetch in the app goes through.
+ *
+ * Building a connection per request costs a TCP and TLS handshake on every poll, which on a mobile
+ * network is most of the time a poll takes. The shared client keeps connections to espncricinfo.com
+ * alive between polls, resumes TLS sessions, and multiplexes concurrent requests over a single
+ * HTTP/2 connection where the server offers it. Responses are decoded as they stream in from
+ * Brotli or gzip, the only encodings it asks for, so parsers read plain bytes straight off the
+ * socket.
+ */
+final class HttpClients {
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+    // Polls come every 20 seconds or more, so idle connections are kept well beyond the gap between them
+    static final long KEEP_ALIVE_MS = 5 * 60 * 1000;
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+
+    private static OkHttpClient shared;
+
+    private HttpClients() {
+    }
+
+    public static synchronized OkHttpClient shared() {
+        if (shared == null) {
+            shared = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MS, TimeUnit.MILLISECONDS))
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .addInterceptor(chain -> {
+                        Request request = chain.request();
+                        Request.Builder builder = request.newBuilder();
+                        if (request.header("User-Agent") == null) {
+                            builder.header("User-Agent", USER_AGENT);
+                        }
+                        if (request.header("Accept-Language") == null) {
+                            builder.header("Accept-Language", "en-US,en;q=0.9");
+                        }
+                        return chain.proceed(builder.build());
+                    })
+                    // Sends "Accept-Encoding: br,gzip" and decodes whichever comes back
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    .followRedirects(true)
+                    .build();
+        }
+        return shared;
+    }
+}
@@ -0,0 +1,156 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds whether a text contains any of a set of keywords, ignoring case, in a single pass over the
+ * text whatever the number of keywords.
+ *
+ * This is an Aho-Corasick automaton compiled into a dense transition table: each character of the
+ * text costs one array lookup, and matching allocates nothing. A regex alternation of the same
+ * keywords would instead retry every keyword at every position.
+ */
+class KeywordMatcher {
+    private static final int ASCII = 128;
+
+    private final int[][] next;      // next[state][column] is the state after reading a character
+    private final boolean[] accepts; // True if reaching the state means some keyword has ended
+    private final int[] asciiColumn; // Column of each ASCII character, or -1 if no keyword contains it
+    private final char[] otherChars; // Non-ASCII characters that appear in keywords, sorted
+    private final int[] otherColumns;
+
+    /**
+     * @param keywords Matched as plain substrings, ignoring case. Blank keywords are skipped.
+     */
+    KeywordMatcher(Collection<String> keywords) {
+        // Build the trie over lowercased keywords, numbering the characters it uses as we go
+        asciiColumn = new int[ASCII];
+        Arrays.fill(asciiColumn, -1);
+        StringBuilder others = new StringBuilder();
+        int columns = 0;
+        List<int[]> trie = new ArrayList<>(); // Children by column, grown as columns are added
+        List<Boolean> ends = new ArrayList<>();
+        List<String> lowered = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            String trimmed = keyword.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            StringBuilder lower = new StringBuilder(trimmed.length());
+            for (int i = 0; i < trimmed.length(); i++) {
+                char c = Character.toLowerCase(trimmed.charAt(i));
+                lower.append(c);
+                if (c < ASCII) {
+                    if (asciiColumn[c] < 0) {
+                        asciiColumn[c] = columns++;
+                    }
+                } else if (others.indexOf(String.valueOf(c)) < 0) {
+                    others.append(c);
+                }
+            }
+            lowered.add(lower.toString());
+        }
+        char[] sortedOthers = others.toString().toCharArray();
+        Arrays.sort(sortedOthers);
+        otherChars = sortedOthers;
+        otherColumns = new int[sortedOthers.length];
+        for (int i = 0; i < sortedOthers.length; i++) {
+            otherColumns[i] = columns++;
+        }
+
+        trie.add(new int[columns]);
+        ends.add(false);
+        for (String keyword : lowered) {
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int column = columnOf(keyword.charAt(i));
+                if (trie.get(state)[column] <= 0) {
+                    trie.add(new int[columns]);
+                    ends.add(false);
+                    trie.get(state)[column] = trie.size() - 1;
+                }
+                state = trie.get(state)[column];
+            }
+            ends.set(state, true);
+        }
+
+        // Breadth-first, fill in the missing transitions from each state's failure state, so that
+        // matching never has to follow failure links at run time
+        int states = trie.size();
+        next = trie.toArray(new int[states][]);
+        accepts = new boolean[states];
+        int[] failure = new int[states];
+        for (int s = 0; s < states; s++) {
+            accepts[s] = ends.get(s);
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < columns; column++) {
+            int child = next[0][column];
+            if (child > 0) {
+                failure[child] = 0;
+                queue.add(child);
+            } else {
+                next[0][column] = 0;
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepts[state] |= accepts[failure[state]];
+            for (int column = 0; column < columns; column++) {
+                int child = next[state][column];
+                if (child > 0) {
+                    failure[child] = next[failure[state]][column];
+                    queue.add(child);
+                } else {
+                    next[state][column] = next[failure[state]][column];
+                }
+            }
+        }
+    }
+
+    private int columnOf(char c) {
+        if (c < ASCII) {
+            return asciiColumn[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i < 0 ? -1 : otherColumns[i];
+    }
+
+    // True if there are no keywords, so nothing can ever match
+    boolean isEmpty() {
+        return next.length == 1;
+    }
+
+    /**
+     * @return True if the text contains at least one of the keywords, ignoring case
+     */
+    boolean matchesAny(CharSequence text) {
+        if (text == null || isEmpty()) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = step(state, text.charAt(i));
+            if (accepts[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Advances the automaton by one character, for callers that are already scanning the text
+    // themselves. Start from state 0.
+    int step(int state, char c) {
+        int column = columnOf(Character.toLowerCase(c));
+        return column < 0 ? 0 : next[state][column];
+    }
+
+    // True if the text read so far ends with one of the keywords
+    boolean accepts(int state) {
+        return accepts[state];
+    }
+}
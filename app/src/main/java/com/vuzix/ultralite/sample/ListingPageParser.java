@@ -0,0 +1,264 @@
+package com.vuzix.ultralite.sample;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Finds the matches on the live-scores listing page in a single walk over the parsed document.
+ *
+ * Match cards are recognised the way the original selector cascade did it, from most to least
+ * specific, with each kind only used if the ones before it found no matches at all:
+ * <ol>
+ *     <li>{@code div.ds-p-4}, a padding class the site puts on cards</li>
+ *     <li>{@code div.ds-flex.ds-flex-col.ds-mt-2 > div.ds-mb-4}, list items in another score layout</li>
+ *     <li>{@code a[href*='/live-cricket-scores/']}, any link that could be a match</li>
+ * </ol>
+ * Within a card (the card itself included), the title is the first
+ * {@code p.ds-text-tight-m.ds-font-bold.ds-truncate.ds-text-typo}, else the first of
+ * {@code span[class*='title'], h2, h3, p.ci-match-title}, else for a link card the text of its
+ * first span or of the link itself. The URL comes from the first {@code a[href]}.
+ *
+ * Running those as selectors walks the whole document once per card kind, and every card's subtree
+ * again for each of its four lookups. Here every card kind and every lookup is answered in the one
+ * walk: each element is tested once, and fills the lookups of the open cards it lies in that have
+ * not found theirs yet.
+ */
+final class ListingPageParser implements NodeVisitor {
+    private static final String TAG = "ListingPageParser";
+    private static final int CARD_KINDS = 3;
+
+    // An element that may be a match card, and what the walk has found inside it so far
+    private static final class Card {
+        final Element element;
+        final boolean[] kinds = new boolean[CARD_KINDS];
+        Element primaryTitle;   // First p.ds-text-tight-m.ds-font-bold.ds-truncate.ds-text-typo
+        Element fallbackTitle;  // First of span[class*='title'], h2, h3, p.ci-match-title
+        Element firstSpan;      // Only needed for link cards
+        Element firstLink;      // First a[href]
+
+        Card(Element element) {
+            this.element = element;
+        }
+    }
+
+    private final ArrayList<Card> cards = new ArrayList<>();
+    // The cards the walk is currently inside, innermost last
+    private final ArrayList<Card> open = new ArrayList<>();
+
+    private ListingPageParser() {
+    }
+
+    /**
+     * @return The matches on the page that the filter accepts, in document order
+     */
+    static ArrayList<MatchDetails> parse(Element root, TeamFilter filter) {
+        ListingPageParser parser = new ListingPageParser();
+        NodeTraversor.traverse(parser, root);
+
+        ArrayList<MatchDetails> matches = new ArrayList<>();
+        MatchDetails[] cardMatches = new MatchDetails[parser.cards.size()];
+        boolean[] read = new boolean[cardMatches.length];
+        for (int kind = 0; kind < CARD_KINDS; kind++) {
+            boolean found = false;
+            for (int i = 0; i < cardMatches.length; i++) {
+                Card card = parser.cards.get(i);
+                if (!card.kinds[kind]) {
+                    continue;
+                }
+                if (!read[i]) {
+                    cardMatches[i] = matchFrom(card);
+                    read[i] = true;
+                }
+                MatchDetails match = cardMatches[i];
+                if (match == null) {
+                    continue;
+                }
+                // A kind of card that held matches is the right one even if the filter drops them all
+                found = true;
+                if (filter.accept(match.getMatchTitle())) {
+                    matches.add(match);
+                } else {
+                    DebugLog.d(TAG, () -> "Filtered out by team filter: " + match.getMatchTitle());
+                }
+            }
+            if (found) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public void head(Node node, int depth) {
+        if (!(node instanceof Element)) {
+            return;
+        }
+        Element element = (Element) node;
+        String tag = element.normalName();
+
+        Card card = null;
+        if (tag.equals("div")) {
+            boolean padded = element.hasClass("ds-p-4");
+            boolean listItem = element.hasClass("ds-mb-4") && isScoreList(element.parent());
+            if (padded || listItem) {
+                card = new Card(element);
+                card.kinds[0] = padded;
+                card.kinds[1] = listItem;
+            }
+        } else if (tag.equals("a") && element.hasAttr("href")
+                && containsIgnoreCase(element.attr("href"), "/live-cricket-scores/")) {
+            card = new Card(element);
+            card.kinds[2] = true;
+        }
+        if (card != null) {
+            cards.add(card);
+            open.add(card);
+        }
+        if (open.isEmpty()) {
+            return;
+        }
+
+        // The lookups are inclusive of the card itself, so this runs after it was opened
+        switch (tag) {
+            case "p":
+                if (element.hasClass("ds-text-tight-m") && element.hasClass("ds-font-bold")
+                        && element.hasClass("ds-truncate") && element.hasClass("ds-text-typo")) {
+                    for (int i = open.size() - 1; i >= 0 && open.get(i).primaryTitle == null; i--) {
+                        open.get(i).primaryTitle = element;
+                    }
+                }
+                if (element.hasClass("ci-match-title")) {
+                    fillFallbackTitle(element);
+                }
+                break;
+            case "span":
+                for (int i = open.size() - 1; i >= 0 && open.get(i).firstSpan == null; i--) {
+                    open.get(i).firstSpan = element;
+                }
+                if (element.hasAttr("class") && containsIgnoreCase(element.attr("class"), "title")) {
+                    fillFallbackTitle(element);
+                }
+                break;
+            case "h2":
+            case "h3":
+                fillFallbackTitle(element);
+                break;
+            case "a":
+                if (element.hasAttr("href")) {
+                    for (int i = open.size() - 1; i >= 0 && open.get(i).firstLink == null; i--) {
+                        open.get(i).firstLink = element;
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void tail(Node node, int depth) {
+        // Cards only ever close in the reverse order they opened
+        if (!open.isEmpty() && open.get(open.size() - 1).element == node) {
+            open.remove(open.size() - 1);
+        }
+    }
+
+    // Once a card has found an element, every card outside it has too, since that element is
+    // inside them as well; so filling can stop at the first card that already has one
+    private void fillFallbackTitle(Element element) {
+        for (int i = open.size() - 1; i >= 0 && open.get(i).fallbackTitle == null; i--) {
+            open.get(i).fallbackTitle = element;
+        }
+    }
+
+    // The parent of the list items in the second layout: div.ds-flex.ds-flex-col.ds-mt-2
+    private static boolean isScoreList(Element parent) {
+        return parent != null && parent.normalName().equals("div") && parent.hasClass("ds-flex")
+                && parent.hasClass("ds-flex-col") && parent.hasClass("ds-mt-2");
+    }
+
+    // Reads the title and link of one card, or returns null if it does not look like a match
+    private static MatchDetails matchFrom(Card card) {
+        String title = "";
+        Element titleElement = card.primaryTitle != null ? card.primaryTitle : card.fallbackTitle;
+        if (titleElement != null) {
+            title = titleElement.text();
+        } else if (card.element.normalName().equals("a")) {
+            // Text from a child span, or directly from the link
+            title = card.firstSpan != null ? card.firstSpan.text() : card.element.text();
+        }
+
+        // Only a title that reads like a match; checked first, as resolving the link is the costly part
+        if (title.isEmpty() || !looksLikeMatchTitle(title)) {
+            return null;
+        }
+
+        Element linkElement = card.firstLink;
+        if (linkElement == null && card.element.normalName().equals("a")) {
+            linkElement = card.element;
+        }
+        String matchUrl = linkElement != null ? linkElement.absUrl("href") : "";
+
+        // Only links to a specific match
+        if (!matchUrl.isEmpty() && matchUrl.contains("/live-cricket-scores/")) {
+            return new MatchDetails(title, matchUrl);
+        }
+        return null;
+    }
+
+    /**
+     * True if the title contains " vs " and is on one line, or contains "match" in any case. This is
+     * what {@code title.matches(".* vs .*") || title.toLowerCase().contains("match")} decided, in
+     * one scan without a regex or a lowercased copy.
+     */
+    static boolean looksLikeMatchTitle(String title) {
+        boolean versus = false;
+        boolean lineBreak = false;
+        for (int i = 0, length = title.length(); i < length; i++) {
+            char c = title.charAt(i);
+            switch (c) {
+                case ' ':
+                    versus |= title.startsWith("vs ", i + 1);
+                    break;
+                case 'm':
+                case 'M':
+                    if (title.regionMatches(true, i, "match", 0, 5)) {
+                        return true;
+                    }
+                    break;
+                // The line terminators "." does not match
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    lineBreak = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return versus && !lineBreak;
+    }
+
+    // Attribute selectors compare values lowercased; this does the same without making the copy
+    // unless the value has characters outside ASCII
+    private static boolean containsIgnoreCase(String value, String lowerNeedle) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 128) {
+                return value.toLowerCase(Locale.ROOT).contains(lowerNeedle);
+            }
+        }
+        for (int i = 0, last = value.length() - lowerNeedle.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
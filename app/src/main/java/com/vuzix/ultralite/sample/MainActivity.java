@@ -1,21 +1,37 @@
 package com.vuzix.ultralite.sample;
 
 import android.app.Activity;
+import android.app.AlertDialog;
+import android.content.pm.ApplicationInfo;
+import android.graphics.Typeface;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
+import android.text.InputType;
 import android.view.View;
-import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
-import android.widget.Spinner;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 // Assuming R class is in this package or imported correctly.
 // import com.vuzix.ultralite.sample.R; // If R is not automatically found
@@ -23,14 +39,29 @@ import java.util.concurrent.Executors;
 public class MainActivity extends Activity {
 
     private static final String TAG = "MainActivity"; // For logging
-    private Spinner matchesSpinner;
+    private RecyclerView matchesList;
+    private TextView matchesStatusTextView;
     private TextView scoreTextView;
-    private ArrayList<MatchDetails> liveMatchesList = new ArrayList<>(); // Store fetched matches
+    // Rows keyed by match URL, so refreshes and score updates rebind only the rows that changed
+    private MatchListAdapter matchListAdapter;
 
     // Executor for background tasks
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
     private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
-
+    // Every match page is on the same host, so one limit covers both: 2 pages at once, 20 seconds for the lot
+    private static final int SCORE_BATCH_PARALLELISM = 2;
+    private final BatchScoreFetcher batchScoreFetcher = new BatchScoreFetcher(SCORE_BATCH_PARALLELISM, SCORE_BATCH_PARALLELISM);
+    private static final long SCORE_BATCH_DEADLINE_MS = 20000;
+    // Last refreshed list, shown at startup until the network answers
+    private SnapshotCache snapshotCache;
+    private TextView cacheStatusTextView;
+    private static final long SNAPSHOT_STALE_AFTER_MS = 30 * 60 * 1000;
+    // Live updates for the selected match; cancelled by the feed itself when this activity is destroyed
+    private MatchFeed.Subscription selectedMatchUpdates;
+    private String followedMatchUrl;
+    // While in the foreground the list is refreshed in the same radio wakes as the match polls
+    private static final long LIST_REFRESH_MS = 5 * 60 * 1000;
+    private ScheduledFuture<?> listRefresh;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -38,98 +69,319 @@ public class MainActivity extends Activity {
         // It's crucial that R.layout.activity_main refers to the XML file expected.
         // If the user has a different main layout file name, this would need to be adjusted by them.
         setContentView(R.layout.main_activity); 
+        // Debug logging builds its messages only in debuggable builds, or for tags raised to DEBUG
+        DebugLog.setEnabled((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0);
 
-        matchesSpinner = findViewById(R.id.matches_spinner);
+        matchesList = findViewById(R.id.matches_list);
+        matchesStatusTextView = findViewById(R.id.matches_status_textview);
         scoreTextView = findViewById(R.id.score_textview);
+        cacheStatusTextView = findViewById(R.id.cache_status_textview);
+        // Hidden: a long press on the score shows the hot-path metrics
+        scoreTextView.setOnLongClickListener(v -> {
+            showMetricsDialog();
+            return true;
+        });
+        // Hidden too: a long press on the list heading edits which teams are shown
+        findViewById(R.id.matches_label).setOnLongClickListener(v -> {
+            showTeamFilterDialog();
+            return true;
+        });
+        snapshotCache = new SnapshotCache(new File(getFilesDir(), SnapshotCache.FILE_NAME));
+        // Matches the user doesn't follow are dropped while the feed is parsed
+        CricinfoLive.setTeamFilter(TeamFilterPreferences.load(this));
 
-        // Set up the spinner with a default "Loading..." message initially
-        ArrayAdapter<String> initialAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, new String[]{"Loading matches..."});
-        initialAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        matchesSpinner.setAdapter(initialAdapter);
-        matchesSpinner.setEnabled(false); // Disable spinner until data is loaded
-
-        fetchMatchesAndUpdateSpinner();
-
-        matchesSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-            @Override
-            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                if (liveMatchesList != null && position >= 0 && position < liveMatchesList.size()) {
-                    MatchDetails selectedMatch = liveMatchesList.get(position);
-                    if (selectedMatch != null && selectedMatch.getScore() != null) {
-                         scoreTextView.setText(selectedMatch.getScore());
-                         Log.d(TAG, "Displaying score for: " + selectedMatch.getMatchTitle() + " - " + selectedMatch.getScore());
-                    } else if (selectedMatch != null) {
-                        scoreTextView.setText("Score not available for this match.");
-                         Log.d(TAG, "Score not available for: " + selectedMatch.getMatchTitle());
-                    }
-                } else {
-                     // This case handles selection of placeholder items like "No matches available"
-                     // or if liveMatchesList is unexpectedly empty when an item is somehow selected.
-                     String selectedItemText = parent.getItemAtPosition(position).toString();
-                     if (selectedItemText.equals("No matches available") ||
-                         selectedItemText.equals("Failed to load matches") ||
-                         selectedItemText.equals("Loading matches...")) {
-                          scoreTextView.setText(""); // Clear score if a placeholder is selected
-                     }
-                }
-            }
+        matchListAdapter = new MatchListAdapter(this::selectMatch);
+        matchesList.setLayoutManager(new LinearLayoutManager(this));
+        matchesList.setHasFixedSize(true);
+        matchesList.setAdapter(matchListAdapter);
 
-            @Override
-            public void onNothingSelected(AdapterView<?> parent) {
-                scoreTextView.setText(""); // Clear score if nothing is selected
-            }
-        });
+        fetchMatchesAndUpdateList();
     }
 
-    private void fetchMatchesAndUpdateSpinner() {
+    private void fetchMatchesAndUpdateList() {
         executorService.execute(() -> {
-            final ArrayList<MatchDetails> fetchedMatches = CricinfoLive.getLiveMatchesFromRSS();
+            // Show the list saved by the last refresh straight away; the network round trip below replaces it
+            final SnapshotCache.Snapshot cached = snapshotCache.load();
+            if (cached != null && !cached.getMatches().isEmpty()) {
+                mainThreadHandler.post(() -> {
+                    showMatches(cached.getMatches());
+                    showCacheStatus(cached);
+                });
+            }
+
+            final ArrayList<MatchDetails> fetchedMatches = fillMissingScores(CricinfoLive.getLiveMatchesFromRSS());
+            saveSnapshot(fetchedMatches);
 
             mainThreadHandler.post(() -> {
-                liveMatchesList.clear();
                 if (fetchedMatches != null && !fetchedMatches.isEmpty()) {
-                    liveMatchesList.addAll(fetchedMatches);
-                    List<String> matchTitles = new ArrayList<>();
-                    for (MatchDetails match : liveMatchesList) {
-                        matchTitles.add(match.getMatchTitle());
-                    }
-                    ArrayAdapter<String> adapter = new ArrayAdapter<>(MainActivity.this,
-                            android.R.layout.simple_spinner_item, matchTitles);
-                    adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    matchesSpinner.setAdapter(adapter);
-                    matchesSpinner.setEnabled(true);
-                    
-                    if (!liveMatchesList.isEmpty()) {
-                        matchesSpinner.setSelection(0); 
-                        // Score for the first item will be set by onItemSelected listener
-                    } else {
-                         scoreTextView.setText(""); 
-                    }
+                    showMatches(fetchedMatches);
+                    cacheStatusTextView.setVisibility(View.GONE);
+                } else if (cached != null && !cached.getMatches().isEmpty()) {
+                    // Keep the saved list on screen, flagged as saved, rather than an empty list
+                    showCacheStatus(cached);
+                    Toast.makeText(MainActivity.this, "Couldn't refresh matches. Showing saved scores.", Toast.LENGTH_LONG).show();
                 } else {
-                    List<String> statusMessages = new ArrayList<>();
-                    if (fetchedMatches == null) { 
-                        statusMessages.add("Failed to load matches");
+                    showMatches(new ArrayList<>());
+                    if (fetchedMatches == null) {
+                        matchesStatusTextView.setText(R.string.matches_failed);
                         Toast.makeText(MainActivity.this, "Error fetching matches. Check network.", Toast.LENGTH_LONG).show();
-                    } else { 
-                        statusMessages.add("No matches available");
+                    } else {
+                        matchesStatusTextView.setText(R.string.matches_none);
                         Toast.makeText(MainActivity.this, "No live matches found.", Toast.LENGTH_LONG).show();
                     }
-                    ArrayAdapter<String> statusAdapter = new ArrayAdapter<>(MainActivity.this,
-                            android.R.layout.simple_spinner_item, statusMessages);
-                    statusAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    matchesSpinner.setAdapter(statusAdapter);
-                    matchesSpinner.setEnabled(false); 
-                    scoreTextView.setText(""); 
                 }
             });
         });
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        scheduleListRefresh();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (listRefresh != null) {
+            listRefresh.cancel(false);
+            listRefresh = null;
+        }
+    }
+
+    // On the main thread
+    private void scheduleListRefresh() {
+        if (listRefresh != null) {
+            listRefresh.cancel(false);
+        }
+        listRefresh = WakeWindowScheduler.shared().schedule(this::refreshMatchesInBackground,
+                LIST_REFRESH_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on a wake scheduler worker, alongside the match polls of the same wake. A failed refresh leaves the list on screen as it is; the next one tries again.
+    private void refreshMatchesInBackground() {
+        final ArrayList<MatchDetails> fetchedMatches = fillMissingScores(CricinfoLive.getLiveMatchesFromRSS());
+        saveSnapshot(fetchedMatches);
+        mainThreadHandler.post(() -> {
+            if (!fetchedMatches.isEmpty()) {
+                showMatches(fetchedMatches);
+                cacheStatusTextView.setVisibility(View.GONE);
+            }
+            // Unless the activity was stopped in the meantime
+            if (listRefresh != null) {
+                scheduleListRefresh();
+            }
+        });
+    }
+
+    private void saveSnapshot(List<MatchDetails> matches) {
+        if (!matches.isEmpty()) {
+            try {
+                snapshotCache.save(matches, System.currentTimeMillis());
+            } catch (IOException e) {
+                Log.w(TAG, "Could not save the match snapshot", e);
+            }
+        }
+    }
+
+    // Shows these matches, keeping the selected match selected if it is still listed and otherwise
+    // selecting the first. The list is diffed against the one on screen off the main thread.
+    private void showMatches(List<MatchDetails> listed) {
+        // The followed match's live score is newer than anything in the feed or the saved snapshot
+        MatchDetails live = followedMatchUrl != null ? MatchFeed.shared().getLatest(followedMatchUrl) : null;
+        List<MatchDetails> matches = live != null
+                ? MatchListDiff.withScore(listed, followedMatchUrl, live.getScore()) : listed;
+        matchListAdapter.submitList(new ArrayList<>(matches));
+        matchesList.setVisibility(matches.isEmpty() ? View.GONE : View.VISIBLE);
+        matchesStatusTextView.setVisibility(matches.isEmpty() ? View.VISIBLE : View.GONE);
+
+        String selectedUrl = matchListAdapter.getSelectedUrl();
+        MatchDetails selected = null;
+        for (MatchDetails match : matches) {
+            if (match.getMatchUrl().equals(selectedUrl)) {
+                selected = match;
+                break;
+            }
+        }
+        if (selected == null && !matches.isEmpty()) {
+            selected = matches.get(0);
+        }
+        selectMatch(selected);
+    }
+
+    // Highlights the match, shows its score and follows it, or clears all that if match is null
+    private void selectMatch(MatchDetails match) {
+        matchListAdapter.setSelectedUrl(match != null ? match.getMatchUrl() : null);
+        if (match == null) {
+            scoreTextView.setText("");
+        } else if (match.getScore() != null) {
+            scoreTextView.setText(match.getScore());
+            DebugLog.d(TAG, () -> "Displaying score for: " + match.getMatchTitle() + " - " + match.getScore());
+        } else {
+            scoreTextView.setText("Score not available for this match.");
+            DebugLog.d(TAG, () -> "Score not available for: " + match.getMatchTitle());
+        }
+        followSelectedMatch(match);
+    }
+
+    // Keeps the score on screen up to date for as long as this match stays selected. The poll is
+    // shared with anyone else following the same match, such as the glasses.
+    private void followSelectedMatch(MatchDetails match) {
+        String matchUrl = match != null ? match.getMatchUrl() : null;
+        if (matchUrl != null && matchUrl.equals(followedMatchUrl)) {
+            return; // Reselected when the list was refreshed; the subscription carries on
+        }
+        followedMatchUrl = matchUrl;
+        if (selectedMatchUpdates != null) {
+            selectedMatchUpdates.cancel();
+            selectedMatchUpdates = null;
+        }
+        if (match == null) {
+            return;
+        }
+        selectedMatchUpdates = MatchFeed.shared().subscribe(this, matchUrl, update -> {
+            scoreTextView.setText(update.getScore());
+            matchListAdapter.updateScore(matchUrl, update.getScore());
+            DebugLog.d(TAG, () -> "Live score for " + match.getMatchTitle() + ": " + update.getScore());
+        });
+    }
+
+    // Tells the user the scores on screen came from the snapshot file, and how old they are
+    private void showCacheStatus(SnapshotCache.Snapshot snapshot) {
+        long now = System.currentTimeMillis();
+        long minutes = snapshot.ageMillis(now) / 60000;
+        if (snapshot.isStale(now, SNAPSHOT_STALE_AFTER_MS)) {
+            cacheStatusTextView.setText(getString(R.string.saved_scores_stale, minutes));
+        } else {
+            cacheStatusTextView.setText(getString(R.string.saved_scores_age, minutes));
+        }
+        cacheStatusTextView.setVisibility(View.VISIBLE);
+    }
+
+    // Shows Metrics.report() with buttons to write it to a file or zero the metrics
+    private void showMetricsDialog() {
+        final String report = Metrics.report();
+        TextView reportView = new TextView(this);
+        reportView.setTypeface(Typeface.MONOSPACE);
+        reportView.setTextSize(10);
+        reportView.setTextIsSelectable(true);
+        reportView.setHorizontallyScrolling(true);
+        reportView.setText(report);
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+        reportView.setPadding(padding, padding, padding, padding);
+        ScrollView scroller = new ScrollView(this);
+        scroller.addView(reportView);
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.debug_metrics_title)
+                .setView(scroller)
+                .setPositiveButton(R.string.debug_metrics_dump, (dialog, which) -> dumpMetrics(report))
+                .setNeutralButton(R.string.debug_metrics_reset, (dialog, which) -> Metrics.reset())
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    // Edits the team watchlist and blocklist; saving applies them and refetches the match list
+    private void showTeamFilterDialog() {
+        final EditText watchlistEdit = teamListEdit(TeamFilterPreferences.loadWatchlist(this));
+        final EditText blocklistEdit = teamListEdit(TeamFilterPreferences.loadBlocklist(this));
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+        LinearLayout form = new LinearLayout(this);
+        form.setOrientation(LinearLayout.VERTICAL);
+        form.setPadding(padding, padding, padding, padding);
+        form.addView(teamListLabel(R.string.team_filter_watchlist));
+        form.addView(watchlistEdit);
+        form.addView(teamListLabel(R.string.team_filter_blocklist));
+        form.addView(blocklistEdit);
+        ScrollView scroller = new ScrollView(this);
+        scroller.addView(form);
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.team_filter_title)
+                .setView(scroller)
+                .setPositiveButton(R.string.team_filter_save, (dialog, which) -> {
+                    TeamFilterPreferences.save(this,
+                            TeamFilterPreferences.parseList(watchlistEdit.getText().toString()),
+                            TeamFilterPreferences.parseList(blocklistEdit.getText().toString()));
+                    CricinfoLive.setTeamFilter(TeamFilterPreferences.load(this));
+                    // Not through the saved list, which was filtered with the old lists
+                    executorService.execute(this::refreshMatchesInBackground);
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    private TextView teamListLabel(int textId) {
+        TextView label = new TextView(this);
+        label.setText(textId);
+        return label;
+    }
+
+    private EditText teamListEdit(Collection<String> entries) {
+        EditText edit = new EditText(this);
+        edit.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_MULTI_LINE);
+        edit.setHint(R.string.team_filter_hint);
+        edit.setText(TeamFilterPreferences.formatList(entries));
+        return edit;
+    }
+
+    // Writes the report to the app's external files directory, so it can be pulled with adb
+    private void dumpMetrics(final String report) {
+        executorService.execute(() -> {
+            File dir = getExternalFilesDir(null);
+            if (dir == null) {
+                dir = getFilesDir();
+            }
+            final File file = new File(dir, "metrics-" + System.currentTimeMillis() + ".txt");
+            boolean saved;
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(report.getBytes(StandardCharsets.UTF_8));
+                saved = true;
+            } catch (IOException e) {
+                Log.w(TAG, "Could not write " + file, e);
+                saved = false;
+            }
+            final boolean wasSaved = saved;
+            mainThreadHandler.post(() -> Toast.makeText(MainActivity.this,
+                    wasSaved ? getString(R.string.debug_metrics_saved, file.getPath())
+                            : getString(R.string.debug_metrics_not_saved),
+                    Toast.LENGTH_LONG).show());
+        });
+    }
+
+    // The RSS feed leaves some scores out. Those match pages are fetched in parallel rather than one
+    // after the other; any that miss the deadline keep their "Score not available".
+    private ArrayList<MatchDetails> fillMissingScores(ArrayList<MatchDetails> matches) {
+        List<String> missing = new ArrayList<>();
+        for (MatchDetails match : matches) {
+            if (match.getScore() == null || match.getScore().equals("Score not available")) {
+                missing.add(match.getMatchUrl());
+            }
+        }
+        if (missing.isEmpty()) {
+            return matches;
+        }
+        try {
+            Map<String, String> scores = batchScoreFetcher.fetchScores(missing, SCORE_BATCH_DEADLINE_MS);
+            for (int i = 0; i < matches.size(); i++) {
+                MatchDetails match = matches.get(i);
+                String score = scores.get(match.getMatchUrl());
+                if (score != null) {
+                    matches.set(i, new MatchDetails(match.getMatchTitle(), match.getMatchUrl(), score));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return matches;
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (executorService != null && !executorService.isShutdown()) {
             executorService.shutdown();
         }
+        batchScoreFetcher.shutdown();
     }
 }
@@ -5,6 +5,7 @@ public class MatchDetails {
     private final String matchTitle;
     private final String matchUrl;
     private final String score;
+    private volatile MatchState matchState; // Parsed from score on first use
 
     public MatchDetails(String matchTitle, String matchUrl, String score) {
         this.matchTitle = matchTitle;
@@ -12,6 +13,11 @@ public class MatchDetails {
         this.score = score;
     }
 
+    // Matches scraped from the listing page carry no score until the match page itself is fetched
+    public MatchDetails(String matchTitle, String matchUrl) {
+        this(matchTitle, matchUrl, null);
+    }
+
     public String getMatchTitle() {
         return matchTitle;
     }
@@ -23,4 +29,18 @@ public class MatchDetails {
     public String getScore() {
         return score;
     }
+
+    // The score as numbers, or null if there is no score text. Parsed once, the first time it is asked for.
+    public MatchState getMatchState() {
+        if (score == null) {
+            return null;
+        }
+        MatchState state = matchState;
+        if (state == null) {
+            // Two threads may both parse; they get equal results, so either may win
+            state = MatchState.parse(score);
+            matchState = state;
+        }
+        return state;
+    }
 }
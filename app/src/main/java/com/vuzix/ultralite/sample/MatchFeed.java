@@ -0,0 +1,270 @@
+package com.vuzix.ultralite.sample;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes score updates for a match to everyone who wants them.
+ *
+ * The phone UI, the glasses and any alerting each subscribe to a match by its URL. However many
+ * subscribers a match has, it is polled by a single {@link ScorePoller}, started with the first
+ * subscription and stopped when the last one is cancelled, so each consumer no longer runs its own
+ * poll of the same page.
+ *
+ * Every subscriber is called on the executor it chose, one update at a time. A subscriber that falls
+ * behind only ever gets the newest update: one that arrives while an older one is still waiting to be
+ * delivered replaces it, since a score is only interesting until the next one. A new subscriber gets
+ * the latest update straight away if there is one.
+ */
+public class MatchFeed {
+    private static final String TAG = "MatchFeed";
+
+    /**
+     * Called with each new state of the match.
+     */
+    public interface Listener {
+        void onUpdate(MatchDetails match);
+    }
+
+    /**
+     * Stops the updates to one subscriber. Updates already being delivered may still arrive.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    /**
+     * Makes the poll source for a match.
+     */
+    public interface SourceFactory {
+        ScorePoller.Source sourceFor(String matchUrl);
+    }
+
+    private static final Metrics.Counter UPDATES = Metrics.counter("feed.updates");
+    private static final Metrics.Counter CONFLATED = Metrics.counter("feed.conflated");
+    private static final Metrics.Counter POLLERS_STARTED = Metrics.counter("feed.pollers_started");
+
+    private static MatchFeed shared;
+
+    private final ScheduledExecutorService scheduler;
+    private final SourceFactory sources;
+    // Guarded by this
+    private final Map<String, Upstream> upstreams = new HashMap<>();
+
+    /**
+     * The feed the whole app shares, polling through {@link CricinfoLive#getMatch(String)}. Its polls
+     * run on {@link WakeWindowScheduler#shared()}, so every followed match is fetched in the same
+     * radio wake as the others.
+     */
+    public static synchronized MatchFeed shared() {
+        if (shared == null) {
+            shared = new MatchFeed(WakeWindowScheduler.shared(), matchUrl -> () -> CricinfoLive.getMatch(matchUrl));
+        }
+        return shared;
+    }
+
+    public MatchFeed(ScheduledExecutorService scheduler, SourceFactory sources) {
+        this.scheduler = scheduler;
+        this.sources = sources;
+    }
+
+    /**
+     * Subscribes to a match, with updates delivered on the given executor.
+     */
+    public Subscription subscribe(String matchUrl, Executor deliverOn, Listener listener) {
+        Subscriber subscriber = new Subscriber(matchUrl, deliverOn, listener);
+        synchronized (this) {
+            Upstream upstream = upstreams.get(matchUrl);
+            if (upstream == null) {
+                upstream = new Upstream();
+                upstream.poller = new ScorePoller(scheduler, sources.sourceFor(matchUrl), upstream::publish);
+                upstreams.put(matchUrl, upstream);
+                // Started before the lock is released, so an unsubscribe can never stop it first
+                POLLERS_STARTED.increment();
+                upstream.poller.start();
+            }
+            upstream.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    /**
+     * Subscribes on behalf of an activity: updates are delivered on its main thread, and the
+     * subscription is cancelled when the activity is destroyed.
+     */
+    public Subscription subscribe(Activity activity, String matchUrl, Listener listener) {
+        ActivitySubscription subscription = new ActivitySubscription(activity,
+                subscribe(matchUrl, activity.getMainExecutor(), listener));
+        activity.registerActivityLifecycleCallbacks(subscription);
+        if (activity.isDestroyed()) {
+            subscription.cancel();
+        }
+        return subscription;
+    }
+
+    /**
+     * The last update for this match, or null if it has none yet or nobody is subscribed to it. This
+     * is a memory read, so it is safe to call from the tap handler.
+     */
+    public MatchDetails getLatest(String matchUrl) {
+        Upstream upstream;
+        synchronized (this) {
+            upstream = upstreams.get(matchUrl);
+        }
+        return upstream != null ? upstream.poller.getLatest() : null;
+    }
+
+    // Number of matches being polled. For tests.
+    synchronized int activeMatches() {
+        return upstreams.size();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        Upstream upstream;
+        synchronized (this) {
+            upstream = upstreams.get(subscriber.matchUrl);
+            if (upstream == null || !upstream.remove(subscriber) || !upstream.isEmpty()) {
+                return;
+            }
+            upstreams.remove(subscriber.matchUrl);
+        }
+        upstream.poller.stop();
+    }
+
+    // The one poller for a match and everyone listening to it
+    private static final class Upstream {
+        ScorePoller poller;
+        // Guarded by this
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private MatchDetails latest;
+
+        // Called on the scheduler thread with every successful poll
+        synchronized void publish(MatchDetails match) {
+            UPDATES.increment();
+            latest = match;
+            for (int i = 0; i < subscribers.size(); i++) {
+                subscribers.get(i).offer(match);
+            }
+        }
+
+        // Under the same lock as publish(), so a new subscriber cannot get an older update after a newer one
+        synchronized void add(Subscriber subscriber) {
+            subscribers.add(subscriber);
+            if (latest != null) {
+                subscriber.offer(latest);
+            }
+        }
+
+        synchronized boolean remove(Subscriber subscriber) {
+            return subscribers.remove(subscriber);
+        }
+
+        synchronized boolean isEmpty() {
+            return subscribers.isEmpty();
+        }
+    }
+
+    // One consumer, holding at most one update waiting to be delivered
+    private final class Subscriber implements Subscription, Runnable {
+        final String matchUrl;
+        private final Executor deliverOn;
+        private final Listener listener;
+        private final AtomicReference<MatchDetails> pending = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        Subscriber(String matchUrl, Executor deliverOn, Listener listener) {
+            this.matchUrl = matchUrl;
+            this.deliverOn = deliverOn;
+            this.listener = listener;
+        }
+
+        void offer(MatchDetails match) {
+            MatchDetails replaced = pending.getAndSet(match);
+            if (replaced == null) {
+                deliverOn.execute(this);
+            } else {
+                // A delivery is already queued and will pick this one up instead
+                CONFLATED.increment();
+            }
+        }
+
+        @Override
+        public void run() {
+            MatchDetails match = pending.getAndSet(null);
+            if (match == null || cancelled) {
+                return;
+            }
+            try {
+                listener.onUpdate(match);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Listener for " + matchUrl + " failed", e);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                unsubscribe(this);
+            }
+        }
+    }
+
+    // Cancels the subscription when its activity is destroyed
+    private static final class ActivitySubscription implements Subscription, Application.ActivityLifecycleCallbacks {
+        private final Activity activity;
+        private final Subscription subscription;
+
+        ActivitySubscription(Activity activity, Subscription subscription) {
+            this.activity = activity;
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+            activity.unregisterActivityLifecycleCallbacks(this);
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity destroyed) {
+            if (destroyed == activity) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+}
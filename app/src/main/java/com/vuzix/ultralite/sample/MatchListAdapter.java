@@ -0,0 +1,162 @@
+package com.vuzix.ultralite.sample;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The live match list: one row per match with its title and score, the selected match highlighted.
+ *
+ * New lists are diffed against the one on screen on a background thread, and only the rows that
+ * changed are rebound; a row whose score changed only has its score text set. Rows are keyed by
+ * match URL, so a refresh neither loses the selection nor rebinds the rows that stayed the same.
+ */
+public class MatchListAdapter extends ListAdapter<MatchDetails, MatchListAdapter.RowHolder> {
+
+    /**
+     * Called on the main thread when the user taps a row.
+     */
+    public interface OnMatchClickListener {
+        void onMatchClick(MatchDetails match);
+    }
+
+    private static final DiffUtil.ItemCallback<MatchDetails> DIFF = new DiffUtil.ItemCallback<MatchDetails>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull MatchDetails oldItem, @NonNull MatchDetails newItem) {
+            return MatchListDiff.sameMatch(oldItem, newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull MatchDetails oldItem, @NonNull MatchDetails newItem) {
+            return MatchListDiff.sameContents(oldItem, newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull MatchDetails oldItem, @NonNull MatchDetails newItem) {
+            return MatchListDiff.changePayload(oldItem, newItem);
+        }
+    };
+
+    static final class RowHolder extends RecyclerView.ViewHolder {
+        final TextView title;
+        final TextView score;
+
+        RowHolder(View itemView) {
+            super(itemView);
+            title = itemView.findViewById(R.id.match_title);
+            score = itemView.findViewById(R.id.match_score);
+        }
+
+        void bindScore(MatchDetails match) {
+            score.setText(match.getScore() != null ? match.getScore() : "Score not available");
+        }
+    }
+
+    private final OnMatchClickListener clickListener;
+    private String selectedUrl;
+    // The last list submitted, which may still be being diffed; score updates are applied on top of it
+    private List<MatchDetails> latest = new ArrayList<>();
+
+    public MatchListAdapter(OnMatchClickListener clickListener) {
+        super(DIFF);
+        this.clickListener = clickListener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public void submitList(List<MatchDetails> matches) {
+        latest = matches != null ? matches : new ArrayList<>();
+        super.submitList(matches);
+    }
+
+    /**
+     * Shows a new score for one match, rebinding only its score text. Does nothing if the match is
+     * not listed or already shows this score.
+     */
+    public void updateScore(String matchUrl, String score) {
+        List<MatchDetails> updated = MatchListDiff.withScore(latest, matchUrl, score);
+        if (updated != latest) {
+            submitList(updated);
+        }
+    }
+
+    public String getSelectedUrl() {
+        return selectedUrl;
+    }
+
+    // Highlights the match at this URL, or none if null, rebinding only the two rows involved
+    public void setSelectedUrl(String matchUrl) {
+        String previous = selectedUrl;
+        if (matchUrl == null ? previous == null : matchUrl.equals(previous)) {
+            return;
+        }
+        selectedUrl = matchUrl;
+        notifySelectionChanged(previous);
+        notifySelectionChanged(matchUrl);
+    }
+
+    private void notifySelectionChanged(String matchUrl) {
+        if (matchUrl == null) {
+            return;
+        }
+        List<MatchDetails> shown = getCurrentList();
+        for (int i = 0; i < shown.size(); i++) {
+            if (shown.get(i).getMatchUrl().equals(matchUrl)) {
+                notifyItemChanged(i, MatchListDiff.SELECTION_CHANGED);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return MatchListDiff.stableIdOf(getItem(position).getMatchUrl());
+    }
+
+    @NonNull
+    @Override
+    public RowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View row = LayoutInflater.from(parent.getContext()).inflate(R.layout.match_row, parent, false);
+        RowHolder holder = new RowHolder(row);
+        row.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                clickListener.onMatchClick(getItem(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RowHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        MatchDetails match = getItem(position);
+        for (Object payload : payloads) {
+            if (payload == MatchListDiff.SCORE_CHANGED) {
+                holder.bindScore(match);
+            } else if (payload == MatchListDiff.SELECTION_CHANGED) {
+                holder.itemView.setActivated(match.getMatchUrl().equals(selectedUrl));
+            }
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RowHolder holder, int position) {
+        MatchDetails match = getItem(position);
+        holder.title.setText(match.getMatchTitle());
+        holder.bindScore(match);
+        holder.itemView.setActivated(match.getMatchUrl().equals(selectedUrl));
+    }
+}
@@ -0,0 +1,70 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How rows of the live match list are told apart and compared, for {@link MatchListAdapter}.
+ *
+ * A match is the same row for as long as it keeps its URL, so a refresh that moves, adds or drops
+ * matches leaves the other rows alone, and a row whose only change is its score gets just the new
+ * score text rather than a full rebind.
+ */
+final class MatchListDiff {
+
+    // Payloads for a partial rebind of a row
+    static final Object SCORE_CHANGED = "score";
+    static final Object SELECTION_CHANGED = "selection";
+
+    private MatchListDiff() {
+    }
+
+    /**
+     * A RecyclerView item id for the match at this URL, the same every time and for every list it
+     * appears in. 64-bit FNV-1a, so a few dozen URLs will not collide.
+     */
+    static long stableIdOf(String matchUrl) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < matchUrl.length(); i++) {
+            hash ^= matchUrl.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static boolean sameMatch(MatchDetails a, MatchDetails b) {
+        return a.getMatchUrl().equals(b.getMatchUrl());
+    }
+
+    static boolean sameContents(MatchDetails a, MatchDetails b) {
+        return equal(a.getMatchTitle(), b.getMatchTitle()) && equal(a.getScore(), b.getScore());
+    }
+
+    // SCORE_CHANGED when only the score differs, otherwise null for a full rebind
+    static Object changePayload(MatchDetails before, MatchDetails after) {
+        return equal(before.getMatchTitle(), after.getMatchTitle()) ? SCORE_CHANGED : null;
+    }
+
+    /**
+     * The list with the score of one match replaced, or the same list if the match is not in it or
+     * already shows this score.
+     */
+    static List<MatchDetails> withScore(List<MatchDetails> matches, String matchUrl, String score) {
+        for (int i = 0; i < matches.size(); i++) {
+            MatchDetails match = matches.get(i);
+            if (match.getMatchUrl().equals(matchUrl)) {
+                if (equal(match.getScore(), score)) {
+                    return matches;
+                }
+                List<MatchDetails> updated = new ArrayList<>(matches);
+                updated.set(i, new MatchDetails(match.getMatchTitle(), matchUrl, score));
+                return updated;
+            }
+        }
+        return matches;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
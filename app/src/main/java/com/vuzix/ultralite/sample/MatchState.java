@@ -0,0 +1,398 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.Arrays;
+
+/**
+ * The state of a match as numbers, read once out of a score string such as "IND 245/6 (42.3 ov)" or
+ * the RSS form "India 312 v Australia 150 &amp; 4/0 *".
+ *
+ * Run rates, required rates and change detection all work on these fields, so nothing downstream
+ * has to pick the score text apart again. The parser is a single hand-written pass over the
+ * characters: no regular expressions, and no substrings or other objects besides the result.
+ */
+public final class MatchState {
+    public static final int UNKNOWN = -1;
+
+    // Any of these anywhere in the text means the match is over
+    private static final KeywordMatcher RESULT_WORDS = new KeywordMatcher(Arrays.asList(
+            "won by", "match drawn", "match tied", "no result", "abandoned"));
+
+    private final String text;
+    private final boolean hasScore;
+    private final int runs;
+    private final int wickets;
+    private final int legalBalls;
+    private final int ballLimit;
+    private final int target;
+    private final int innings;
+    private final int battingTeamId;
+    private final boolean result;
+
+    private MatchState(String text, boolean hasScore, int runs, int wickets, int legalBalls, int ballLimit,
+                       int target, int innings, int battingTeamId, boolean result) {
+        this.text = text;
+        this.hasScore = hasScore;
+        this.runs = runs;
+        this.wickets = wickets;
+        this.legalBalls = legalBalls;
+        this.ballLimit = ballLimit;
+        this.target = target;
+        this.innings = innings;
+        this.battingTeamId = battingTeamId;
+        this.result = result;
+    }
+
+    // The score text this state was read from
+    public String getText() {
+        return text;
+    }
+
+    // False for status text without a score in it, such as "Rain stops play" or "India won by 45 runs"
+    public boolean hasScore() {
+        return hasScore;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    // 10 when the innings shows no wickets, which on the feed means all out
+    public int getWickets() {
+        return wickets;
+    }
+
+    // Legal deliveries bowled in the current innings, or UNKNOWN if the text shows no overs
+    public int getLegalBalls() {
+        return legalBalls;
+    }
+
+    public int getCompletedOvers() {
+        return legalBalls == UNKNOWN ? UNKNOWN : legalBalls / 6;
+    }
+
+    // Balls in the innings for limited-overs matches showing "(19.5/20 ov)", otherwise UNKNOWN
+    public int getBallLimit() {
+        return ballLimit;
+    }
+
+    // Runs the batting side needs to reach to win, or UNKNOWN
+    public int getTarget() {
+        return target;
+    }
+
+    // 1 for the first innings of the match, 2 for the second and so on
+    public int getInnings() {
+        return innings;
+    }
+
+    // The same number for the same team name, ignoring case; 0 if the text does not name the team
+    public int getBattingTeamId() {
+        return battingTeamId;
+    }
+
+    public boolean isResult() {
+        return result;
+    }
+
+    public int getRunsRequired() {
+        return target == UNKNOWN || !hasScore ? UNKNOWN : Math.max(0, target - runs);
+    }
+
+    public int getBallsRemaining() {
+        return ballLimit == UNKNOWN || legalBalls == UNKNOWN ? UNKNOWN : Math.max(0, ballLimit - legalBalls);
+    }
+
+    // Runs per over, or NaN if no balls have been bowled or the overs are unknown
+    public double getRunRate() {
+        return legalBalls > 0 ? runs * 6.0 / legalBalls : Double.NaN;
+    }
+
+    // Runs per over needed to win, or NaN if the target or the balls left are unknown
+    public double getRequiredRate() {
+        int required = getRunsRequired();
+        int remaining = getBallsRemaining();
+        return required == UNKNOWN || remaining <= 0 ? Double.NaN : required * 6.0 / remaining;
+    }
+
+    // True if both are the same innings of the match
+    public boolean sameInningsAs(MatchState other) {
+        return hasScore && other.hasScore && innings == other.innings && battingTeamId == other.battingTeamId;
+    }
+
+    // True if nothing that is counted changed, even if the text around it did
+    public boolean sameScoreAs(MatchState other) {
+        return sameInningsAs(other) && runs == other.runs && wickets == other.wickets
+                && legalBalls == other.legalBalls && target == other.target && result == other.result;
+    }
+
+    @Override
+    public String toString() {
+        if (!hasScore) {
+            return result ? "Result: " + text : "No score: " + text;
+        }
+        return "Innings " + innings + " team " + battingTeamId + ": " + runs + "/" + wickets
+                + (legalBalls == UNKNOWN ? "" : " (" + legalBalls / 6 + "." + legalBalls % 6 + " ov)")
+                + (target == UNKNOWN ? "" : " target " + target);
+    }
+
+    /**
+     * Reads a score string.
+     *
+     * The innings in progress is the one marked with "*" on the RSS feed. Without a star it is the last
+     * "runs/wickets" in the text, as on the match page. A score is a number, outside parentheses, that
+     * is followed by "/wickets", a star, an "&amp;", a "v" or the end of the text, so "won by 45 runs"
+     * or "T20" are not mistaken for one. Overs are read from the first "(overs ov)" after the score.
+     */
+    public static MatchState parse(String text) {
+        int length = text.length();
+        int resultState = 0;
+        boolean result = false;
+        int depth = 0;            // Parentheses
+        int scores = 0;           // Innings scores seen so far
+
+        // The starred innings, and failing that the last innings with wickets
+        int starRuns = UNKNOWN, starWickets = 0, starStart = 0, starInnings = 0, starBalls = UNKNOWN, starLimit = UNKNOWN;
+        int lastRuns = UNKNOWN, lastWickets = 0, lastStart = 0, lastInnings = 0, lastBalls = UNKNOWN, lastLimit = UNKNOWN;
+        int oversFor = 0;         // Which of those the next overs belong to: 1 starred, 2 last, 0 neither
+        int target = UNKNOWN;
+        int need = UNKNOWN;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            resultState = RESULT_WORDS.step(resultState, c);
+            result |= RESULT_WORDS.accepts(resultState);
+
+            if (c == '(') {
+                depth++;
+                if (oversFor != 0) {
+                    // "(42.3 ov)", "(19.5/20 ov)", "(20 overs)"
+                    int j = i + 1;
+                    int overs = 0;
+                    int digits = 0;
+                    while (j < length && isDigit(text.charAt(j))) {
+                        overs = overs * 10 + (text.charAt(j++) - '0');
+                        digits++;
+                    }
+                    int balls = 0;
+                    if (digits > 0 && j + 1 < length && text.charAt(j) == '.' && isDigit(text.charAt(j + 1))) {
+                        balls = text.charAt(j + 1) - '0';
+                        j += 2;
+                    }
+                    int limit = UNKNOWN;
+                    if (digits > 0 && j < length && text.charAt(j) == '/') {
+                        int k = j + 1;
+                        int limitOvers = 0;
+                        while (k < length && isDigit(text.charAt(k))) {
+                            limitOvers = limitOvers * 10 + (text.charAt(k++) - '0');
+                        }
+                        if (k > j + 1) {
+                            limit = limitOvers * 6;
+                            j = k;
+                        }
+                    }
+                    j = skipSpaces(text, j);
+                    if (digits > 0 && text.regionMatches(true, j, "ov", 0, 2)) {
+                        if (oversFor == 1) {
+                            starBalls = overs * 6 + balls;
+                            starLimit = limit;
+                        } else {
+                            lastBalls = overs * 6 + balls;
+                            lastLimit = limit;
+                        }
+                        oversFor = 0;
+                    }
+                }
+                i++;
+                continue;
+            }
+            if (c == ')') {
+                depth = Math.max(0, depth - 1);
+                i++;
+                continue;
+            }
+
+            if (isLetter(c) && (i == 0 || !isLetter(text.charAt(i - 1)))) {
+                // "target 281", "need 36 runs"
+                boolean isTarget = wordAt(text, i, "target");
+                if (isTarget || wordAt(text, i, "need")) {
+                    int j = skipSpaces(text, i + (isTarget ? 6 : 4));
+                    if (j < length && text.charAt(j) == ':') {
+                        j = skipSpaces(text, j + 1);
+                    }
+                    int value = 0;
+                    int start = j;
+                    while (j < length && isDigit(text.charAt(j))) {
+                        value = value * 10 + (text.charAt(j++) - '0');
+                    }
+                    if (j > start) {
+                        if (isTarget) {
+                            target = value;
+                        } else {
+                            need = value;
+                        }
+                        for (int k = i + 1; k < j; k++) { // The first character was read above
+                            resultState = RESULT_WORDS.step(resultState, text.charAt(k));
+                            result |= RESULT_WORDS.accepts(resultState);
+                        }
+                        i = j;
+                        continue;
+                    }
+                }
+            }
+
+            if (isDigit(c) && depth == 0 && (i == 0 || !isLetterOrDigit(text.charAt(i - 1)) && text.charAt(i - 1) != '.')) {
+                int start = i;
+                int number = 0;
+                int j = i;
+                while (j < length && isDigit(text.charAt(j))) {
+                    number = number * 10 + (text.charAt(j++) - '0');
+                }
+                int wickets = UNKNOWN;
+                if (j + 1 < length && text.charAt(j) == '/' && isDigit(text.charAt(j + 1))) {
+                    wickets = 0;
+                    j++;
+                    while (j < length && isDigit(text.charAt(j))) {
+                        wickets = wickets * 10 + (text.charAt(j++) - '0');
+                    }
+                }
+                int end = j;
+                if (j < length && (text.charAt(j) == 'd' || text.charAt(j) == 'D')
+                        && (j + 1 == length || !isLetter(text.charAt(j + 1)))) {
+                    end = ++j; // Declared
+                }
+                int after = skipSpaces(text, j);
+                char next = after < length ? text.charAt(after) : 0;
+                boolean starred = next == '*';
+                boolean isScore = wickets != UNKNOWN || starred || next == '&' || after == length
+                        || wordAt(text, after, "v") || wordAt(text, after, "vs");
+                if (isScore) {
+                    scores++;
+                    if (starred && starRuns == UNKNOWN) {
+                        starRuns = number;
+                        starWickets = wickets == UNKNOWN ? 10 : wickets; // No "/wickets" means all out
+                        starStart = start;
+                        starInnings = scores;
+                        oversFor = 1;
+                    } else if (wickets != UNKNOWN && starRuns == UNKNOWN) {
+                        lastRuns = number;
+                        lastWickets = wickets;
+                        lastStart = start;
+                        lastInnings = scores;
+                        lastBalls = UNKNOWN;
+                        lastLimit = UNKNOWN;
+                        oversFor = 2;
+                    } else {
+                        oversFor = 0;
+                    }
+                }
+                for (int k = i + 1; k < end; k++) {
+                    resultState = RESULT_WORDS.step(resultState, text.charAt(k));
+                    result |= RESULT_WORDS.accepts(resultState);
+                }
+                i = end;
+                continue;
+            }
+            i++;
+        }
+
+        if (starRuns != UNKNOWN) {
+            // On the feed the starred innings is the latest one, so every score in the text came before it or is it
+            int runs = starRuns;
+            return new MatchState(text, true, runs, starWickets, starBalls, starLimit,
+                    target != UNKNOWN ? target : need != UNKNOWN ? runs + need : UNKNOWN,
+                    Math.max(starInnings, scores), teamIdBefore(text, starStart), result);
+        }
+        if (lastRuns != UNKNOWN) {
+            int runs = lastRuns;
+            return new MatchState(text, true, runs, lastWickets, lastBalls, lastLimit,
+                    target != UNKNOWN ? target : need != UNKNOWN ? runs + need : UNKNOWN,
+                    lastInnings, teamIdBefore(text, lastStart), result);
+        }
+        return new MatchState(text, false, 0, 0, UNKNOWN, UNKNOWN, target, 0, 0, result);
+    }
+
+    // Hashes the team name in front of the score starting at scoreStart. An earlier innings of the
+    // same team in between ("Delhi 64/1 & 314/1") is skipped, and so is the "v" of an opponent.
+    private static int teamIdBefore(String text, int scoreStart) {
+        int j = scoreStart - 1;
+        while (true) {
+            while (j >= 0 && isSpace(text.charAt(j))) {
+                j--;
+            }
+            if (j < 0 || text.charAt(j) != '&') {
+                break;
+            }
+            j--;
+            while (j >= 0 && isSpace(text.charAt(j))) {
+                j--;
+            }
+            if (j >= 0 && (text.charAt(j) == 'd' || text.charAt(j) == 'D') && j > 0 && isDigit(text.charAt(j - 1))) {
+                j--;
+            }
+            while (j >= 0 && (isDigit(text.charAt(j)) || text.charAt(j) == '/')) {
+                j--;
+            }
+        }
+        int end = j + 1;
+        while (j >= 0 && isTeamChar(text.charAt(j))) {
+            j--;
+        }
+        int start = j + 1;
+        while (start < end && !isLetter(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && isSpace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (wordAt(text, start, "v") || wordAt(text, start, "vs")) {
+            start += wordAt(text, start, "vs") ? 2 : 1;
+            while (start < end && !isLetter(text.charAt(start))) {
+                start++;
+            }
+        }
+        if (start >= end) {
+            return 0;
+        }
+        int hash = 17;
+        for (int k = start; k < end; k++) {
+            hash = hash * 31 + Character.toLowerCase(text.charAt(k));
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    // True if the word starts at i and is not the start of a longer word, ignoring case
+    private static boolean wordAt(String text, int i, String word) {
+        int end = i + word.length();
+        return text.regionMatches(true, i, word, 0, word.length())
+                && (end == text.length() || !isLetter(text.charAt(end)));
+    }
+
+    private static int skipSpaces(String text, int i) {
+        while (i < text.length() && isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return Character.isLetter(c);
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\u00a0';
+    }
+
+    // Characters that make up team names: "Royal Challengers", "St. Lucia", "Cote d'Ivoire", "Guinea-Bissau"
+    private static boolean isTeamChar(char c) {
+        return isLetter(c) || c == ' ' || c == '.' || c == '\'' || c == '-' || c == '\u00a0';
+    }
+}
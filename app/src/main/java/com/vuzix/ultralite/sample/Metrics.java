@@ -0,0 +1,162 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and histograms for the hot paths: fetch latency and bytes per endpoint,
+ * parse time, which score strategy won, cache hits and how long the glasses take to acknowledge.
+ *
+ * Recording is lock-free and allocation-free, so it stays on in release builds. Callers on a hot
+ * path look their counter or histogram up once and keep the reference. The hidden debug view in
+ * MainActivity shows {@link #report()} and can write it to a file.
+ */
+public final class Metrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * A running total, such as bytes downloaded or cache hits.
+     */
+    public static final class Counter {
+        private final LongAdder total = new LongAdder();
+
+        public void increment() {
+            total.increment();
+        }
+
+        public void add(long amount) {
+            total.add(amount);
+        }
+
+        public long get() {
+            return total.sum();
+        }
+
+        void reset() {
+            total.reset();
+        }
+    }
+
+    /**
+     * A distribution of non-negative values, such as latencies in microseconds. Values are counted
+     * in power-of-two buckets, so percentiles are accurate to within a factor of two, which is
+     * plenty to tell a 40 ms fetch from a 400 ms one.
+     */
+    public static final class Histogram {
+        // Bucket 0 counts zeros; bucket i counts values in [2^(i-1), 2^i)
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+            count.increment();
+            sum.add(value);
+            long seen;
+            while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+                // Another thread raised the max in the meantime; try again against the new one
+            }
+        }
+
+        // Records the microseconds elapsed since a System.nanoTime() reading
+        public void recordMicrosSince(long startNanos) {
+            record((System.nanoTime() - startNanos) / 1000);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * @param fraction e.g. 0.99 for the 99th percentile
+         * @return An upper bound for the value below which this fraction of the recorded values fall
+         */
+        public long percentile(double fraction) {
+            long n = count.sum();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * n);
+            long seen = 0;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    long upper = i == 0 ? 0 : i == 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upper, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < 64; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+    }
+
+    public static Counter counter(String name) {
+        Counter counter = COUNTERS.get(name);
+        return counter != null ? counter : COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static Histogram histogram(String name) {
+        Histogram histogram = HISTOGRAMS.get(name);
+        return histogram != null ? histogram : HISTOGRAMS.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    // Zeroes everything, keeping the instances callers hold on to
+    public static void reset() {
+        for (Counter counter : COUNTERS.values()) {
+            counter.reset();
+        }
+        for (Histogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * A plain-text table of every counter and histogram, sorted by name.
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("Counters\n");
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(COUNTERS).entrySet()) {
+            out.append(String.format(Locale.US, "  %-36s %12d%n", entry.getKey(), entry.getValue().get()));
+        }
+        out.append("\nHistograms").append(String.format(Locale.US, "%30s %9s %9s %9s %9s %9s%n",
+                "count", "mean", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(HISTOGRAMS).entrySet()) {
+            Histogram h = entry.getValue();
+            out.append(String.format(Locale.US, "  %-30s %6d %9.0f %9d %9d %9d %9d%n", entry.getKey(), h.count(),
+                    h.mean(), h.percentile(0.5), h.percentile(0.9), h.percentile(0.99), h.max()));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,190 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+/**
+ * Streaming parser for the live-scores RSS feed.
+ *
+ * The feed is read straight from the response stream with SAX, so neither the whole body as a String
+ * nor an XML DOM is ever built. Only the title, link and description of each item are kept, items
+ * the {@link TeamFilter} rejects are dropped as soon as their end tag is read, and parsing can stop
+ * early once enough items have been accepted.
+ *
+ * SAX is used rather than StAX because javax.xml.stream is not part of the Android platform.
+ */
+class RssFeedParser extends DefaultHandler {
+    private static final String TAG = "RssFeedParser";
+    static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    // Thrown from a callback to abandon the rest of the document once the item limit is reached
+    private static class StopParsing extends SAXException {
+        private static final long serialVersionUID = 1L;
+
+        StopParsing() {
+            super("Item limit reached");
+        }
+    }
+
+    private final int maxItems;
+    private final TeamFilter filter;
+    private final ArrayList<MatchDetails> matches = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    private boolean inItem;
+    private String field; // The item child element currently being read, or null
+    private String title;
+    private String link;
+    private String description;
+
+    private RssFeedParser(int maxItems, TeamFilter filter) {
+        this.maxItems = maxItems;
+        this.filter = filter;
+    }
+
+    /**
+     * Reads the feed items into MatchDetails.
+     *
+     * @param body     The feed, typically the response stream
+     * @param charset  The charset from the Content-Type header, or null to use the XML declaration
+     * @param maxItems Stop reading after this many items have been accepted, or NO_LIMIT
+     */
+    static ArrayList<MatchDetails> parse(InputStream body, String charset, int maxItems) throws IOException {
+        return parse(body, charset, maxItems, TeamFilter.ALLOW_ALL);
+    }
+
+    /**
+     * Reads the feed items whose titles the filter accepts into MatchDetails.
+     */
+    static ArrayList<MatchDetails> parse(InputStream body, String charset, int maxItems, TeamFilter filter) throws IOException {
+        RssFeedParser handler = new RssFeedParser(maxItems, filter);
+        InputSource source = new InputSource(body);
+        if (charset != null) {
+            source.setEncoding(charset);
+        }
+        try {
+            saxParser().parse(source, handler);
+        } catch (StopParsing e) {
+            DebugLog.d(TAG, () -> "Stopped reading feed after " + handler.matches.size() + " items.");
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Malformed RSS feed: " + e.getMessage(), e);
+        }
+        return handler.matches;
+    }
+
+    // Creating a SAX parser costs more than parsing the feed, so each polling thread keeps its own
+    private static final ThreadLocal<SAXParser> PARSERS = new ThreadLocal<>();
+
+    private static SAXParser saxParser() throws ParserConfigurationException, SAXException {
+        SAXParser parser = PARSERS.get();
+        if (parser == null) {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            // The feed has no business pulling in external entities
+            disableFeature(factory, "http://xml.org/sax/features/external-general-entities");
+            disableFeature(factory, "http://xml.org/sax/features/external-parameter-entities");
+            parser = factory.newSAXParser();
+            PARSERS.set(parser);
+        } else {
+            parser.reset();
+        }
+        return parser;
+    }
+
+    private static void disableFeature(SAXParserFactory factory, String feature) {
+        try {
+            factory.setFeature(feature, false);
+        } catch (Exception e) {
+            // Not every platform parser knows every feature; Android's never resolves external entities anyway
+            DebugLog.d(TAG, () -> "SAX feature not supported: " + feature);
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (qName.equals("item")) {
+            inItem = true;
+            title = null;
+            link = null;
+            description = null;
+        } else if (inItem && field == null
+                && (qName.equals("title") || qName.equals("link") || qName.equals("description"))) {
+            field = qName;
+            text.setLength(0);
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (field != null) {
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (field != null && qName.equals(field)) {
+            String value = normalizedText();
+            // Like selectFirst, only the first occurrence of each field counts
+            if (field.equals("title") && title == null) {
+                title = value;
+            } else if (field.equals("link") && link == null) {
+                link = value;
+            } else if (field.equals("description") && description == null) {
+                description = value;
+            }
+            field = null;
+        } else if (qName.equals("item")) {
+            inItem = false;
+            endItem();
+        }
+    }
+
+    private void endItem() throws SAXException {
+        String scoreText = description != null && !description.isEmpty() ? description : "Score not available"; // Default value
+
+        if (title != null && !title.isEmpty() && !filter.accept(title)) {
+            DebugLog.d(TAG, () -> "Filtered out by team filter: " + title);
+        } else if (title != null && !title.isEmpty() && link != null && !link.isEmpty()) {
+            // RSS links are usually absolute, no need to resolve with base URL normally
+            matches.add(new MatchDetails(title, link, scoreText));
+            DebugLog.d(TAG, () -> "Found match via RSS: " + title + " - " + link + " - Score: " + scoreText);
+            if (matches.size() >= maxItems) {
+                throw new StopParsing();
+            }
+        } else {
+            Log.w(TAG, "Skipping RSS item with missing title or link. Title: '" + title + "', Link: '" + link + "', Score: " + scoreText);
+        }
+    }
+
+    // Collapses whitespace runs to single spaces and trims, the same normalization Jsoup's text() applies
+    private String normalizedText() {
+        int length = text.length();
+        int out = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00a0') {
+                pendingSpace = out > 0;
+            } else {
+                if (pendingSpace) {
+                    text.setCharAt(out++, ' ');
+                    pendingSpace = false;
+                }
+                text.setCharAt(out++, c);
+            }
+        }
+        text.setLength(out);
+        return text.toString();
+    }
+}
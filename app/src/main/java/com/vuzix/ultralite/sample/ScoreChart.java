@@ -0,0 +1,214 @@
+package com.vuzix.ultralite.sample;
+
+import android.graphics.Bitmap;
+
+import com.vuzix.ultralite.LVGLImage;
+
+import java.util.Arrays;
+
+/**
+ * Draws a {@link ScoreHistory} as a small chart for the glasses canvas.
+ *
+ * A Manhattan chart shows the innings in progress as one bar per over, as tall as the runs scored
+ * in it, with a mark above the bar for each wicket. A worm chart shows every innings held as a line
+ * of runs against overs, the first innings of each pair solid and the second dotted, so a chase can
+ * be compared with the score it is chasing.
+ *
+ * The chart is drawn 1 bit per pixel, the way the glasses show it, into a buffer that is cleared and
+ * reused for each drawing.
+ */
+public final class ScoreChart {
+    private static final int ON = 0xFFFFFFFF;
+    private static final int OFF = 0xFF000000;
+
+    // The smallest scales, so a quiet start does not fill the chart
+    static final int MIN_OVERS = 20;
+    static final int MIN_OVER_RUNS = 12;
+    static final int MIN_TOTAL_RUNS = 60;
+    // Room kept above the bars for the wicket marks
+    private static final int WICKET_ROWS = 6;
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final byte[] pixels; // Rows of width bits, most significant bit first, padded to whole bytes
+
+    public ScoreChart(int width, int height) {
+        if (width < 1 || height < WICKET_ROWS + 2) {
+            throw new IllegalArgumentException("Chart too small: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.stride = (width + 7) / 8;
+        this.pixels = new byte[stride * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draws the overs of the innings in progress, the most recent ones if there are more overs than
+     * the chart has columns.
+     */
+    public ScoreChart drawManhattan(ScoreHistory history) {
+        clear();
+        drawBaseline();
+        int size = history.size();
+        if (size == 0) {
+            return this;
+        }
+        int innings = history.inningsAt(size - 1);
+        int first = size - 1;
+        while (first > 0 && history.inningsAt(first - 1) == innings) {
+            first--;
+        }
+        int overs = Math.min(size - first, width);
+        first = size - overs;
+
+        int slot = Math.max(1, width / Math.max(overs, MIN_OVERS));
+        int gap = slot >= 3 ? 1 : 0;
+        int maxRuns = MIN_OVER_RUNS;
+        for (int over = first; over < size; over++) {
+            maxRuns = Math.max(maxRuns, history.runsAt(over));
+        }
+        int barRows = height - 1 - WICKET_ROWS;
+        for (int i = 0; i < overs; i++) {
+            int over = first + i;
+            int left = i * slot;
+            int right = Math.min(left + slot - gap, width);
+            int top = height - 1 - (history.runsAt(over) * barRows + maxRuns - 1) / maxRuns;
+            fillRect(left, top, right, height - 1);
+            // One mark per wicket, two rows high, stacked upwards from a row above the bar
+            for (int wicket = 0; wicket < history.wicketsAt(over); wicket++) {
+                int markBottom = top - 2 - wicket * 3;
+                if (markBottom < 0) {
+                    break;
+                }
+                fillRect(left, Math.max(markBottom - 1, 0), right, markBottom);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Draws a line of runs against overs for each innings held.
+     */
+    public ScoreChart drawWorm(ScoreHistory history) {
+        clear();
+        drawBaseline();
+        int size = history.size();
+        if (size == 0) {
+            return this;
+        }
+        // Scale to the longest innings and the highest total held
+        int maxOvers = MIN_OVERS;
+        int maxTotal = MIN_TOTAL_RUNS;
+        for (int over = 0, overs = 0, total = 0; over < size; over++) {
+            if (over > 0 && history.inningsAt(over) != history.inningsAt(over - 1)) {
+                overs = 0;
+                total = 0;
+            }
+            overs++;
+            total += history.runsAt(over);
+            maxOvers = Math.max(maxOvers, overs);
+            maxTotal = Math.max(maxTotal, total);
+        }
+
+        int plotWidth = width - 1;
+        int plotHeight = height - 2;
+        int x = 0;
+        int y = height - 1;
+        int overs = 0;
+        int total = 0;
+        for (int over = 0; over < size; over++) {
+            int innings = history.inningsAt(over);
+            if (over == 0 || innings != history.inningsAt(over - 1)) {
+                x = 0;
+                y = height - 1;
+                overs = 0;
+                total = 0;
+            }
+            overs++;
+            total += history.runsAt(over);
+            int nextX = overs * plotWidth / maxOvers;
+            int nextY = height - 1 - total * plotHeight / maxTotal;
+            drawLine(x, y, nextX, nextY, innings % 2 == 0);
+            x = nextX;
+            y = nextY;
+        }
+        return this;
+    }
+
+    // True if the pixel is lit. For tests.
+    boolean isSet(int x, int y) {
+        return (pixels[y * stride + (x >> 3)] & (0x80 >> (x & 7))) != 0;
+    }
+
+    /**
+     * The chart as an image for the glasses canvas.
+     */
+    public LVGLImage toImage() {
+        int[] argb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                argb[y * width + x] = isSet(x, y) ? ON : OFF;
+            }
+        }
+        Bitmap bitmap = Bitmap.createBitmap(argb, width, height, Bitmap.Config.ARGB_8888);
+        return LVGLImage.fromBitmap(bitmap, LVGLImage.CF_INDEXED_1_BIT);
+    }
+
+    private void clear() {
+        Arrays.fill(pixels, (byte) 0);
+    }
+
+    private void drawBaseline() {
+        fillRect(0, height - 1, width, height - 1);
+    }
+
+    private void set(int x, int y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            pixels[y * stride + (x >> 3)] |= (byte) (0x80 >> (x & 7));
+        }
+    }
+
+    // Lights the pixels from left up to but not including right, on rows top to bottom inclusive
+    private void fillRect(int left, int top, int right, int bottom) {
+        for (int y = top; y <= bottom; y++) {
+            for (int x = left; x < right; x++) {
+                set(x, y);
+            }
+        }
+    }
+
+    // Bresenham's line, lighting every other pixel when dotted
+    private void drawLine(int x0, int y0, int x1, int y1, boolean dotted) {
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int stepX = x0 < x1 ? 1 : -1;
+        int stepY = y0 < y1 ? 1 : -1;
+        int error = dx + dy;
+        for (int step = 0; ; step++) {
+            if (!dotted || step % 2 == 0) {
+                set(x0, y0);
+            }
+            if (x0 == x1 && y0 == y1) {
+                break;
+            }
+            int doubled = 2 * error;
+            if (doubled >= dy) {
+                error += dy;
+                x0 += stepX;
+            }
+            if (doubled <= dx) {
+                error += dx;
+                y0 += stepY;
+            }
+        }
+    }
+}
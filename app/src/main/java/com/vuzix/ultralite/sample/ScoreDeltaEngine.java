@@ -0,0 +1,106 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last known score of each match and turns every new score into the list of things that
+ * changed since then: runs, wickets, completed overs, a new innings or a result.
+ *
+ * Most polls return exactly the score we already have, and the Bluetooth link to the glasses is the
+ * slowest part of the pipeline, so callers only send something to the glasses when the returned
+ * list is not empty.
+ */
+public class ScoreDeltaEngine {
+
+    private final Map<String, MatchState> lastSeen = new ConcurrentHashMap<>();
+
+    /**
+     * Compares the score of this match with the one passed in last time. The match's own MatchState
+     * is used, so a score that has already been parsed is not parsed again.
+     *
+     * @return The changes, in the order they should be shown. Empty if nothing changed.
+     */
+    public List<ScoreEvent> update(MatchDetails match) {
+        String score = match.getScore();
+        if (score == null) {
+            return Collections.emptyList();
+        }
+        MatchState previous = lastSeen.get(match.getMatchUrl());
+        if (previous != null && previous.getText().equals(score)) {
+            return Collections.emptyList(); // The common case on a quiet poll
+        }
+        return compare(match.getMatchUrl(), previous, match.getMatchState());
+    }
+
+    /**
+     * Compares a new score for the match with the one passed in last time.
+     *
+     * @param matchUrl Identifies the match
+     * @param score    The current score text, may be null if no score is available
+     * @return The changes, in the order they should be shown. Empty if nothing changed.
+     */
+    public List<ScoreEvent> update(String matchUrl, String score) {
+        if (score == null) {
+            return Collections.emptyList();
+        }
+        MatchState previous = lastSeen.get(matchUrl);
+        if (previous != null && previous.getText().equals(score)) {
+            return Collections.emptyList();
+        }
+        return compare(matchUrl, previous, MatchState.parse(score));
+    }
+
+    private List<ScoreEvent> compare(String matchUrl, MatchState previous, MatchState current) {
+        lastSeen.put(matchUrl, current);
+        String score = current.getText();
+
+        List<ScoreEvent> events = new ArrayList<>(2);
+        if (previous == null) {
+            events.add(new ScoreEvent(ScoreEvent.Type.SCORE, matchUrl, 0, score));
+            return events;
+        }
+        if (current.isResult() && !previous.isResult()) {
+            events.add(new ScoreEvent(ScoreEvent.Type.RESULT, matchUrl, 0, score));
+            return events;
+        }
+        if (!current.hasScore() || !previous.hasScore()) {
+            // Only one side of the comparison has a score, so there is nothing to diff
+            events.add(new ScoreEvent(current.hasScore() ? ScoreEvent.Type.SCORE : ScoreEvent.Type.STATUS, matchUrl, 0, score));
+            return events;
+        }
+        if (!current.sameInningsAs(previous)) {
+            events.add(new ScoreEvent(ScoreEvent.Type.INNINGS_CHANGE, matchUrl, 0, score));
+            return events;
+        }
+
+        if (current.getRuns() < previous.getRuns() || current.getWickets() < previous.getWickets()) {
+            // A correction by the scorers; just show the new score
+            events.add(new ScoreEvent(ScoreEvent.Type.SCORE, matchUrl, 0, score));
+            return events;
+        }
+        if (current.getWickets() > previous.getWickets()) {
+            events.add(new ScoreEvent(ScoreEvent.Type.WICKET, matchUrl, current.getWickets() - previous.getWickets(), score));
+        }
+        if (current.getRuns() > previous.getRuns()) {
+            events.add(new ScoreEvent(ScoreEvent.Type.RUNS, matchUrl, current.getRuns() - previous.getRuns(), score));
+        }
+        if (current.getCompletedOvers() > previous.getCompletedOvers() && previous.getCompletedOvers() != MatchState.UNKNOWN) {
+            events.add(new ScoreEvent(ScoreEvent.Type.OVER_COMPLETED, matchUrl, current.getCompletedOvers(), score));
+        }
+        if (events.isEmpty()) {
+            events.add(new ScoreEvent(ScoreEvent.Type.STATUS, matchUrl, 0, score));
+        }
+        return events;
+    }
+
+    /**
+     * Forgets the last score of a match, so the next update reports a fresh SCORE event.
+     */
+    public void forget(String matchUrl) {
+        lastSeen.remove(matchUrl);
+    }
+}
@@ -0,0 +1,120 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One semantic change to a match score, as produced by {@link ScoreDeltaEngine}.
+ */
+public class ScoreEvent {
+
+    public enum Type {
+        SCORE,          // First score seen for a match, or a resync after the score could not be compared
+        RUNS,           // Runs were added in the same innings; value is the number of runs
+        WICKET,         // Wickets fell in the same innings; value is the number of wickets
+        OVER_COMPLETED, // An over was completed; value is the number of completed overs
+        INNINGS_CHANGE, // A different innings is now in progress
+        RESULT,         // The match has a result
+        STATUS          // The text changed without any of the above, e.g. "Rain stops play"
+    }
+
+    private final Type type;
+    private final String matchUrl;
+    private final int value;
+    private final String score;
+
+    public ScoreEvent(Type type, String matchUrl, int value, String score) {
+        this.type = type;
+        this.matchUrl = matchUrl;
+        this.value = value;
+        this.score = score;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getMatchUrl() {
+        return matchUrl;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    // The full score text at the time of the event
+    public String getScore() {
+        return score;
+    }
+
+    // A short headline for the event, without the score
+    public String getHeadline() {
+        switch (type) {
+            case RUNS:
+                return value == 1 ? "+1 run" : "+" + value + " runs";
+            case WICKET:
+                return value == 1 ? "WICKET" : value + " WICKETS";
+            case OVER_COMPLETED:
+                return "End of over " + value;
+            case INNINGS_CHANGE:
+                return "New innings";
+            case RESULT:
+                return "Result";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Builds the text sent to the glasses for a batch of events from one update: the headlines of
+     * all events followed once by the current score.
+     */
+    public static String describe(List<ScoreEvent> events) {
+        StringBuilder text = new StringBuilder();
+        for (ScoreEvent event : events) {
+            String headline = event.getHeadline();
+            if (!headline.isEmpty()) {
+                text.append(headline).append(", ");
+            }
+        }
+        if (text.length() > 0) {
+            text.setLength(text.length() - 2);
+            text.append(": ");
+        }
+        if (!events.isEmpty()) {
+            text.append(events.get(events.size() - 1).getScore());
+        }
+        return text.toString();
+    }
+
+    /**
+     * The same text as {@link #describe(List)}, as separate lines for the glasses: the headlines, if
+     * any, then the score. Keeping the score on its own line means an update that only adds runs
+     * leaves the headline line, and its rendered slices, untouched.
+     */
+    public static List<String> lines(List<ScoreEvent> events) {
+        List<String> lines = new ArrayList<>(2);
+        StringBuilder headlines = new StringBuilder();
+        for (ScoreEvent event : events) {
+            String headline = event.getHeadline();
+            if (!headline.isEmpty()) {
+                if (headlines.length() > 0) {
+                    headlines.append(", ");
+                }
+                headlines.append(headline);
+            }
+        }
+        if (headlines.length() > 0) {
+            lines.add(headlines.toString());
+        }
+        if (!events.isEmpty()) {
+            lines.add(events.get(events.size() - 1).getScore());
+        }
+        return lines;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + value + ") " + score;
+    }
+}
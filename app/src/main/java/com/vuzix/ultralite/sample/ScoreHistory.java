@@ -0,0 +1,163 @@
+package com.vuzix.ultralite.sample;
+
+/**
+ * The over-by-over history of one match, for worm and Manhattan charts.
+ *
+ * Every poll hands over a {@link MatchState}; whenever it shows that overs have been completed since
+ * the last one, an entry is appended for each of them with the runs, wickets and legal balls of that
+ * over. Entries live in parallel primitive arrays used as a ring buffer of {@code capacity} overs,
+ * so the memory used is fixed when the history is made, however long the match runs, and recording
+ * an over allocates nothing. Once full, the oldest overs are overwritten.
+ *
+ * Polls do not line up with the ends of overs. The runs and wickets seen since the last completed
+ * over are shared between the overs that have just ended and the one now in progress in proportion
+ * to the balls bowled in each, so a poll that lands a few balls into the next over, or one that
+ * misses whole overs, still gives each over its share.
+ */
+public final class ScoreHistory {
+
+    private final byte[] innings;  // 1 for the first innings of the match, and so on
+    private final int[] runs;      // Runs scored in the over
+    private final byte[] wickets;  // Wickets that fell in the over
+    private final byte[] balls;    // Legal balls, 6 unless the innings ended during the over
+    private int start;             // Index of the oldest over
+    private int size;
+
+    // The innings in progress at the last update, and its score at the start of its current over
+    private int currentInnings = MatchState.UNKNOWN;
+    private int runsAtOverStart;
+    private int wicketsAtOverStart;
+    private int ballsAtOverStart;
+    // Its score at the last update, for closing it off if a new innings starts mid-over
+    private int lastRuns;
+    private int lastWickets;
+    private int lastBalls;
+
+    public ScoreHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        innings = new byte[capacity];
+        runs = new int[capacity];
+        wickets = new byte[capacity];
+        balls = new byte[capacity];
+    }
+
+    /**
+     * Records the overs completed since the last update. States without a score or overs, and states
+     * from an earlier innings than the one in progress, are ignored.
+     */
+    public void update(MatchState state) {
+        if (state == null || !state.hasScore() || state.getLegalBalls() == MatchState.UNKNOWN) {
+            return;
+        }
+        int stateInnings = state.getInnings();
+        if (stateInnings != currentInnings) {
+            if (currentInnings != MatchState.UNKNOWN && stateInnings < currentInnings) {
+                return; // A stale poll
+            }
+            // The innings before ended part way through an over, e.g. all out at 18.4
+            if (currentInnings != MatchState.UNKNOWN && lastBalls > ballsAtOverStart) {
+                append(currentInnings, lastRuns - runsAtOverStart, lastWickets - wicketsAtOverStart,
+                        lastBalls - ballsAtOverStart);
+            }
+            currentInnings = stateInnings;
+            runsAtOverStart = 0;
+            wicketsAtOverStart = 0;
+            ballsAtOverStart = 0;
+        }
+
+        int stateRuns = state.getRuns();
+        int stateWickets = state.getWickets();
+        int stateBalls = state.getLegalBalls();
+        if (stateBalls < ballsAtOverStart) {
+            return; // A stale poll
+        }
+        int completedBalls = stateBalls / 6 * 6;
+        if (completedBalls > ballsAtOverStart) {
+            int sinceBalls = stateBalls - ballsAtOverStart;
+            int sinceRuns = stateRuns - runsAtOverStart;
+            int sinceWickets = stateWickets - wicketsAtOverStart;
+            int assignedRuns = 0;
+            int assignedWickets = 0;
+            for (int overEnd = ballsAtOverStart + 6; overEnd <= completedBalls; overEnd += 6) {
+                // Runs and wickets up to the end of this over, in proportion to the balls bowled by then
+                int through = overEnd - ballsAtOverStart;
+                int overRuns = sinceRuns * through / sinceBalls - assignedRuns;
+                int overWickets = sinceWickets * through / sinceBalls - assignedWickets;
+                append(stateInnings, overRuns, overWickets, 6);
+                assignedRuns += overRuns;
+                assignedWickets += overWickets;
+            }
+            runsAtOverStart += assignedRuns;
+            wicketsAtOverStart += assignedWickets;
+            ballsAtOverStart = completedBalls;
+        }
+        lastRuns = stateRuns;
+        lastWickets = stateWickets;
+        lastBalls = stateBalls;
+    }
+
+    /**
+     * Appends one over. Negative corrections, e.g. runs taken off after a review, count as none.
+     */
+    public void append(int overInnings, int overRuns, int overWickets, int overBalls) {
+        int index;
+        if (size < runs.length) {
+            index = (start + size++) % runs.length;
+        } else {
+            index = start;
+            start = (start + 1) % runs.length;
+        }
+        innings[index] = (byte) overInnings;
+        runs[index] = Math.max(overRuns, 0);
+        wickets[index] = (byte) Math.min(Math.max(overWickets, 0), 10);
+        balls[index] = (byte) Math.min(Math.max(overBalls, 0), 6);
+    }
+
+    // Number of overs held, at most the capacity
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return runs.length;
+    }
+
+    // The accessors number the overs held from 0, the oldest, to size() - 1, the most recent
+
+    public int inningsAt(int over) {
+        return innings[index(over)];
+    }
+
+    public int runsAt(int over) {
+        return runs[index(over)];
+    }
+
+    public int wicketsAt(int over) {
+        return wickets[index(over)];
+    }
+
+    public int ballsAt(int over) {
+        return balls[index(over)];
+    }
+
+    private int index(int over) {
+        if (over < 0 || over >= size) {
+            throw new IndexOutOfBoundsException("over " + over + " of " + size);
+        }
+        return (start + over) % runs.length;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+        currentInnings = MatchState.UNKNOWN;
+        runsAtOverStart = 0;
+        wicketsAtOverStart = 0;
+        ballsAtOverStart = 0;
+        lastRuns = 0;
+        lastWickets = 0;
+        lastBalls = 0;
+    }
+}
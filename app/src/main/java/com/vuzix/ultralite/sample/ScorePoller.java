@@ -0,0 +1,177 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Polls a match score in the background so the latest value is already in memory when the user taps
+ * the glasses.
+ *
+ * The delay before the next poll follows the state of the match: short while overs are being bowled,
+ * long during innings breaks, drinks, rain or stumps, and very long once there is a result. Failed
+ * polls back off exponentially with jitter.
+ */
+public class ScorePoller {
+    private static final String TAG = "ScorePoller";
+
+    /**
+     * Fetches the current state of the polled match.
+     */
+    public interface Source {
+        MatchDetails fetch() throws Exception;
+    }
+
+    /**
+     * Called on the scheduler thread after every successful poll.
+     */
+    public interface Listener {
+        void onUpdate(MatchDetails match);
+    }
+
+    public enum Phase { LIVE, BREAK, FINISHED }
+
+    static final long LIVE_INTERVAL_MS = 20_000;
+    static final long BREAK_INTERVAL_MS = 120_000;
+    static final long FINISHED_INTERVAL_MS = 600_000;
+    static final long MAX_BACKOFF_MS = 300_000;
+
+    private static final Pattern FINISHED_TEXT = Pattern.compile("won by|match drawn|match tied|no result|abandoned", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BREAK_TEXT = Pattern.compile("innings break|drinks|\\brain\\b|stumps|lunch|\\btea\\b|delayed|bad light|wet outfield|toss", Pattern.CASE_INSENSITIVE);
+
+    private final ScheduledExecutorService scheduler;
+    private final Source source;
+    private final Listener listener;
+    private final Random random;
+
+    private volatile MatchDetails latest;
+    private int consecutiveFailures;
+    private boolean running;
+    private boolean stopped;
+    private ScheduledFuture<?> pending;
+
+    public ScorePoller(ScheduledExecutorService scheduler, Source source, Listener listener) {
+        this(scheduler, source, listener, new Random());
+    }
+
+    ScorePoller(ScheduledExecutorService scheduler, Source source, Listener listener, Random random) {
+        this.scheduler = scheduler;
+        this.source = source;
+        this.listener = listener;
+        this.random = random;
+    }
+
+    /**
+     * The result of the most recent successful poll, or null if no poll has succeeded yet. This is a
+     * memory read, so it is safe to call from the tap handler.
+     */
+    public MatchDetails getLatest() {
+        return latest;
+    }
+
+    // Starts polling immediately, unless the poller has already been stopped
+    public synchronized void start() {
+        if (stopped) {
+            return;
+        }
+        running = true;
+        reschedule(0);
+    }
+
+    // For good: a stopped poller cannot be started again, so a late start() cannot leave it polling
+    public synchronized void stop() {
+        stopped = true;
+        running = false;
+        cancelPending();
+    }
+
+    private void poll() {
+        synchronized (this) {
+            pending = null; // This run is the scheduled poll
+        }
+        MatchDetails match = null;
+        Exception error = null;
+        try {
+            match = source.fetch();
+        } catch (Exception e) {
+            error = e;
+        }
+
+        long delay;
+        synchronized (this) {
+            if (match != null) {
+                latest = match;
+                consecutiveFailures = 0;
+                delay = intervalFor(phaseOf(match.getScore()));
+            } else {
+                consecutiveFailures++;
+                delay = backoffDelay(consecutiveFailures, random);
+                Log.w(TAG, "Poll failed " + consecutiveFailures + " time(s), retrying in " + delay + " ms", error);
+            }
+        }
+        if (match != null && listener != null) {
+            listener.onUpdate(match);
+        }
+        synchronized (this) {
+            // A start() during the fetch has already scheduled the next poll
+            if (pending == null) {
+                reschedule(delay);
+            }
+        }
+    }
+
+    private void reschedule(long delayMs) {
+        cancelPending();
+        if (running) {
+            pending = scheduler.schedule(this::poll, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Works out what is happening in the match from its score or status text.
+     */
+    static Phase phaseOf(String score) {
+        if (score == null) {
+            return Phase.BREAK;
+        }
+        if (FINISHED_TEXT.matcher(score).find()) {
+            return Phase.FINISHED;
+        }
+        if (BREAK_TEXT.matcher(score).find()) {
+            return Phase.BREAK;
+        }
+        return Phase.LIVE;
+    }
+
+    static long intervalFor(Phase phase) {
+        switch (phase) {
+            case LIVE:
+                return LIVE_INTERVAL_MS;
+            case BREAK:
+                return BREAK_INTERVAL_MS;
+            default:
+                return FINISHED_INTERVAL_MS;
+        }
+    }
+
+    /**
+     * Exponential backoff from the live interval, capped at MAX_BACKOFF_MS. The delay is picked at
+     * random from the upper half of the window, so that retries from many phones do not line up.
+     */
+    static long backoffDelay(int failures, Random random) {
+        long window = LIVE_INTERVAL_MS << Math.min(failures - 1, 16);
+        window = Math.min(window, MAX_BACKOFF_MS);
+        return window / 2 + (long) (random.nextDouble() * (window / 2));
+    }
+}
@@ -0,0 +1,165 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shows a match as a fixed scorecard on the glasses canvas, redrawing only the fields that changed.
+ *
+ * In the scrolling text layout a new score re-lays out and resends whole lines of text. Here each
+ * field of the scorecard has its own rectangle on the canvas, and remembers the text it is showing.
+ * An update renders and sends only the fields whose text is different, so a single run usually
+ * costs one small image for the score, and one for the overs at the end of a ball.
+ *
+ * The feed has no batter names, so the fourth field carries the status line instead: the result,
+ * or a break in play such as rain or stumps.
+ *
+ * @param <I> The image type of one field, LVGLImage on the glasses
+ */
+public class ScorecardRenderer<I> {
+    private static final Metrics.Counter FIELDS_SENT = Metrics.counter("glasses.fields_sent");
+    private static final Metrics.Counter FIELDS_UNCHANGED = Metrics.counter("glasses.fields_unchanged");
+
+    public enum Field {
+        SCORE,  // "245/6"
+        OVERS,  // "42.3/50 ov"
+        RATE,   // "Need 36 off 33  RRR 6.55", or "CRR 5.77"
+        STATUS  // The result or a break in play, otherwise blank
+    }
+
+    /**
+     * Where a field sits on the canvas, and how large its text is drawn.
+     */
+    public static final class Region {
+        public final int x;
+        public final int y;
+        public final int width;
+        public final int height;
+        public final int fontSize;
+
+        public Region(int x, int y, int width, int height, int fontSize) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.fontSize = fontSize;
+        }
+    }
+
+    /**
+     * Draws one field's text into an image of exactly the region's size.
+     */
+    public interface Rasterizer<I> {
+        I rasterize(String text, int fontSize, int width, int height);
+    }
+
+    /**
+     * Puts a field's image on the canvas at the top left corner of its region.
+     */
+    public interface RegionSink<I> {
+        void draw(Field field, I image, int x, int y);
+    }
+
+    private final Map<Field, Region> layout;
+    private final Rasterizer<I> rasterizer;
+    private final RegionSink<I> sink;
+    // The text each field is showing, or null if unknown
+    private final Map<Field, String> showing = new EnumMap<>(Field.class);
+
+    public ScorecardRenderer(Map<Field, Region> layout, Rasterizer<I> rasterizer, RegionSink<I> sink) {
+        this.layout = new EnumMap<>(layout);
+        this.rasterizer = rasterizer;
+        this.sink = sink;
+    }
+
+    /**
+     * The score large at the top left, the overs and rates beside it and the status line along the
+     * bottom, leaving {@link #chartRegion} free between them. Each region is only as large as its
+     * text needs, since every pixel of a changed field is sent.
+     */
+    public static Map<Field, Region> defaultLayout(int width, int height) {
+        Map<Field, Region> layout = new EnumMap<>(Field.class);
+        int scoreHeight = height * 4 / 15;
+        int line = height / 8;
+        layout.put(Field.SCORE, new Region(0, 0, width * 9 / 20, scoreHeight, scoreHeight * 7 / 8));
+        layout.put(Field.OVERS, new Region(width / 2, 0, width / 2, line, line * 3 / 4));
+        layout.put(Field.RATE, new Region(width / 2, line, width / 2, line, line * 3 / 4));
+        layout.put(Field.STATUS, new Region(0, height - line, width, line, line * 2 / 3));
+        return layout;
+    }
+
+    // The space the default layout leaves for a chart, with a small margin above and below
+    public static Region chartRegion(int width, int height) {
+        int margin = height / 60;
+        int top = height * 4 / 15 + margin;
+        return new Region(0, top, width, height - height / 8 - margin - top, 0);
+    }
+
+    /**
+     * Redraws the fields of the scorecard that show something different for this state. Text with
+     * no score in it, such as "Rain stops play", only changes the status line, so the last score
+     * stays up.
+     *
+     * @return The number of fields sent to the glasses
+     */
+    public synchronized int show(MatchState state) {
+        int sent = 0;
+        int compared = 0;
+        for (Map.Entry<Field, Region> entry : layout.entrySet()) {
+            Field field = entry.getKey();
+            if (!state.hasScore() && field != Field.STATUS) {
+                continue;
+            }
+            compared++;
+            String text = textOf(field, state);
+            if (text.equals(showing.get(field))) {
+                continue;
+            }
+            Region region = entry.getValue();
+            sink.draw(field, rasterizer.rasterize(text, region.fontSize, region.width, region.height), region.x, region.y);
+            showing.put(field, text);
+            sent++;
+        }
+        FIELDS_SENT.add(sent);
+        FIELDS_UNCHANGED.add(compared - sent);
+        return sent;
+    }
+
+    // Forgets what the glasses are showing, e.g. after they reconnect, so the next show redraws everything
+    public synchronized void invalidate() {
+        showing.clear();
+    }
+
+    static String textOf(Field field, MatchState state) {
+        switch (field) {
+            case SCORE:
+                // No wickets on the feed means all out
+                return state.getWickets() >= 10 ? Integer.toString(state.getRuns())
+                        : state.getRuns() + "/" + state.getWickets();
+            case OVERS: {
+                int balls = state.getLegalBalls();
+                if (balls == MatchState.UNKNOWN) {
+                    return "";
+                }
+                String overs = balls / 6 + "." + balls % 6;
+                int limit = state.getBallLimit();
+                return limit == MatchState.UNKNOWN ? overs + " ov" : overs + "/" + limit / 6 + " ov";
+            }
+            case RATE: {
+                int required = state.getRunsRequired();
+                int remaining = state.getBallsRemaining();
+                if (required != MatchState.UNKNOWN && required > 0 && remaining != MatchState.UNKNOWN) {
+                    double requiredRate = state.getRequiredRate();
+                    return "Need " + required + " off " + remaining
+                            + (Double.isNaN(requiredRate) ? "" : String.format(Locale.US, "  RRR %.2f", requiredRate));
+                }
+                double runRate = state.getRunRate();
+                return Double.isNaN(runRate) ? "" : String.format(Locale.US, "CRR %.2f", runRate);
+            }
+            default:
+                return state.isResult() || ScorePoller.phaseOf(state.getText()) != ScorePoller.Phase.LIVE
+                        ? state.getText() : "";
+        }
+    }
+}
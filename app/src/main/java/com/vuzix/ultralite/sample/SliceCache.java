@@ -0,0 +1,164 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache of rendered text slices, capped by memory rather than by entry count.
+ *
+ * Rasterizing a line of text into slices for the glasses is the most expensive thing the phone does
+ * for each score update, yet most lines ("Innings break", the team names, the overs line of an
+ * unchanged over) come back unchanged from one update to the next. Entries are keyed by everything
+ * that affects the pixels: the text, the slice height and the slice width. The slicer sizes its
+ * font to the slice height, so there is no separate font size to key on.
+ *
+ * @param <V> The rendered form of one line, e.g. the list of LVGLImage slices it was cut into
+ */
+public class SliceCache<V> {
+
+    /**
+     * Identifies one rendering of a line of text.
+     */
+    public static final class Key {
+        private final String text;
+        private final int sliceHeight;
+        private final int width;
+        private final int hash;
+
+        public Key(String text, int sliceHeight, int width) {
+            this.text = text;
+            this.sliceHeight = sliceHeight;
+            this.width = width;
+            this.hash = (text.hashCode() * 31 + sliceHeight) * 31 + width;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getSliceHeight() {
+            return sliceHeight;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && sliceHeight == other.sliceHeight
+                    && width == other.width && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "\"" + text + "\" " + width + "x" + sliceHeight;
+        }
+    }
+
+    /**
+     * Estimates how many bytes a rendered line holds on to.
+     */
+    public interface Weigher<V> {
+        int weigh(Key key, V value);
+    }
+
+    /**
+     * Renders a line that is not in the cache.
+     */
+    public interface Renderer<V> {
+        V render(Key key);
+    }
+
+    private final long maxBytes;
+    private final Weigher<V> weigher;
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, Integer> weights = new LinkedHashMap<>();
+    private long totalBytes;
+    private long hits;
+    private long misses;
+
+    public SliceCache(long maxBytes, Weigher<V> weigher) {
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached rendering of this line, rendering and caching it first if needed.
+     */
+    public V getOrRender(Key key, Renderer<V> renderer) {
+        V value = get(key);
+        if (value == null) {
+            // Rendered outside the lock; two threads may occasionally render the same line, which is harmless
+            value = renderer.render(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public synchronized V get(Key key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(Key key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight > maxBytes) {
+            return; // Would evict everything else and still not fit
+        }
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            totalBytes -= weights.get(key);
+        }
+        weights.put(key, weight);
+        totalBytes += weight;
+
+        Iterator<Map.Entry<Key, V>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Key evicted = eldest.next().getKey();
+            eldest.remove();
+            totalBytes -= weights.remove(evicted);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weights.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+}
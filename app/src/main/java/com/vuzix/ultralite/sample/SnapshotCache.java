@@ -0,0 +1,175 @@
+package com.vuzix.ultralite.sample;
+
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the last list of matches and their scores in a small binary file in app-private storage, so
+ * the app has something to show the moment it starts, before the network has answered.
+ *
+ * File layout, all big-endian as written by DataOutputStream:
+ * <pre>
+ *   int    MAGIC
+ *   int    VERSION
+ *   long   time the snapshot was saved, in ms since the epoch
+ *   int    number of matches
+ *   per match: UTF title, UTF url, boolean hasScore, [UTF score]
+ *   long   CRC32 of everything above
+ * </pre>
+ * A file with the wrong magic, an unknown version, a bad checksum or a short read is treated as
+ * missing. Saves go to a temporary file that is renamed over the old one, so a crash mid-write never
+ * leaves a half-written cache behind.
+ */
+public class SnapshotCache {
+    private static final String TAG = "SnapshotCache";
+    public static final String FILE_NAME = "matches.snapshot";
+
+    private static final int MAGIC = 0x43524B53; // "CRKS"
+    private static final int VERSION = 1;
+    // Magic, version, saved-at time and match count, then the CRC after the matches: an empty list
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int CHECKSUM_BYTES = 8;
+
+    /**
+     * A list of matches as it was when it was saved.
+     */
+    public static class Snapshot {
+        private final long savedAtMillis;
+        private final List<MatchDetails> matches;
+
+        Snapshot(long savedAtMillis, List<MatchDetails> matches) {
+            this.savedAtMillis = savedAtMillis;
+            this.matches = matches;
+        }
+
+        public long getSavedAtMillis() {
+            return savedAtMillis;
+        }
+
+        public List<MatchDetails> getMatches() {
+            return matches;
+        }
+
+        public long ageMillis(long nowMillis) {
+            return Math.max(0, nowMillis - savedAtMillis);
+        }
+
+        // True when the scores are too old to be shown without a warning
+        public boolean isStale(long nowMillis, long maxAgeMillis) {
+            return ageMillis(nowMillis) > maxAgeMillis;
+        }
+    }
+
+    private final File file;
+
+    public SnapshotCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replaces the cached snapshot with this list of matches.
+     */
+    public synchronized void save(List<MatchDetails> matches, long nowMillis) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + matches.size() * 160);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(nowMillis);
+        out.writeInt(matches.size());
+        for (MatchDetails match : matches) {
+            out.writeUTF(match.getMatchTitle());
+            out.writeUTF(match.getMatchUrl());
+            out.writeBoolean(match.getScore() != null);
+            if (match.getScore() != null) {
+                out.writeUTF(match.getScore());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+            bytes.writeTo(fileOut);
+            fileOut.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Reads the cached snapshot.
+     *
+     * @return The snapshot, or null if there is none or it is corrupt or from another version
+     */
+    public synchronized Snapshot load() {
+        if (!file.isFile()) {
+            return null;
+        }
+        byte[] bytes;
+        try (FileInputStream in = new FileInputStream(file)) {
+            bytes = new byte[(int) file.length()];
+            new DataInputStream(in).readFully(bytes);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read " + file, e);
+            return null;
+        }
+        return decode(bytes);
+    }
+
+    static Snapshot decode(byte[] bytes) {
+        if (bytes.length < HEADER_BYTES + CHECKSUM_BYTES) {
+            Log.w(TAG, "Snapshot too short: " + bytes.length + " bytes");
+            return null;
+        }
+        int payloadLength = bytes.length - CHECKSUM_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, payloadLength);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC) {
+                Log.w(TAG, "Not a snapshot file");
+                return null;
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                Log.w(TAG, "Ignoring snapshot version " + version);
+                return null;
+            }
+            // Check the whole payload before trusting any of the counts and lengths inside it
+            DataInputStream trailer = new DataInputStream(new ByteArrayInputStream(bytes, payloadLength, 8));
+            if (trailer.readLong() != crc.getValue()) {
+                Log.w(TAG, "Snapshot checksum mismatch");
+                return null;
+            }
+            long savedAtMillis = in.readLong();
+            int count = in.readInt();
+            List<MatchDetails> matches = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String title = in.readUTF();
+                String url = in.readUTF();
+                String score = in.readBoolean() ? in.readUTF() : null;
+                matches.add(new MatchDetails(title, url, score));
+            }
+            return new Snapshot(savedAtMillis, Collections.unmodifiableList(matches));
+        } catch (IOException e) {
+            Log.w(TAG, "Truncated snapshot", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Decides which matches the user cares about from their titles, before anything else is done with them.
+ *
+ * A match is dropped if its title mentions anything on the blocklist. If the watchlist is not empty,
+ * a match is also dropped unless its title mentions something on the watchlist. Entries are plain
+ * words or phrases, matched anywhere in the title and ignoring case, so "royal" matches
+ * "Royal Challengers Bengaluru".
+ *
+ * The lists are stored by {@link TeamFilterPreferences}.
+ */
+public class TeamFilter {
+    // Lets every match through
+    public static final TeamFilter ALLOW_ALL = new TeamFilter(Collections.<String>emptySet(), Collections.<String>emptySet());
+
+    private final KeywordMatcher watchlist;
+    private final KeywordMatcher blocklist;
+
+    public TeamFilter(Collection<String> watchlist, Collection<String> blocklist) {
+        this.watchlist = new KeywordMatcher(watchlist);
+        this.blocklist = new KeywordMatcher(blocklist);
+    }
+
+    /**
+     * @return True if a match with this title should be listed, polled and shown
+     */
+    public boolean accept(CharSequence title) {
+        if (blocklist.matchesAny(title)) {
+            return false;
+        }
+        return watchlist.isEmpty() || watchlist.matchesAny(title);
+    }
+}
@@ -0,0 +1,81 @@
+package com.vuzix.ultralite.sample;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Loads and saves the {@link TeamFilter} lists. They come from shared preferences, falling back to
+ * the string arrays in the app resources for a list the user has never changed.
+ *
+ * Kept apart from TeamFilter so the filter itself has no Android dependencies.
+ */
+public class TeamFilterPreferences {
+    public static final String PREFS_NAME = "team_filter";
+    static final String KEY_WATCHLIST = "watchlist";
+    static final String KEY_BLOCKLIST = "blocklist";
+
+    private TeamFilterPreferences() {
+    }
+
+    public static TeamFilter load(Context context) {
+        return new TeamFilter(loadWatchlist(context), loadBlocklist(context));
+    }
+
+    public static Set<String> loadWatchlist(Context context) {
+        return loadList(context, KEY_WATCHLIST, R.array.team_watchlist_default);
+    }
+
+    public static Set<String> loadBlocklist(Context context) {
+        return loadList(context, KEY_BLOCKLIST, R.array.team_blocklist_default);
+    }
+
+    private static Set<String> loadList(Context context, String key, int defaultsId) {
+        Set<String> saved = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).getStringSet(key, null);
+        if (saved == null) {
+            return new HashSet<>(Arrays.asList(context.getResources().getStringArray(defaultsId)));
+        }
+        return new HashSet<>(saved);
+    }
+
+    // Saves the user's lists, replacing the defaults from the resources
+    public static void save(Context context, Collection<String> watchlist, Collection<String> blocklist) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putStringSet(KEY_WATCHLIST, new HashSet<>(watchlist))
+                .putStringSet(KEY_BLOCKLIST, new HashSet<>(blocklist))
+                .apply();
+    }
+
+    /**
+     * Reads a list as the user typed it, one entry per line or separated by commas. Entries are
+     * trimmed and blank ones dropped.
+     */
+    static List<String> parseList(String text) {
+        List<String> entries = new ArrayList<>();
+        for (String entry : text.split("[,\\n]")) {
+            String trimmed = entry.trim();
+            if (!trimmed.isEmpty()) {
+                entries.add(trimmed);
+            }
+        }
+        return entries;
+    }
+
+    // A list for editing, one entry per line in alphabetical order
+    static String formatList(Collection<String> entries) {
+        StringBuilder text = new StringBuilder();
+        for (String entry : new TreeSet<>(entries)) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(entry);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,301 @@
+package com.vuzix.ultralite.sample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs background fetches in shared bursts, so the phone's cellular radio wakes up once per polling
+ * window rather than once per fetch.
+ *
+ * Every request, however small, keeps the radio in its high-power state for a tail of several
+ * seconds afterwards. Separate timers for the match list and each followed match would each pay
+ * that tail. Here a task scheduled with a delay may be put off by up to the tolerance, or half its
+ * delay if that is less, to run in the same wake as other tasks that are due around then. A wake
+ * starts at the latest earliest-time of the tasks in it, so no task runs early.
+ *
+ * The timer thread only lines wakes up. When a wake fires its tasks are handed to a small pool of
+ * workers and run side by side, so a slow blocking fetch in one wake does not hold up the others,
+ * or the rest of its own.
+ *
+ * Tasks with no delay, including those given to execute() and submit(), are never put off. Only
+ * Runnables passed to {@link #schedule(Runnable, long, TimeUnit)} are aligned; Callables and
+ * periodic tasks run on their own timers.
+ *
+ * The scheduler also estimates how long the radio has been in its high-power state, counting each
+ * burst plus {@link #RADIO_TAIL_MS} after it, and reports it for the last hour.
+ */
+public class WakeWindowScheduler extends ScheduledThreadPoolExecutor {
+    private static final String TAG = "WakeWindowScheduler";
+
+    static final long DEFAULT_TOLERANCE_MS = 30_000;
+    // How long an LTE radio typically stays at full power after the last packet
+    static final long RADIO_TAIL_MS = 10_000;
+    static final long HOUR_MS = 60 * 60 * 1000;
+    private static final long MINUTE_MS = 60 * 1000;
+    // Enough for the match list and a few followed matches at once; idle workers exit
+    static final int DEFAULT_WORKERS = 4;
+    private static final long IDLE_WORKER_TIMEOUT_MS = 60_000;
+
+    private static final Metrics.Counter WAKES = Metrics.counter("radio.wakes");
+    private static final Metrics.Counter ALIGNED = Metrics.counter("radio.aligned_tasks");
+    private static final Metrics.Counter ACTIVE_MS = Metrics.counter("radio.active_ms");
+
+    private static WakeWindowScheduler shared;
+
+    private final long toleranceMs;
+    private final long radioTailMs;
+    private final ThreadPoolExecutor workers;
+    // Guarded by this: the wakes that have not fired yet
+    private final List<Wake> wakes = new ArrayList<>();
+    // Guarded by this: when the radio drops out of its high-power state, and its active time per minute
+    // over the last hour, indexed by minute modulo 60
+    private long radioOnUntil = Long.MIN_VALUE;
+    private final long[] activeMinute = new long[60];
+    private final long[] activeMsInMinute = new long[60];
+
+    /**
+     * The scheduler the whole app shares for polling, so all of it lines up.
+     */
+    public static synchronized WakeWindowScheduler shared() {
+        if (shared == null) {
+            shared = new WakeWindowScheduler(DEFAULT_TOLERANCE_MS, RADIO_TAIL_MS, DEFAULT_WORKERS);
+        }
+        return shared;
+    }
+
+    /**
+     * @param toleranceMs The most a task may be put off to share a wake with others
+     * @param radioTailMs How long the radio stays at full power after a burst, for the estimate
+     * @param workerThreads How many tasks may run at once
+     */
+    public WakeWindowScheduler(long toleranceMs, long radioTailMs, int workerThreads) {
+        super(1, runnable -> {
+            Thread thread = new Thread(runnable, TAG);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.toleranceMs = toleranceMs;
+        this.radioTailMs = radioTailMs;
+        setRemoveOnCancelPolicy(true);
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, IDLE_WORKER_TIMEOUT_MS, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, TAG + "-worker-" + workerCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        workers.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        workers.shutdownNow();
+        return super.shutdownNow();
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        long delayMs = Math.max(0, unit.toMillis(delay));
+        long earliest = now() + delayMs;
+        long latest = earliest + Math.min(toleranceMs, delayMs / 2);
+        AlignedTask task = new AlignedTask(command, earliest);
+        synchronized (this) {
+            if (isShutdown()) {
+                throw new RejectedExecutionException(TAG + " is shut down");
+            }
+            Wake wake = null;
+            for (int i = 0; i < wakes.size(); i++) {
+                Wake candidate = wakes.get(i);
+                if (candidate.start <= latest && candidate.end >= earliest
+                        && (wake == null || candidate.start < wake.start)) {
+                    wake = candidate;
+                }
+            }
+            if (wake == null) {
+                wake = new Wake(earliest, latest);
+                wake.arm();
+                wakes.add(wake);
+            } else {
+                ALIGNED.increment();
+                wake.end = Math.min(wake.end, latest);
+                if (earliest > wake.start) {
+                    // Not before this task is due
+                    wake.start = earliest;
+                    wake.arm();
+                }
+            }
+            task.wake = wake;
+            wake.tasks.add(task);
+        }
+        return task;
+    }
+
+    /**
+     * Estimated milliseconds the radio spent at full power over the last hour, to the nearest minute.
+     */
+    public long getRadioActiveMillisLastHour() {
+        return radioActiveMillisInHourBefore(now());
+    }
+
+    // Number of wakes waiting to fire. For tests.
+    synchronized int pendingWakes() {
+        return wakes.size();
+    }
+
+    /**
+     * Adds a burst of network activity to the estimate. Time the radio was already at full power
+     * for, from the tail of an earlier burst, is only counted once.
+     */
+    synchronized void recordBurst(long startMs, long endMs) {
+        long tailEnd = endMs + radioTailMs;
+        if (startMs >= radioOnUntil) {
+            WAKES.increment();
+        }
+        long added = Math.max(0, tailEnd - Math.max(startMs, radioOnUntil));
+        radioOnUntil = Math.max(radioOnUntil, tailEnd);
+        ACTIVE_MS.add(added);
+
+        long minute = Math.floorDiv(startMs, MINUTE_MS);
+        int slot = (int) Math.floorMod(minute, 60L);
+        if (activeMinute[slot] != minute) {
+            activeMinute[slot] = minute;
+            activeMsInMinute[slot] = 0;
+        }
+        activeMsInMinute[slot] += added;
+    }
+
+    synchronized long radioActiveMillisInHourBefore(long nowMs) {
+        long thisMinute = Math.floorDiv(nowMs, MINUTE_MS);
+        long total = 0;
+        for (int slot = 0; slot < 60; slot++) {
+            if (activeMinute[slot] > thisMinute - 60 && activeMinute[slot] <= thisMinute) {
+                total += activeMsInMinute[slot];
+            }
+        }
+        return total;
+    }
+
+    // Drops a wake whose tasks have all been cancelled, so the radio is not woken for nothing
+    private synchronized void discard(AlignedTask task) {
+        Wake wake = task.wake;
+        if (wake == null || !wakes.contains(wake)) {
+            return;
+        }
+        for (int i = 0; i < wake.tasks.size(); i++) {
+            if (!wake.tasks.get(i).isDone()) {
+                return;
+            }
+        }
+        wakes.remove(wake);
+        wake.timer.cancel(false);
+    }
+
+    // Tasks that run together, between start and end on the clock. Guarded by the scheduler.
+    private final class Wake implements Runnable {
+        long start;
+        long end;
+        final List<AlignedTask> tasks = new ArrayList<>();
+        ScheduledFuture<?> timer;
+
+        Wake(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void arm() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            timer = WakeWindowScheduler.super.schedule(this, Math.max(0, start - now()), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            synchronized (WakeWindowScheduler.this) {
+                // A timer cancelled too late by arm() or discard() finds the wake moved or gone
+                if (now() < start || !wakes.remove(this)) {
+                    return;
+                }
+            }
+            List<AlignedTask> due = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!tasks.get(i).isDone()) {
+                    due.add(tasks.get(i));
+                }
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            // The burst ends when the last of its tasks does
+            long burstStart = now();
+            AtomicInteger running = new AtomicInteger(due.size());
+            for (int i = 0; i < due.size(); i++) {
+                AlignedTask task = due.get(i);
+                try {
+                    workers.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            if (running.decrementAndGet() == 0) {
+                                recordBurst(burstStart, now());
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Shut down while the wake was firing
+                    task.cancel(false);
+                    running.decrementAndGet();
+                }
+            }
+            DebugLog.d(TAG, () -> "Started " + due.size() + " task(s) in one wake");
+        }
+    }
+
+    private final class AlignedTask extends FutureTask<Void> implements ScheduledFuture<Void> {
+        private final long earliest;
+        Wake wake;
+
+        AlignedTask(Runnable command, long earliest) {
+            super(command, null);
+            this.earliest = earliest;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(earliest - now(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                discard(this);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchScoreFetcherTest {
+
+    private static List<String> urls(String host, int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            urls.add("https://" + host + "/live-cricket-scores/series-1/match-" + i);
+        }
+        return urls;
+    }
+
+    // Tracks how many fetches run at the same time
+    private static class ConcurrencyProbe {
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+
+        String fetch(String url, long sleepMs) throws InterruptedException {
+            int now = current.incrementAndGet();
+            max.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(sleepMs);
+            } finally {
+                current.decrementAndGet();
+            }
+            return "score of " + url;
+        }
+    }
+
+    @Test
+    public void testAllScoresInOrder() throws InterruptedException {
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+        BatchScoreFetcher fetcher = new BatchScoreFetcher(url -> probe.fetch(url, 20), 4, 4);
+        List<String> urls = urls("www.espncricinfo.com", 10);
+
+        Map<String, String> scores = fetcher.fetchScores(urls, 5000);
+
+        assertEquals("Every score should arrive", urls, new ArrayList<>(scores.keySet()));
+        assertEquals("score of " + urls.get(3), scores.get(urls.get(3)));
+        assertTrue("Parallelism cap should be respected", probe.max.get() <= 4);
+        assertTrue("Fetches should overlap", probe.max.get() > 1);
+    }
+
+    @Test
+    public void testPerHostLimit() throws InterruptedException {
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+        BatchScoreFetcher fetcher = new BatchScoreFetcher(url -> probe.fetch(url, 20), 8, 2);
+
+        Map<String, String> scores = fetcher.fetchScores(urls("www.espncricinfo.com", 8), 5000);
+
+        assertEquals(8, scores.size());
+        assertTrue("No more than 2 requests should hit one host at a time", probe.max.get() <= 2);
+    }
+
+    @Test
+    public void testDeadlineReturnsPartialResults() throws InterruptedException {
+        List<String> urls = Arrays.asList(
+            "https://www.espncricinfo.com/live-cricket-scores/fast-1",
+            "https://www.espncricinfo.com/live-cricket-scores/slow",
+            "https://www.espncricinfo.com/live-cricket-scores/fast-2");
+        BatchScoreFetcher fetcher = new BatchScoreFetcher(url -> {
+            Thread.sleep(url.endsWith("slow") ? 10000 : 10);
+            return "score of " + url;
+        }, 3, 3);
+
+        long start = System.nanoTime();
+        Map<String, String> scores = fetcher.fetchScores(urls, 500);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue("Batch should end at the deadline, took " + elapsedMs + " ms", elapsedMs < 5000);
+        assertEquals("Only the fast matches should be returned", Arrays.asList(urls.get(0), urls.get(2)), new ArrayList<>(scores.keySet()));
+    }
+
+    @Test
+    public void testFailuresAreLeftOut() throws InterruptedException {
+        List<String> urls = urls("www.espncricinfo.com", 3);
+        BatchScoreFetcher fetcher = new BatchScoreFetcher(url -> {
+            if (url.endsWith("match-1")) {
+                throw new java.io.IOException("boom");
+            }
+            return "ok";
+        }, 2, 2);
+
+        Map<String, String> scores = fetcher.fetchScores(urls, 5000);
+
+        assertEquals(2, scores.size());
+        assertFalse(scores.containsKey(urls.get(1)));
+    }
+
+    @Test
+    public void testBatchesReuseThePoolThreads() throws InterruptedException {
+        Set<Thread> firstBatch = ConcurrentHashMap.newKeySet();
+        Set<Thread> secondBatch = ConcurrentHashMap.newKeySet();
+        AtomicReference<Set<Thread>> current = new AtomicReference<>(firstBatch);
+        BatchScoreFetcher fetcher = new BatchScoreFetcher(url -> {
+            current.get().add(Thread.currentThread());
+            Thread.sleep(20);
+            return "ok";
+        }, 2, 2);
+        try {
+            fetcher.fetchScores(urls("www.espncricinfo.com", 4), 5000);
+            current.set(secondBatch);
+            fetcher.fetchScores(urls("www.espncricinfo.com", 4), 5000);
+
+            assertTrue(firstBatch.size() <= 2);
+            assertTrue("The second refresh runs on the threads of the first", firstBatch.containsAll(secondBatch));
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+public class ConditionalFetcherTest {
+
+    private static final String ETAG = "\"score-v1\"";
+    private static final String LAST_MODIFIED = "Sat, 17 Oct 2026 10:00:00 GMT";
+
+    private HttpServer server;
+    private String baseUrl;
+    // Request headers seen by the stub server, one entry per request
+    private final List<String> seenIfNoneMatch = new ArrayList<>();
+    private final List<String> seenIfModifiedSince = new ArrayList<>();
+    private volatile String body = "Team X 123/4";
+    private volatile boolean sendValidators = true;
+    // The Accept-Encoding and client port of each request to /encoded
+    private final List<String> seenAcceptEncoding = new ArrayList<>();
+    private final List<Integer> seenClientPorts = new ArrayList<>();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/score", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            synchronized (this) {
+                seenIfNoneMatch.add(ifNoneMatch);
+                seenIfModifiedSince.add(ifModifiedSince);
+            }
+            if (sendValidators) {
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            }
+            if (sendValidators && ETAG.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+            exchange.close();
+        });
+        server.createContext("/encoded", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            synchronized (this) {
+                seenAcceptEncoding.add(acceptEncoding);
+                seenClientPorts.add(exchange.getRemoteAddress().getPort());
+            }
+            byte[] plain = body.getBytes(StandardCharsets.UTF_8);
+            String encoding = exchange.getRequestURI().getQuery();
+            byte[] bytes = "br".equals(encoding) ? brotliStored(plain) : "gzip".equals(encoding) ? gzip(plain) : plain;
+            if (encoding != null) {
+                exchange.getResponseHeaders().add("Content-Encoding", encoding);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] plain) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    // A Brotli stream holding the bytes as one uncompressed meta-block, so no encoder is needed:
+    // window bits, then ISLAST 0, four MLEN nibbles, MLEN - 1 and ISUNCOMPRESSED 1 packed from the
+    // lowest bit up, padded to a byte; the raw bytes; and an empty last meta-block.
+    private static byte[] brotliStored(byte[] plain) {
+        int header = ((plain.length - 1) << 4) | (1 << 20);
+        byte[] out = new byte[3 + plain.length + 1];
+        out[0] = (byte) header;
+        out[1] = (byte) (header >> 8);
+        out[2] = (byte) (header >> 16);
+        System.arraycopy(plain, 0, out, 3, plain.length);
+        out[out.length - 1] = 0x03;
+        return out;
+    }
+
+    @Test
+    public void testNotModifiedSkipsParsing() throws IOException {
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        AtomicInteger parses = new AtomicInteger();
+        ConditionalFetcher.BodyParser<String> parser = (in, charset, url) -> {
+            parses.incrementAndGet();
+            return readAll(in);
+        };
+
+        String first = fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+        String second = fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+
+        assertEquals("First fetch should return the parsed body", "Team X 123/4", first);
+        assertSame("304 should hand back the previously parsed value", first, second);
+        assertEquals("304 response must not be parsed", 1, parses.get());
+        assertNull("First request should be unconditional", seenIfNoneMatch.get(0));
+        assertEquals("Second request should send the stored ETag", ETAG, seenIfNoneMatch.get(1));
+        assertEquals("Second request should send the stored Last-Modified", LAST_MODIFIED, seenIfModifiedSince.get(1));
+    }
+
+    @Test
+    public void testRecordsMetricsPerEndpoint() throws IOException {
+        Metrics.reset();
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        ConditionalFetcher.BodyParser<String> parser = (in, charset, url) -> readAll(in);
+
+        fetcher.fetch("test", baseUrl + "/score", baseUrl, parser);
+        fetcher.fetch("test", baseUrl + "/score", baseUrl, parser);
+
+        assertEquals(2, Metrics.histogram("fetch.test.latency_us").count());
+        assertEquals("Only the 200 is parsed", 1, Metrics.histogram("fetch.test.parse_us").count());
+        assertEquals(1, Metrics.counter("fetch.test.not_modified").get());
+        assertEquals("Team X 123/4".length(), Metrics.counter("fetch.test.bytes").get());
+    }
+
+    @Test
+    public void testWithoutValidatorsEveryFetchIsParsed() throws IOException {
+        sendValidators = false;
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        AtomicInteger parses = new AtomicInteger();
+        ConditionalFetcher.BodyParser<String> parser = (in, charset, url) -> {
+            parses.incrementAndGet();
+            return readAll(in);
+        };
+
+        fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+        body = "Team X 124/4";
+        String second = fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+
+        assertEquals("Changed body should be parsed again", "Team X 124/4", second);
+        assertEquals("Both responses should be parsed", 2, parses.get());
+        assertNull("No validators should be sent when the server gave none", seenIfNoneMatch.get(1));
+    }
+
+    @Test
+    public void testClearForgetsValidators() throws IOException {
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        AtomicInteger parses = new AtomicInteger();
+        ConditionalFetcher.BodyParser<String> parser = (in, charset, url) -> {
+            parses.incrementAndGet();
+            return readAll(in);
+        };
+
+        fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+        fetcher.clear();
+        fetcher.fetch(baseUrl + "/score", baseUrl, parser);
+
+        assertNull("Request after clear() should be unconditional", seenIfNoneMatch.get(1));
+        assertEquals("Both responses should be parsed", 2, parses.get());
+    }
+
+    @Test
+    public void testDecodesEveryEncodingItAsksFor() throws IOException {
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        ConditionalFetcher.BodyParser<String> parser = (in, charset, url) -> readAll(in) + " in " + charset;
+
+        assertEquals("Team X 123/4 in UTF-8", fetcher.fetch(baseUrl + "/encoded?gzip", baseUrl, parser));
+        assertEquals("Team X 123/4 in UTF-8", fetcher.fetch(baseUrl + "/encoded?br", baseUrl, parser));
+        assertEquals("Team X 123/4 in UTF-8", fetcher.fetch(baseUrl + "/encoded", baseUrl, parser));
+
+        String acceptEncoding = seenAcceptEncoding.get(0);
+        assertTrue(acceptEncoding, acceptEncoding.contains("br") && acceptEncoding.contains("gzip"));
+        assertFalse("Nothing decodes deflate, so it is not asked for", acceptEncoding.contains("deflate"));
+    }
+
+    @Test
+    public void testPollsReuseTheSameConnection() throws IOException {
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        for (int i = 0; i < 3; i++) {
+            // Even when the parser stops before the end of the body
+            fetcher.fetch(baseUrl + "/encoded?gzip", baseUrl, (in, charset, url) -> in.read());
+        }
+        assertEquals(3, seenClientPorts.size());
+        assertEquals(seenClientPorts.get(0), seenClientPorts.get(1));
+        assertEquals(seenClientPorts.get(0), seenClientPorts.get(2));
+    }
+
+    @Test
+    public void testErrorStatusThrows() {
+        ConditionalFetcher fetcher = new ConditionalFetcher(5000);
+        try {
+            fetcher.fetch("test", baseUrl + "/missing", baseUrl, (in, charset, url) -> readAll(in));
+            fail("A 404 has no score to parse");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("404"));
+        }
+    }
+}
@@ -2,7 +2,12 @@ package com.vuzix.ultralite.sample;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 
 // Imports needed for testing with mock HTML
 import org.jsoup.Jsoup;
@@ -51,6 +56,34 @@ public class CricinfoLiveTest {
         assertEquals("Match 2 URL is incorrect", "https://www.espncricinfo.com/live-cricket-scores/series-2/match-2-ind-vs-sa", match2.getMatchUrl());
     }
 
+    @Test
+    public void testGetLiveMatches_TeamFilter() {
+        String html = "<html><body>" +
+            "<div class='ds-p-4'><a href='/live-cricket-scores/series-1/match-1-aus-vs-eng'>" +
+            "<p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Australia vs England, 1st Test</p></a></div>" +
+            "<div class='ds-p-4'><a href='/live-cricket-scores/series-2/match-2-ind-vs-sa'>" +
+            "<p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>India vs South Africa, 2nd ODI Match</p></a></div>" +
+            // Only reached by the last selector, which must not be tried because the first one found matches
+            "<a href='/live-cricket-scores/series-3/match-3-nz-vs-pak'><span>New Zealand vs Pakistan</span></a>" +
+            "</body></html>";
+        try {
+            CricinfoLive.setTeamFilter(new TeamFilter(Collections.<String>emptyList(), Collections.singletonList("INDIA")));
+            ArrayList<MatchDetails> matches = CricinfoLive.getLiveMatches(html);
+            assertEquals(1, matches.size());
+            assertEquals("Australia vs England, 1st Test", matches.get(0).getMatchTitle());
+
+            CricinfoLive.setTeamFilter(new TeamFilter(Collections.singletonList("south africa"), Collections.<String>emptyList()));
+            matches = CricinfoLive.getLiveMatches(html);
+            assertEquals(1, matches.size());
+            assertEquals("India vs South Africa, 2nd ODI Match", matches.get(0).getMatchTitle());
+
+            CricinfoLive.setTeamFilter(new TeamFilter(Collections.singletonList("zealand"), Collections.<String>emptyList()));
+            assertTrue("Filtered matches should not pull in the next selector", CricinfoLive.getLiveMatches(html).isEmpty());
+        } finally {
+            CricinfoLive.setTeamFilter(null);
+        }
+    }
+
     @Test
     public void testGetLiveMatches_NoMatchesFound() {
         String mockHtml_noMatches = "<html><body>" +
@@ -98,6 +131,27 @@ public class CricinfoLiveTest {
         }
     }
 
+    @Test
+    public void testGetLiveMatches_StreamAndDocumentOverloads() throws Exception {
+        String html = "<html><body>" +
+            "<div class='ds-p-4'>" +
+            "  <a href='/live-cricket-scores/series-1/match-1-aus-vs-eng'>" +
+            "    <p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Australia vs England, 1st Test</p>" +
+            "  </a>" +
+            "</div>" +
+            "</body></html>";
+
+        ArrayList<MatchDetails> fromStream = CricinfoLive.getLiveMatches(
+            new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        ArrayList<MatchDetails> fromDocument = CricinfoLive.getLiveMatches(
+            Jsoup.parse(html, "https://www.espncricinfo.com"));
+
+        assertEquals("Stream overload should find the match", 1, fromStream.size());
+        assertEquals("Document overload should find the match", 1, fromDocument.size());
+        assertEquals("https://www.espncricinfo.com/live-cricket-scores/series-1/match-1-aus-vs-eng", fromStream.get(0).getMatchUrl());
+        assertEquals(fromStream.get(0).getMatchUrl(), fromDocument.get(0).getMatchUrl());
+    }
+
     // --- Tests for getLiveScoreOfSelectedMatch ---
 
     @Test
@@ -209,6 +263,154 @@ public class CricinfoLiveTest {
         assertEquals("Fallback status should be returned for malformed score elements", "Match Abandoned due to rain.", score);
     }
 
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_RemembersWinningStrategy() {
+        String matchUrl = "https://www.espncricinfo.com/live-cricket-scores/series-memo/match-memo";
+        // Only the compact span selector (strategy 3) finds a score on this page
+        String spanOnlyHtml = "<html><body>" +
+            "<div class='ds-flex ds-items-center ds-justify-between ds-mb-1'>" +
+            "  <div><span class='ds-text-compact-s'>Team A 150/2 (20.0)</span></div>" +
+            "</div>" +
+            "</body></html>";
+        assertEquals("Team A 150/2 (20.0)", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, spanOnlyHtml));
+        assertEquals("Strategy 3 should be remembered", 3, CricinfoLive.rememberedScoreStrategy(matchUrl));
+
+        // Both strategy 1 and strategy 3 match here; the remembered strategy is tried first
+        String bothHtml = "<html><body>" +
+            "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>Team A 151/2</div>" +
+            "<div class='ds-flex ds-items-center ds-justify-between ds-mb-1'>" +
+            "  <div><span class='ds-text-compact-s'>Team A 151/2 (20.1)</span></div>" +
+            "</div>" +
+            "</body></html>";
+        assertEquals("Remembered strategy should be used first",
+            "Team A 151/2 (20.1)", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, bothHtml));
+        assertEquals("Strategy 3 should still be remembered", 3, CricinfoLive.rememberedScoreStrategy(matchUrl));
+    }
+
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_FallsBackWhenRememberedStrategyStopsMatching() {
+        String matchUrl = "https://www.espncricinfo.com/live-cricket-scores/series-memo/match-layout-change";
+        String spanOnlyHtml = "<html><body>" +
+            "<div class='ds-flex ds-items-center ds-justify-between ds-mb-1'>" +
+            "  <div><span class='ds-text-compact-s'>Team A 150/2 (20.0)</span></div>" +
+            "</div>" +
+            "</body></html>";
+        CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, spanOnlyHtml);
+        assertEquals("Strategy 3 should be remembered", 3, CricinfoLive.rememberedScoreStrategy(matchUrl));
+
+        // The page layout changed: only the primary selector finds a score now
+        String primaryOnlyHtml = "<html><body>" +
+            "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>Team X 123/4</div>" +
+            "</body></html>";
+        assertEquals("Full cascade should run when the remembered strategy fails",
+            "Team X 123/4", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, primaryOnlyHtml));
+        assertEquals("Strategy 1 should now be remembered", 1, CricinfoLive.rememberedScoreStrategy(matchUrl));
+
+        // Nothing matches at all: the status fallback is used and nothing is remembered
+        String statusOnlyHtml = "<html><body>" +
+            "<p class='ds-text-tight-s ds-font-regular ds-line-clamp-2 ds-text-typo'>Rain stops play</p>" +
+            "</body></html>";
+        assertEquals("Rain stops play", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, statusOnlyHtml));
+        assertEquals("No strategy should be remembered", 0, CricinfoLive.rememberedScoreStrategy(matchUrl));
+    }
+
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_StreamOverload() throws Exception {
+        String html = "<html><body>" +
+            "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>Team X 123/4</div>" +
+            "</body></html>";
+        String matchUrl = "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-stream";
+        String score = CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl,
+            new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertEquals("Score should be extracted from the stream", "Team X 123/4", score);
+    }
+
+    // A response body that counts how much of itself was read and whether it was closed
+    private static class TrackedBody extends ByteArrayInputStream {
+        final int length;
+        boolean closed;
+
+        TrackedBody(String html) {
+            super(html.getBytes(StandardCharsets.UTF_8));
+            length = buf.length;
+        }
+
+        int bytesRead() {
+            return pos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    private static String pageWithCommentary(String scoreArea, int entries) {
+        StringBuilder html = new StringBuilder("<html><head><title>Match</title></head><body>").append(scoreArea);
+        for (int i = 0; i < entries; i++) {
+            html.append("<div class='ds-flex ds-py-3'><span>").append(i / 6).append('.').append(i % 6)
+                .append("</span><p class='ci-html-content'>Bowler to Batter, no run, full and wide outside off</p></div>");
+        }
+        return html.append("<p class='ds-text-tight-s ds-font-regular ds-line-clamp-2 ds-text-typo'>Team X chose to bat</p>")
+            .append("</body></html>").toString();
+    }
+
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_StreamStopsOnceScoreIsFound() throws Exception {
+        String html = pageWithCommentary(
+            "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>Team X 123/4 (18.2 ov)</div>", 5000);
+        TrackedBody body = new TrackedBody(html);
+        String score = CricinfoLive.getLiveScoreOfSelectedMatch(
+            "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-early-stop", body, "UTF-8");
+
+        assertEquals("Team X 123/4 (18.2 ov)", score);
+        assertTrue("Only the top of a " + body.length + " byte page should be read, not " + body.bytesRead(),
+            body.bytesRead() < body.length / 10);
+        assertTrue("The body should be closed once the score is found", body.closed);
+    }
+
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_StreamAgreesWithFullParse() throws Exception {
+        String primary = "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>";
+        String[] scoreAreas = {
+            // Score found straight away
+            primary + "Team X 123/4</div>",
+            // The first candidate is not a score, so strategy 1 fails and the others run on the whole page
+            primary + "Yet to bat</div>" + primary + "Team Y 88/2</div>",
+            // Nested candidates: selectFirst picks the outer one, which closes last
+            primary + "Team X " + primary + "Team Y 123/4</div> (20 ov)</div>",
+            // Strategy 2 territory
+            "<p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Team Z</p>" + primary + "99/1</div>",
+            // Nothing but the status line at the bottom
+            "<p>No score yet</p>"
+        };
+        for (int i = 0; i < scoreAreas.length; i++) {
+            String html = pageWithCommentary(scoreAreas[i], 200);
+            String expected = CricinfoLive.getLiveScoreOfSelectedMatch(
+                "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-string-" + i, html);
+            String streamed = CricinfoLive.getLiveScoreOfSelectedMatch(
+                "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-stream-" + i, new TrackedBody(html), "UTF-8");
+            assertEquals(scoreAreas[i], expected, streamed);
+            String withoutCharset = CricinfoLive.getLiveScoreOfSelectedMatch(
+                "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-nocharset-" + i, new TrackedBody(html), null);
+            assertEquals(scoreAreas[i], expected, withoutCharset);
+        }
+    }
+
+    @Test
+    public void testGetLiveScoreOfSelectedMatch_StreamReadsWholePageWhenAnotherStrategyWon() throws Exception {
+        String matchUrl = "https://www.espncricinfo.com/live-cricket-scores/series-abc/match-remembered-stream";
+        String strategy2 = "<p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Team Z</p>"
+            + "<div class='ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap'>99/1</div>";
+        assertEquals("Team Z 99/1", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, pageWithCommentary(strategy2, 10)));
+        assertEquals(2, CricinfoLive.rememberedScoreStrategy(matchUrl));
+
+        TrackedBody body = new TrackedBody(pageWithCommentary(strategy2, 500));
+        assertEquals("Team Z 99/1", CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl, body, "UTF-8"));
+        assertEquals("The remembered strategy needs the whole page", body.length, body.bytesRead());
+    }
+
     @Test
     public void testGetLiveScoreOfSelectedMatch_NullOrEmptyUrl() {
         String score1 = CricinfoLive.getLiveScoreOfSelectedMatch(null, "<html></html>");
@@ -217,4 +419,57 @@ public class CricinfoLiveTest {
         String score2 = CricinfoLive.getLiveScoreOfSelectedMatch("", "<html></html>");
         assertEquals("Score not available for empty URL", "Score not available", score2);
     }
+
+    // A followed match: the page gives the overs, the feed only the title and a bare score
+    @Test
+    public void testFollowedMatchScoresCarryOversIntoTheHistory() throws Exception {
+        try (FeedReplayServer server = new FeedReplayServer(1)) {
+            String matchUrl = server.baseUrl() + LoadHarness.MATCH_PATH;
+            String feedUrl = server.baseUrl() + LoadHarness.RSS_PATH;
+            String[] pages = {"SUR 40/1 (5.4 ov)", "SUR 47/1 (6.2 ov)", "SUR 58/2 (8.0 ov)"};
+            String[] feed = {"Surrey 40/1 * v Scotland", "Surrey 47/1 * v Scotland", "Surrey 58/2 * v Scotland"};
+            for (int i = 0; i < pages.length; i++) {
+                server.publish(LoadHarness.MATCH_PATH, i * 60_000L, LoadHarness.HTML, LoadHarness.matchPage(pages[i]));
+                server.publish(LoadHarness.RSS_PATH, i * 60_000L, LoadHarness.XML, LoadHarness.rssFeed(matchUrl, feed[i]));
+            }
+            CricinfoLive.setGatewayClock(server::now);
+            try {
+                ScoreHistory history = new ScoreHistory(20);
+                for (int i = 0; i < pages.length; i++) {
+                    server.setNow(i * 60_000L);
+                    MatchDetails match = CricinfoLive.getMatch(matchUrl, feedUrl);
+                    assertEquals("The score comes from the match page", pages[i], match.getScore());
+                    assertEquals("The title comes from the feed", feed[i], match.getMatchTitle());
+                    history.update(match.getMatchState());
+                }
+                // The first five overs at the first poll, the sixth at the second, the seventh and eighth at the last
+                assertEquals(8, history.size());
+                int runs = 0;
+                for (int over = 0; over < history.size(); over++) {
+                    assertEquals(6, history.ballsAt(over));
+                    runs += history.runsAt(over);
+                }
+                assertEquals(58, runs);
+            } finally {
+                CricinfoLive.setGatewayClock(null);
+            }
+        }
+    }
+
+    @Test
+    public void testFollowedMatchFallsBackToTheFeedScore() throws Exception {
+        try (FeedReplayServer server = new FeedReplayServer(1)) {
+            String matchUrl = server.baseUrl() + LoadHarness.MATCH_PATH;
+            String feedUrl = server.baseUrl() + LoadHarness.RSS_PATH;
+            // The match page is missing; the feed still lists the match
+            server.publish(LoadHarness.RSS_PATH, 0, LoadHarness.XML, LoadHarness.rssFeed(matchUrl, "Surrey 40/1 * v Scotland"));
+            MatchDetails match = CricinfoLive.getMatch(matchUrl, feedUrl);
+            assertEquals("Surrey 40/1 * v Scotland", match.getScore());
+            try {
+                CricinfoLive.getMatch(server.baseUrl() + "/not-listed", feedUrl);
+                fail("A match with no page and no feed entry has no score");
+            } catch (IOException expected) {
+            }
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package com.vuzix.ultralite.sample;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Serves a recorded match from localhost, so that the fetchers and pollers can be run against
+ * something that behaves like espncricinfo.com without going near it.
+ *
+ * Each path has a sequence of page versions, each published at a moment in the match. Time is
+ * virtual: a request gets the version that was current at {@link #setNow(long)}, so a three hour
+ * match replays in seconds. Every version has its own ETag, so the conditional requests
+ * ConditionalFetcher makes come back 304 until the next version is published.
+ *
+ * Network conditions come from a seeded Random, so a replay goes the same way every time. Each
+ * request is charged {@code latencyMs} plus up to {@code jitterMs} of virtual latency, which the
+ * caller collects with {@link #takeLatencyMs()} to move its own clock on, and fails with a 503 with
+ * probability {@code errorRate}.
+ */
+class FeedReplayServer implements AutoCloseable {
+
+    // One version of a page and the moment in the match it was published
+    private static class Version {
+        final long publishedAtMs;
+        final String contentType;
+        final byte[] body;
+
+        Version(long publishedAtMs, String contentType, byte[] body) {
+            this.publishedAtMs = publishedAtMs;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    private final HttpServer server;
+    private final Random random;
+    // Guarded by this
+    private final Map<String, List<Version>> pages = new HashMap<>();
+    private long nowMs;
+    private long latencyMs;
+    private long jitterMs;
+    private double errorRate;
+    private long pendingLatencyMs;
+    private int requests;
+    private int notModified;
+    private int errors;
+
+    FeedReplayServer(long seed) throws IOException {
+        random = new Random(seed);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    // The address to prefix paths with, e.g. "http://127.0.0.1:1234"
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Adds a version of a page. Versions of the same path must be published in time order.
+     */
+    synchronized void publish(String path, long atMs, String contentType, String body) {
+        List<Version> versions = pages.get(path);
+        if (versions == null) {
+            versions = new ArrayList<>();
+            pages.put(path, versions);
+        }
+        if (!versions.isEmpty() && versions.get(versions.size() - 1).publishedAtMs > atMs) {
+            throw new IllegalArgumentException("Versions of " + path + " must be published in order");
+        }
+        versions.add(new Version(atMs, contentType, body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    synchronized void setNetwork(long latencyMs, long jitterMs, double errorRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+    }
+
+    synchronized void setNow(long nowMs) {
+        this.nowMs = nowMs;
+    }
+
+    synchronized long now() {
+        return nowMs;
+    }
+
+    // The virtual latency charged to the requests since the last call
+    synchronized long takeLatencyMs() {
+        long taken = pendingLatencyMs;
+        pendingLatencyMs = 0;
+        return taken;
+    }
+
+    /**
+     * @return The index of the version of this path current at the given time, or -1 if none has
+     * been published yet
+     */
+    synchronized int versionAt(String path, long atMs) {
+        List<Version> versions = pages.get(path);
+        int current = -1;
+        if (versions != null) {
+            for (int i = 0; i < versions.size() && versions.get(i).publishedAtMs <= atMs; i++) {
+                current = i;
+            }
+        }
+        return current;
+    }
+
+    synchronized long publishedAt(String path, int version) {
+        return pages.get(path).get(version).publishedAtMs;
+    }
+
+    synchronized int versionCount(String path) {
+        List<Version> versions = pages.get(path);
+        return versions == null ? 0 : versions.size();
+    }
+
+    synchronized int requestCount() {
+        return requests;
+    }
+
+    synchronized int notModifiedCount() {
+        return notModified;
+    }
+
+    synchronized int errorCount() {
+        return errors;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        int status;
+        Version version = null;
+        String etag = null;
+        synchronized (this) {
+            requests++;
+            pendingLatencyMs += latencyMs + (jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0);
+            int index = versionAt(path, nowMs);
+            if (random.nextDouble() < errorRate) {
+                errors++;
+                status = 503;
+            } else if (index < 0) {
+                status = 404;
+            } else {
+                version = pages.get(path).get(index);
+                etag = "\"v" + index + "\"";
+                if (etag.equals(ifNoneMatch)) {
+                    notModified++;
+                    status = 304;
+                } else {
+                    status = 200;
+                }
+            }
+        }
+
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+        }
+        if (status == 200) {
+            exchange.getResponseHeaders().add("Content-Type", version.contentType);
+            exchange.sendResponseHeaders(200, version.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(version.body);
+            }
+        } else {
+            exchange.sendResponseHeaders(status, -1);
+        }
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
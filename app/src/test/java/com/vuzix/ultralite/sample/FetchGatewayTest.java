@@ -0,0 +1,149 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FetchGatewayTest {
+
+    private static final String URL = "https://www.espncricinfo.com/live-cricket-scores/series-1/match-1";
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @After
+    public void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        FetchGateway gateway = new FetchGateway(5000, 8, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FetchGateway.Loader<String> slowLoader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "IND 245/6";
+        };
+
+        List<Future<String>> results = new ArrayList<>();
+        results.add(callers.submit(() -> gateway.get(URL, slowLoader)));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            results.add(callers.submit(() -> gateway.get(URL, slowLoader)));
+        }
+        // Let the waiting callers reach the in-flight fetch before it completes
+        Thread.sleep(100);
+        release.countDown();
+
+        String first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<String> result : results) {
+            assertSame("Every caller should get the one parsed result", first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testSharedFailureReachesEveryCallerAndIsNotCached() throws Exception {
+        FetchGateway gateway = new FetchGateway(5000, 8, now::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FetchGateway.Loader<String> failing = () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("503");
+        };
+
+        Future<String> leader = callers.submit(() -> gateway.get(URL, failing));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = callers.submit(() -> gateway.get(URL, failing));
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : Arrays.asList(leader, follower)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("The failure should be shared");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+                assertEquals("503", e.getCause().getMessage());
+            }
+        }
+        assertEquals("Failures are not cached", 0, gateway.size());
+        assertEquals("ok", gateway.get(URL, () -> "ok"));
+    }
+
+    @Test
+    public void testResultsAreReusedUntilTheTtlRunsOut() throws Exception {
+        FetchGateway gateway = new FetchGateway(5000, 8, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        FetchGateway.Loader<Integer> counting = loads::incrementAndGet;
+
+        assertEquals(Integer.valueOf(1), gateway.get(URL, counting));
+        now.addAndGet(4999);
+        assertEquals("Still fresh", Integer.valueOf(1), gateway.get(URL, counting));
+        now.addAndGet(1);
+        assertEquals("Expired", Integer.valueOf(2), gateway.get(URL, counting));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEvictsTheLeastRecentlyUsedBeyondTheBound() throws Exception {
+        FetchGateway gateway = new FetchGateway(60_000, 2, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        gateway.get("a", () -> "a" + loads.incrementAndGet());
+        gateway.get("b", () -> "b" + loads.incrementAndGet());
+        assertEquals("a1", gateway.get("a", () -> "a" + loads.incrementAndGet())); // "b" is now the eldest
+        gateway.get("c", () -> "c" + loads.incrementAndGet());
+
+        assertEquals(2, gateway.size());
+        assertEquals("a1", gateway.get("a", () -> "a" + loads.incrementAndGet()));
+        assertEquals("b was evicted and is loaded again", "b4", gateway.get("b", () -> "b" + loads.incrementAndGet()));
+    }
+
+    @Test
+    public void testClearDropsResultsOfFetchesAlreadyInFlight() throws Exception {
+        FetchGateway gateway = new FetchGateway(5000, 8, now::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = callers.submit(() -> gateway.get(URL, () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "parsed with the old filter";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        gateway.clear();
+        release.countDown();
+
+        assertEquals("parsed with the old filter", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", gateway.get(URL, () -> "fresh"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GlassesSenderTest {
+
+    // Stands in for UltraliteSDK: acks arrive in order, a fixed latency after they were requested
+    private static class FakeGlasses implements GlassesSender.Link {
+        final ScheduledExecutorService bluetooth = Executors.newSingleThreadScheduledExecutor();
+        final long ackLatencyMs;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger maxOutstanding = new AtomicInteger();
+        // The next this many ack requests are swallowed, as when the glasses drop off the link
+        final AtomicInteger acksToDrop = new AtomicInteger();
+
+        FakeGlasses(long ackLatencyMs) {
+            this.ackLatencyMs = ackLatencyMs;
+        }
+
+        @Override
+        public void requestAcknowledgement(Runnable onAck) {
+            if (acksToDrop.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                return;
+            }
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            bluetooth.schedule(() -> {
+                outstanding.decrementAndGet();
+                onAck.run();
+            }, ackLatencyMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private FakeGlasses glasses;
+    private GlassesSender sender;
+
+    @After
+    public void tearDown() {
+        sender.close();
+        glasses.bluetooth.shutdownNow();
+    }
+
+    @Test
+    public void testWindowBoundsOutstandingAcks() throws Exception {
+        glasses = new FakeGlasses(30);
+        sender = new GlassesSender(glasses, 3);
+        List<String> drawn = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 12; i++) {
+            String name = "frame-" + i;
+            futures.add(sender.submit("region-" + i, () -> drawn.add(name)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Every frame in a different region should be drawn", 12, drawn.size());
+        assertEquals("Frames should be drawn in submission order", "frame-0", drawn.get(0));
+        assertEquals("frame-11", drawn.get(11));
+        assertTrue("More than one ack should be outstanding at a time", glasses.maxOutstanding.get() > 1);
+        assertTrue("No more than the window should be outstanding", glasses.maxOutstanding.get() <= 3);
+        assertEquals(0, sender.inFlightCount());
+    }
+
+    @Test
+    public void testPipeliningBeatsStopAndWait() throws Exception {
+        glasses = new FakeGlasses(50);
+        sender = new GlassesSender(glasses, 4);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            futures.add(sender.submit("region-" + i, () -> { }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Waiting for each ack in turn would take 8 x 50 ms
+        assertTrue("8 frames should take well under 400 ms, took " + elapsedMs + " ms", elapsedMs < 300);
+    }
+
+    @Test
+    public void testQueuedFramesForSameRegionAreCoalesced() throws Exception {
+        glasses = new FakeGlasses(100);
+        sender = new GlassesSender(glasses, 1);
+        List<String> drawn = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstDrawn = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = sender.submit("score", () -> {
+            drawn.add("245/6");
+            firstDrawn.countDown();
+        });
+        assertTrue(firstDrawn.await(5, TimeUnit.SECONDS));
+        // The window is full until the first ack, so these wait in the queue and replace each other
+        CompletableFuture<Void> second = sender.submit("score", () -> drawn.add("246/6"));
+        CompletableFuture<Void> third = sender.submit("score", () -> drawn.add("250/6"));
+        CompletableFuture<Void> other = sender.submit("overs", () -> drawn.add("43.0"));
+
+        CompletableFuture.allOf(first, second, third, other).get(5, TimeUnit.SECONDS);
+
+        assertSame("Superseded frame should share the future of its replacement", second, third);
+        assertEquals("Only the latest queued frame per region should be drawn", 3, drawn.size());
+        assertEquals("245/6", drawn.get(0));
+        assertEquals("250/6", drawn.get(1));
+        assertEquals("43.0", drawn.get(2));
+    }
+
+    @Test
+    public void testFailingFrameCompletesExceptionally() throws Exception {
+        glasses = new FakeGlasses(10);
+        sender = new GlassesSender(glasses, 2);
+
+        CompletableFuture<Void> failed = sender.submit("score", () -> {
+            throw new IllegalStateException("not connected");
+        });
+        CompletableFuture<Void> ok = sender.submit("overs", () -> { });
+
+        ok.get(5, TimeUnit.SECONDS);
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testSubmitAfterCloseFails() {
+        glasses = new FakeGlasses(10);
+        sender = new GlassesSender(glasses, 2);
+        sender.close();
+        assertTrue(sender.submit("score", () -> { }).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testLostAckTimesOutAndFreesTheWindow() throws Exception {
+        glasses = new FakeGlasses(10);
+        sender = new GlassesSender(glasses, 1, 100);
+        glasses.acksToDrop.set(1);
+        CompletableFuture<Void> lost = sender.submit("score", () -> { });
+        CompletableFuture<Void> queued = sender.submit("overs", () -> { });
+
+        try {
+            lost.get(5, TimeUnit.SECONDS);
+            fail("A frame whose ack never comes should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(0, sender.inFlightCount());
+    }
+
+    @Test
+    public void testResetFreesTheWindowAtOnce() throws Exception {
+        glasses = new FakeGlasses(10);
+        sender = new GlassesSender(glasses, 2, TimeUnit.MINUTES.toMillis(1));
+        glasses.acksToDrop.set(2);
+        CompletableFuture<Void> first = sender.submit("score", () -> { });
+        CompletableFuture<Void> second = sender.submit("overs", () -> { });
+        CountDownLatch thirdSent = new CountDownLatch(1);
+        sender.submit("status", thirdSent::countDown);
+        assertFalse("The window is full of frames whose acks were lost", thirdSent.await(200, TimeUnit.MILLISECONDS));
+
+        // The glasses reconnect
+        sender.reset();
+        assertTrue("The queued frame is sent straight away", thirdSent.await(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+        try {
+            first.get();
+            fail();
+        } catch (CancellationException expected) {
+        }
+    }
+}
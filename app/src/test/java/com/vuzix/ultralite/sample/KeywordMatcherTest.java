@@ -0,0 +1,70 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+public class KeywordMatcherTest {
+
+    @Test
+    public void testMatchesAnyKeywordAnywhereIgnoringCase() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("india", "Royal", "netherlands"));
+        assertTrue(matcher.matchesAny("India vs South Africa, 2nd ODI"));
+        assertTrue(matcher.matchesAny("Royal Challengers Bengaluru v Punjab Kings"));
+        assertTrue(matcher.matchesAny("Scotland v NETHERLANDS"));
+        assertTrue("Keywords match inside longer words", matcher.matchesAny("West Indians"));
+        assertFalse(matcher.matchesAny("Surrey 262/6 * v Scotland"));
+        assertFalse(matcher.matchesAny(""));
+        assertFalse(matcher.matchesAny(null));
+    }
+
+    @Test
+    public void testFollowsFailureLinksAcrossOverlappingKeywords() {
+        // The classic Aho-Corasick example: reading "ushers" passes through "she" into "hers"
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("he", "she", "his", "hers"));
+        assertTrue(matcher.matchesAny("ushers"));
+        assertTrue(matcher.matchesAny("xxhixxhisxx"));
+        assertFalse(matcher.matchesAny("shxhixs"));
+
+        // "kolkata" fails at its last letter, where "atak" must still be found
+        KeywordMatcher overlapping = new KeywordMatcher(Arrays.asList("kolkatx", "atak"));
+        assertTrue(overlapping.matchesAny("kolkatak"));
+    }
+
+    @Test
+    public void testEmptyOrBlankKeywordsMatchNothing() {
+        assertTrue(new KeywordMatcher(Collections.<String>emptyList()).isEmpty());
+        KeywordMatcher blank = new KeywordMatcher(Arrays.asList("", "  "));
+        assertTrue(blank.isEmpty());
+        assertFalse(blank.matchesAny("anything"));
+    }
+
+    @Test
+    public void testNonAsciiKeywords() {
+        KeywordMatcher matcher = new KeywordMatcher(Collections.singletonList("Cura\u00e7ao"));
+        assertTrue(matcher.matchesAny("CURA\u00c7AO v Aruba"));
+        assertFalse(matcher.matchesAny("Curacao v Aruba"));
+    }
+
+    @Test
+    public void testAgreesWithRegexAlternation() {
+        String[] teams = {"india", "chennai", "mumbai", "rajasthan", "gujarat", "lucknow", "royal", "delhi", "kolkata", "netherlands"};
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList(teams));
+        Pattern pattern = Pattern.compile(String.join("|", teams), Pattern.CASE_INSENSITIVE);
+        String[] titles = {
+            "Delhi 64/1 & 314/1 * v Afghanistan 227/9",
+            "Surrey 262/6 * v Scotland",
+            "Mumbai Indians v Chennai Super Kings",
+            "Kolkat v Lucknowish",
+            "Zimbabwe 367/3 & 230/1 * v Sri Lanka 320/1",
+            "rajasthaN Royals",
+            "Netherland v Nepal",
+        };
+        for (String title : titles) {
+            assertEquals(title, pattern.matcher(title).find(), matcher.matchesAny(title));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ListingPageParserTest {
+
+    private static final String BASE_URL = "https://www.espncricinfo.com";
+
+    // The selector cascade ListingPageParser replaced, kept as the reference it must agree with
+    private static final String[] CASCADE = {
+            "div.ds-p-4",
+            "div.ds-flex.ds-flex-col.ds-mt-2 > div.ds-mb-4",
+            "a[href*='/live-cricket-scores/']"
+    };
+
+    private static List<String> cascade(Document doc, TeamFilter filter) {
+        List<String> matches = new ArrayList<>();
+        for (String selector : CASCADE) {
+            boolean found = false;
+            for (Element card : doc.select(selector)) {
+                String match = cascadeMatch(card);
+                if (match == null) {
+                    continue;
+                }
+                found = true;
+                if (filter.accept(match.substring(0, match.indexOf('|')))) {
+                    matches.add(match);
+                }
+            }
+            if (found) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private static String cascadeMatch(Element card) {
+        String title = "";
+        Element titleElement = card.selectFirst("p.ds-text-tight-m.ds-font-bold.ds-truncate.ds-text-typo");
+        if (titleElement == null) {
+            titleElement = card.selectFirst("span[class*='title'], h2, h3, p.ci-match-title");
+        }
+        if (titleElement == null && card.tagName().equals("a")) {
+            Element span = card.selectFirst("span");
+            title = span != null ? span.text() : card.text();
+        }
+        if (titleElement != null) {
+            title = titleElement.text();
+        }
+        Element link = card.selectFirst("a[href]");
+        if (link == null && card.tagName().equals("a")) {
+            link = card;
+        }
+        String url = link != null ? link.absUrl("href") : "";
+        if (!title.isEmpty() && !url.isEmpty() && url.contains("/live-cricket-scores/")
+                && (title.matches(".* vs .*") || title.toLowerCase().contains("match"))) {
+            return title + "|" + url;
+        }
+        return null;
+    }
+
+    private static List<String> parsed(Document doc, TeamFilter filter) {
+        List<String> matches = new ArrayList<>();
+        for (MatchDetails match : ListingPageParser.parse(doc, filter)) {
+            matches.add(match.getMatchTitle() + "|" + match.getMatchUrl());
+        }
+        return matches;
+    }
+
+    @Test
+    public void testLooksLikeMatchTitleAgreesWithTheRegex() {
+        String[] titles = {
+                "India vs Australia", "vs Australia", "India vs", " vs ", "India  vs  Australia", "India Vs Australia",
+                "India vs\nAustralia", "India vs Australia\u2028", "Final\rIndia vs Australia", "India\u0085 vs Australia",
+                "3rd Match", "MATCH centre", "Matchday", "mAtCh", "matc", "Highlights", "", "vs", "v s ", "a vs b vs c",
+                "India vs Australia, 3rd Match\n", "ma\ntch", "versus"
+        };
+        for (String title : titles) {
+            boolean expected = title.matches(".* vs .*") || title.toLowerCase().contains("match");
+            assertEquals("'" + title + "'", expected, ListingPageParser.looksLikeMatchTitle(title));
+        }
+    }
+
+    @Test
+    public void testAgreesWithTheSelectorCascadeOnTheKnownLayouts() {
+        String[] pages = {
+                // First layout, with a non-match card and a nested card
+                "<div class='ds-p-4'><a href='/series/s/m1/live-cricket-scores/1'>"
+                        + "<p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>India vs Australia</p></a></div>"
+                        + "<div class='ds-p-4'><a href='/story/1'><p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Video</p></a></div>"
+                        + "<div class='ds-p-4'><div class='ds-p-4'><h3>Surrey vs Essex</h3>"
+                        + "<a href='/live-cricket-scores/2'>x</a></div></div>",
+                // Second layout only
+                "<div class='ds-flex ds-flex-col ds-mt-2'><div class='ds-mb-4'><span class='match-title'>Otago v Wellington, 5th Match</span>"
+                        + "<a href='/live-cricket-scores/3'>go</a></div><div class='ds-mb-4'><h2>News</h2></div></div>"
+                        + "<div class='ds-flex ds-mt-2'><div class='ds-mb-4'><h2>Kent vs Sussex</h2><a href='/live-cricket-scores/4'>go</a></div></div>",
+                // Only bare links, one with a span and one in capitals
+                "<a href='/live-cricket-scores/5'><span>Pakistan vs England</span> live</a>"
+                        + "<a href='/LIVE-CRICKET-SCORES/6'>Ireland vs Zimbabwe</a><a href='/story/7'>Match report</a>",
+                // First layout cards with no matches fall through to the links
+                "<div class='ds-p-4'><p>Nothing here</p></div><a href='/live-cricket-scores/8'>Nepal vs Oman</a>",
+                "<html><body><p>Empty</p></body></html>"
+        };
+        TeamFilter blockIndia = new TeamFilter(Collections.<String>emptySet(), Collections.singleton("india"));
+        for (String html : pages) {
+            Document doc = Jsoup.parse(html, BASE_URL);
+            assertEquals(html, cascade(doc, TeamFilter.ALLOW_ALL), parsed(doc, TeamFilter.ALLOW_ALL));
+            assertEquals(html, cascade(doc, blockIndia), parsed(doc, blockIndia));
+        }
+    }
+
+    @Test
+    public void testAgreesWithTheSelectorCascadeOnRandomPages() {
+        TeamFilter blockIndia = new TeamFilter(Collections.<String>emptySet(), Collections.singleton("india"));
+        int withMatches = 0;
+        for (int seed = 0; seed < 400; seed++) {
+            Random random = new Random(seed);
+            StringBuilder html = new StringBuilder("<html><body>");
+            for (int i = 0; i < 6; i++) {
+                appendRandomElement(html, random, 0);
+            }
+            html.append("</body></html>");
+            Document doc = Jsoup.parse(html.toString(), BASE_URL);
+
+            List<String> expected = cascade(doc, TeamFilter.ALLOW_ALL);
+            assertEquals("seed " + seed + ": " + html, expected, parsed(doc, TeamFilter.ALLOW_ALL));
+            assertEquals("seed " + seed + ": " + html, cascade(doc, blockIndia), parsed(doc, blockIndia));
+            if (!expected.isEmpty()) {
+                withMatches++;
+            }
+        }
+        assertTrue("Most random pages should hold some matches: " + withMatches, withMatches > 100);
+    }
+
+    private static final String[] TAGS = {"div", "div", "div", "p", "span", "a", "a", "h2", "h3", "section"};
+    private static final List<String> CLASSES = Arrays.asList("ds-p-4", "DS-P-4", "ds-mb-4", "ds-flex", "ds-flex-col",
+            "ds-mt-2", "ds-text-tight-m", "ds-font-bold", "ds-truncate", "ds-text-typo", "ci-match-title", "match-Title",
+            "subtitle", "ds-other");
+    private static final String[] HREFS = {"/series/s/m/live-cricket-scores/1", "/LIVE-Cricket-Scores/2",
+            "https://example.com/live-cricket-scores/3", "/story/4", "/live-cricket-score/5", null};
+    private static final String[] TEXTS = {"India vs Australia", "Surrey vs Essex", "3rd Match", "MATCH day",
+            "Highlights", "vs", " vs ", "Scores", "Kent vs Sussex, Final", ""};
+
+    private static void appendRandomElement(StringBuilder html, Random random, int depth) {
+        String tag = TAGS[random.nextInt(TAGS.length)];
+        html.append('<').append(tag);
+        int classes = random.nextInt(5);
+        if (classes > 0) {
+            List<String> shuffled = new ArrayList<>(CLASSES);
+            Collections.shuffle(shuffled, random);
+            html.append(" class='").append(String.join(" ", shuffled.subList(0, classes))).append('\'');
+        }
+        if (tag.equals("a") || random.nextInt(8) == 0) {
+            String href = HREFS[random.nextInt(HREFS.length)];
+            if (href != null) {
+                html.append(" href='").append(href).append('\'');
+            }
+        }
+        html.append('>');
+        html.append(TEXTS[random.nextInt(TEXTS.length)]);
+        int children = depth < 4 ? random.nextInt(4) : 0;
+        for (int i = 0; i < children; i++) {
+            appendRandomElement(html, random, depth + 1);
+        }
+        html.append("</").append(tag).append('>');
+    }
+
+    @Test
+    public void testAgreesOnTheBenchmarkSizedListing() {
+        // Cards with a title, a link and a score, as on the live site, between news cards
+        StringBuilder html = new StringBuilder("<html><body><div class='ds-flex ds-flex-col'>");
+        for (int i = 0; i < 200; i++) {
+            html.append("<div class='ds-p-4 ds-border-b'><a href='/series/s-").append(i).append("/m-").append(i)
+                    .append("/live-cricket-scores/").append(i).append("'><p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>")
+                    .append(i % 2 == 0 ? "India" : "Essex").append(" vs Team ").append(i).append("</p><span>")
+                    .append(i).append("/3</span></a></div>");
+            if (i % 4 == 3) {
+                html.append("<div class='ds-p-4'><a href='/story/").append(i).append("'><p class='ds-text-tight-m ds-font-bold ds-truncate ds-text-typo'>Video ")
+                        .append(i).append("</p></a></div>");
+            }
+        }
+        html.append("</div></body></html>");
+        Document doc = Jsoup.parse(html.toString(), BASE_URL);
+        List<String> parsed = parsed(doc, TeamFilter.ALLOW_ALL);
+        assertEquals(200, parsed.size());
+        assertEquals(cascade(doc, TeamFilter.ALLOW_ALL), parsed);
+    }
+}
@@ -0,0 +1,269 @@
+package com.vuzix.ultralite.sample;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a simulated T20 match through the real polling path and reports what a user would have
+ * seen: how long each score change took to reach the glasses, and how many requests it cost.
+ *
+ * The match is published ball by ball on a {@link FeedReplayServer}. The harness finds it in the
+ * RSS feed with CricinfoLive, polls its page with {@link CricinfoLive#getLiveScoreOfSelectedMatch(String)}
+ * on the delays a {@link Schedule} asks for, and sends every new score through a GlassesSender
+ * whose link stands in for UltraliteSDK. Everything runs one event at a time in virtual time, with
+ * the network and Bluetooth delays drawn from the seed, so a run takes seconds and the same seed
+ * always gives the same report. Fetching and parsing are real, which is the point: a change to the
+ * fetcher, the parser or the schedule shows up in the numbers.
+ */
+class LoadHarness {
+
+    static final String RSS_PATH = "/rss/livescores.xml";
+    static final String MATCH_PATH = "/series/replay-series/replay-match/live-cricket-score";
+    static final String HTML = "text/html; charset=UTF-8";
+    static final String XML = "text/xml; charset=UTF-8";
+
+    /**
+     * Decides when to poll next. ScorePoller's own policy is {@link #SCORE_POLLER}.
+     */
+    interface Schedule {
+        long nextDelayMs(String lastScore, int consecutiveFailures, Random random);
+    }
+
+    static final Schedule SCORE_POLLER = (lastScore, failures, random) -> failures > 0
+            ? ScorePoller.backoffDelay(failures, random)
+            : ScorePoller.intervalFor(ScorePoller.phaseOf(lastScore));
+
+    // Polls at a fixed interval, whatever is happening in the match
+    static Schedule every(long intervalMs) {
+        return (lastScore, failures, random) -> intervalMs;
+    }
+
+    // The simulated match and conditions; change before calling run()
+    long seed = 1;
+    long durationMs = TimeUnit.HOURS.toMillis(3);
+    long ballIntervalMs = 30_000;          // A new score this often while overs are bowled
+    long ballJitterMs = 20_000;            // Plus up to this much, so updates do not land on the poll grid
+    long inningsBreakMs = TimeUnit.MINUTES.toMillis(15);
+    long networkLatencyMs = 80;
+    long networkJitterMs = 120;
+    double errorRate = 0;
+    long ackLatencyMs = 40;                // Bluetooth round trip to the glasses
+    long ackJitterMs = 60;
+    Schedule schedule = SCORE_POLLER;
+
+    /**
+     * What a run measured.
+     */
+    static class Report {
+        int polls;
+        int failedPolls;
+        int requests;
+        int notModified;
+        int errors;
+        int framesSent;
+        int updatesPublished;
+        int updatesShown;
+        long durationMs;
+        // Publish-to-ack time of every update that reached the glasses, sorted
+        long[] latenciesMs = new long[0];
+
+        double requestsPerMinute() {
+            return requests * 60_000.0 / durationMs;
+        }
+
+        long latencyPercentileMs(double fraction) {
+            if (latenciesMs.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(fraction * latenciesMs.length);
+            return latenciesMs[Math.max(rank, 1) - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d min: %d polls (%d failed), %d requests (%.2f/min, %d not modified, %d errors), "
+                            + "%d frames; %d/%d updates shown, latency p50 %d ms, p90 %d ms, p99 %d ms, max %d ms",
+                    durationMs / 60_000, polls, failedPolls, requests, requestsPerMinute(), notModified, errors,
+                    framesSent, updatesShown, updatesPublished, latencyPercentileMs(0.5),
+                    latencyPercentileMs(0.9), latencyPercentileMs(0.99), latencyPercentileMs(1.0));
+        }
+    }
+
+    /**
+     * Prints the reports of the scenarios LoadHarnessTest checks, for comparing schedules or the
+     * effect of a change by eye. Run it from the IDE on the app's unit test classpath.
+     */
+    public static void main(String[] args) throws Exception {
+        LoadHarness harness = new LoadHarness();
+        harness.seed = 2026;
+        System.out.println("ScorePoller schedule: " + harness.run());
+        harness.schedule = every(5_000);
+        System.out.println("Every 5 s: " + harness.run());
+        harness.schedule = SCORE_POLLER;
+        harness.errorRate = 0.2;
+        System.out.println("20% errors: " + harness.run());
+    }
+
+    Report run() throws Exception {
+        Random random = new Random(seed);
+        List<Long> latencies = new ArrayList<>();
+        Report report = new Report();
+        report.durationMs = durationMs;
+
+        try (FeedReplayServer server = new FeedReplayServer(seed)) {
+            publishMatch(server, new Random(seed));
+            server.setNetwork(networkLatencyMs, networkJitterMs, errorRate);
+            report.updatesPublished = server.versionCount(MATCH_PATH);
+
+            // The glasses draw whatever frame they are sent; each ack comes back after a simulated round trip
+            long[] ackDelayMs = new long[1];
+            String[] drawn = new String[1];
+            GlassesSender sender = new GlassesSender(onAck -> {
+                ackDelayMs[0] = ackLatencyMs + (ackJitterMs > 0 ? (long) (random.nextDouble() * ackJitterMs) : 0);
+                onAck.run();
+            }, 1);
+
+            // The gateway's short-lived cache has to expire in match time, not in the seconds the run takes
+            CricinfoLive.setGatewayClock(server::now);
+            try {
+                long now = 0;
+                String matchUrl = findMatch(server, now);
+                now += server.takeLatencyMs();
+
+                String shown = null;
+                int shownVersion = -1;
+                int failures = 0;
+                while (now < durationMs) {
+                    server.setNow(now);
+                    long requestedAt = now;
+                    String score = CricinfoLive.getLiveScoreOfSelectedMatch(matchUrl);
+                    now += server.takeLatencyMs();
+                    report.polls++;
+
+                    if (score == null || score.equals("Score not available")) {
+                        failures++;
+                        report.failedPolls++;
+                    } else {
+                        failures = 0;
+                        if (!score.equals(shown)) {
+                            final String frame = score;
+                            sender.submit("score", () -> drawn[0] = frame).get(5, TimeUnit.SECONDS);
+                            now += ackDelayMs[0];
+                            shown = drawn[0];
+                            report.framesSent++;
+                        }
+                        // Every update published up to the moment we asked is now on the glasses
+                        int version = server.versionAt(MATCH_PATH, requestedAt);
+                        for (int v = shownVersion + 1; v <= version; v++) {
+                            latencies.add(now - server.publishedAt(MATCH_PATH, v));
+                        }
+                        shownVersion = Math.max(shownVersion, version);
+                    }
+                    now += schedule.nextDelayMs(shown, failures, random);
+                }
+                report.updatesShown = shownVersion + 1;
+            } finally {
+                sender.close();
+                CricinfoLive.setGatewayClock(null);
+            }
+            report.requests = server.requestCount();
+            report.notModified = server.notModifiedCount();
+            report.errors = server.errorCount();
+        }
+
+        report.latenciesMs = new long[latencies.size()];
+        for (int i = 0; i < latencies.size(); i++) {
+            report.latenciesMs[i] = latencies.get(i);
+        }
+        Arrays.sort(report.latenciesMs);
+        return report;
+    }
+
+    // Reads the feed until it answers, like the app does at startup, and returns the match's page
+    private String findMatch(FeedReplayServer server, long now) throws IOException {
+        server.setNow(now);
+        for (int attempt = 0; attempt < 10; attempt++) {
+            List<MatchDetails> matches = CricinfoLive.getLiveMatchesFromRSS(server.baseUrl() + RSS_PATH);
+            if (!matches.isEmpty()) {
+                return matches.get(0).getMatchUrl();
+            }
+        }
+        throw new IOException("The replayed feed never listed the match");
+    }
+
+    /**
+     * Publishes two innings of 20 overs, ball by ball, with an innings break between them and the
+     * result at the end. The match page changes with every ball; the feed with every over.
+     */
+    private void publishMatch(FeedReplayServer server, Random random) {
+        String matchUrl = server.baseUrl() + MATCH_PATH;
+        String[] teams = {"Surrey", "Essex"};
+        String[] codes = {"SUR", "ESS"};
+        long at = 0;
+        int target = 0;
+        int lastRuns = 0;
+        int lastWickets = 0;
+        server.publish(RSS_PATH, 0, XML, rssFeed(matchUrl, teams[0] + " v " + teams[1]));
+        server.publish(MATCH_PATH, 0, HTML, matchPage(codes[0] + " 0/0 (0 ov)"));
+
+        for (int innings = 0; innings < 2; innings++) {
+            int runs = 0;
+            int wickets = 0;
+            for (int ball = 1; ball <= 120 && wickets < 10 && (innings == 0 || runs < target); ball++) {
+                at += ballIntervalMs + (ballJitterMs > 0 ? (long) (random.nextDouble() * ballJitterMs) : 0);
+                if (random.nextInt(20) == 0) {
+                    wickets++;
+                } else {
+                    int[] outcomes = {0, 0, 1, 1, 1, 2, 4, 6};
+                    runs += outcomes[random.nextInt(outcomes.length)];
+                }
+                String score = codes[innings] + " " + runs + "/" + wickets + " (" + (ball / 6)
+                        + (ball % 6 == 0 ? "" : "." + (ball % 6)) + " ov)";
+                server.publish(MATCH_PATH, at, HTML, matchPage(score));
+                if (ball % 6 == 0) {
+                    String title = innings == 0
+                            ? teams[0] + " " + runs + "/" + wickets + " * v " + teams[1]
+                            : teams[0] + " " + (target - 1) + " v " + teams[1] + " " + runs + "/" + wickets + " *";
+                    server.publish(RSS_PATH, at, XML, rssFeed(matchUrl, title));
+                }
+            }
+            lastRuns = runs;
+            lastWickets = wickets;
+            if (innings == 0) {
+                target = runs + 1;
+                at += ballIntervalMs;
+                server.publish(MATCH_PATH, at, HTML, matchPage("Innings Break: " + codes[0] + " " + runs + "/" + wickets));
+                at += inningsBreakMs;
+            }
+        }
+
+        at += ballIntervalMs;
+        String result = lastRuns >= target
+                ? teams[1] + " won by " + (10 - lastWickets) + " wickets"
+                : teams[0] + " won by " + (target - 1 - lastRuns) + " runs";
+        server.publish(MATCH_PATH, at, HTML, matchPage(codes[1] + " " + lastRuns + "/" + lastWickets + " - " + result));
+    }
+
+    // A match page with the score where the first extraction strategy looks for it
+    static String matchPage(String score) {
+        return "<!DOCTYPE html><html><head><title>Surrey vs Essex - Live Cricket Score</title></head><body>"
+                + "<div class=\"ds-flex ds-items-center ds-justify-between\">"
+                + "<p class=\"ds-text-tight-m ds-font-bold ds-truncate ds-text-typo\">Surrey</p>"
+                + "<div class=\"ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap\">" + score + "</div>"
+                + "</div></body></html>";
+    }
+
+    static String rssFeed(String matchUrl, String title) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\">\n<channel>\n"
+                + "<title>Cricinfo Live Scores</title>\n<ttl>2</ttl>\n"
+                + "<item>\n<title>" + title + "</title>\n<link>" + matchUrl + "</link>\n"
+                + "<description>" + title + "</description>\n</item>\n"
+                + "</channel>\n</rss>\n";
+    }
+}
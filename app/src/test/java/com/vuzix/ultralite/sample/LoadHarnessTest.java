@@ -0,0 +1,103 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+public class LoadHarnessTest {
+
+    @Test
+    public void testReplayServerServesTheVersionCurrentAtTheVirtualTime() throws Exception {
+        try (FeedReplayServer server = new FeedReplayServer(1)) {
+            server.publish("/page", 0, "text/plain", "first");
+            server.publish("/page", 1000, "text/plain", "second");
+            assertEquals(-1, server.versionAt("/missing", 5000));
+            assertEquals(0, server.versionAt("/page", 999));
+            assertEquals(1, server.versionAt("/page", 1000));
+
+            server.setNow(500);
+            assertEquals(200, status(server.baseUrl() + "/page", null));
+            assertEquals("The same version comes back not modified", 304, status(server.baseUrl() + "/page", "\"v0\""));
+            server.setNow(1500);
+            assertEquals("A newer version is sent in full", 200, status(server.baseUrl() + "/page", "\"v0\""));
+            assertEquals(404, status(server.baseUrl() + "/missing", null));
+            assertEquals(4, server.requestCount());
+            assertEquals(1, server.notModifiedCount());
+        }
+    }
+
+    @Test
+    public void testReplayServerChargesLatencyAndInjectsErrors() throws Exception {
+        try (FeedReplayServer server = new FeedReplayServer(7)) {
+            server.publish("/page", 0, "text/plain", "body");
+            server.setNetwork(100, 50, 0.5);
+            int failures = 0;
+            for (int i = 0; i < 40; i++) {
+                if (status(server.baseUrl() + "/page", null) == 503) {
+                    failures++;
+                }
+            }
+            long latency = server.takeLatencyMs();
+            assertTrue("Latency " + latency, latency >= 40 * 100 && latency < 40 * 150);
+            assertEquals("Taking the latency resets it", 0, server.takeLatencyMs());
+            assertEquals(failures, server.errorCount());
+            assertTrue("About half should fail: " + failures, failures > 10 && failures < 30);
+        }
+    }
+
+    @Test
+    public void testThreeHourMatchReplaysIdenticallyFromTheSameSeed() throws Exception {
+        LoadHarness harness = new LoadHarness();
+        harness.seed = 2026;
+        LoadHarness.Report first = harness.run();
+        LoadHarness.Report second = harness.run();
+
+        assertEquals(first.toString(), second.toString());
+        assertEquals("Every ball should reach the glasses: " + first, first.updatesPublished, first.updatesShown);
+        assertEquals(first.toString(), 0, first.failedPolls);
+        // Polling every 20 s while live, never more than one poll per update interval plus the feed
+        assertTrue(first.toString(), first.requestsPerMinute() <= 3.1);
+        assertTrue(first.toString(), first.latencyPercentileMs(0.5) <= ScorePoller.LIVE_INTERVAL_MS);
+        assertTrue(first.toString(), first.latencyPercentileMs(0.9) <= ScorePoller.LIVE_INTERVAL_MS + 1000);
+    }
+
+    @Test
+    public void testFasterScheduleTradesRequestsForLatency() throws Exception {
+        LoadHarness harness = new LoadHarness();
+        harness.seed = 11;
+        harness.durationMs = 60 * 60 * 1000;
+        LoadHarness.Report adaptive = harness.run();
+        harness.schedule = LoadHarness.every(5_000);
+        LoadHarness.Report fast = harness.run();
+
+        assertTrue(fast + " vs " + adaptive, fast.latencyPercentileMs(0.9) < adaptive.latencyPercentileMs(0.9));
+        assertTrue(fast + " vs " + adaptive, fast.requestsPerMinute() > 3 * adaptive.requestsPerMinute());
+        assertTrue("Most fast polls find nothing new: " + fast, fast.notModified > fast.polls / 2);
+    }
+
+    @Test
+    public void testServerErrorsBackOffAndStillDeliver() throws Exception {
+        LoadHarness harness = new LoadHarness();
+        harness.seed = 5;
+        harness.errorRate = 0.2;
+        LoadHarness.Report report = harness.run();
+
+        assertTrue(report.toString(), report.errors > 0);
+        assertTrue("Only errors fail a poll: " + report, report.failedPolls > 0 && report.failedPolls <= report.errors);
+        assertEquals("Updates missed by a failed poll arrive with a later one: " + report,
+                report.updatesPublished, report.updatesShown);
+        assertTrue(report.toString(), report.latencyPercentileMs(0.5) <= ScorePoller.LIVE_INTERVAL_MS);
+    }
+
+    private static int status(String url, String ifNoneMatch) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty("If-None-Match", ifNoneMatch);
+        }
+        int status = connection.getResponseCode();
+        connection.disconnect();
+        return status;
+    }
+}
@@ -0,0 +1,229 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MatchFeedTest {
+
+    private static final String MATCH_1 = "https://www.espncricinfo.com/live-cricket-scores/series-1/match-1";
+    private static final String MATCH_2 = "https://www.espncricinfo.com/live-cricket-scores/series-1/match-2";
+
+    // Runs every poll as soon as it is scheduled, so the tests do not wait out the poll interval
+    private static class ImmediateScheduler extends ScheduledThreadPoolExecutor {
+        ImmediateScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return super.schedule(command, 0, unit);
+        }
+    }
+
+    // Each match page moves on one ball for every permit released for it
+    private static class SteppedSource implements MatchFeed.SourceFactory {
+        final Map<String, Semaphore> steps = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+
+        @Override
+        public ScorePoller.Source sourceFor(String matchUrl) {
+            Semaphore step = steps.computeIfAbsent(matchUrl, url -> new Semaphore(0));
+            AtomicInteger count = polls.computeIfAbsent(matchUrl, url -> new AtomicInteger());
+            return () -> {
+                step.acquire();
+                return new MatchDetails("India v Australia", matchUrl, "IND " + count.incrementAndGet() + "/0");
+            };
+        }
+
+        void step(String matchUrl, int balls) {
+            steps.computeIfAbsent(matchUrl, url -> new Semaphore(0)).release(balls);
+        }
+
+        int polls(String matchUrl) {
+            AtomicInteger count = polls.get(matchUrl);
+            return count == null ? 0 : count.get();
+        }
+    }
+
+    // Holds deliveries until the test runs them, like a busy main thread
+    private static class QueuedExecutor implements Executor {
+        final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        int runAll() {
+            int ran = 0;
+            for (Runnable task; (task = queue.poll()) != null; ran++) {
+                task.run();
+            }
+            return ran;
+        }
+    }
+
+    private final ImmediateScheduler scheduler = new ImmediateScheduler();
+    private final SteppedSource source = new SteppedSource();
+    private final MatchFeed feed = new MatchFeed(scheduler, source);
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static void awaitScore(Semaphore updated, List<String> scores, String expected) throws InterruptedException {
+        while (!scores.contains(expected)) {
+            assertTrue("Timed out waiting for " + expected + ", got " + scores, updated.tryAcquire(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSubscribersToOneMatchShareItsPoll() throws InterruptedException {
+        Semaphore updated = new Semaphore(0);
+        List<String> ui = new CopyOnWriteArrayList<>();
+        List<String> glasses = new CopyOnWriteArrayList<>();
+        MatchFeed.Subscription uiUpdates = feed.subscribe(MATCH_1, Runnable::run, match -> {
+            ui.add(match.getScore());
+            updated.release();
+        });
+        MatchFeed.Subscription glassesUpdates = feed.subscribe(MATCH_1, Runnable::run, match -> {
+            glasses.add(match.getScore());
+            updated.release();
+        });
+        assertEquals(1, feed.activeMatches());
+
+        source.step(MATCH_1, 1);
+        awaitScore(updated, ui, "IND 1/0");
+        awaitScore(updated, glasses, "IND 1/0");
+        assertEquals("Both subscribers should be fed by one poll", 1, source.polls(MATCH_1));
+        assertEquals("IND 1/0", feed.getLatest(MATCH_1).getScore());
+
+        uiUpdates.cancel();
+        glassesUpdates.cancel();
+    }
+
+    @Test
+    public void testLateSubscriberGetsTheLatestStraightAway() throws InterruptedException {
+        Semaphore updated = new Semaphore(0);
+        MatchFeed.Subscription first = feed.subscribe(MATCH_1, Runnable::run, match -> updated.release());
+        source.step(MATCH_1, 1);
+        assertTrue(updated.tryAcquire(5, TimeUnit.SECONDS));
+
+        List<String> late = new ArrayList<>();
+        MatchFeed.Subscription second = feed.subscribe(MATCH_1, Runnable::run, match -> late.add(match.getScore()));
+        assertEquals("The last update is replayed on subscribe", 1, late.size());
+        assertEquals("IND 1/0", late.get(0));
+        assertEquals("No extra poll for the late subscriber", 1, source.polls(MATCH_1));
+
+        first.cancel();
+        second.cancel();
+    }
+
+    @Test
+    public void testSlowSubscriberOnlyGetsTheNewestUpdate() throws InterruptedException {
+        Semaphore updated = new Semaphore(0);
+        QueuedExecutor busyMainThread = new QueuedExecutor();
+        List<String> seen = new ArrayList<>();
+        MatchFeed.Subscription slow = feed.subscribe(MATCH_1, busyMainThread, match -> seen.add(match.getScore()));
+        // Subscribers are offered each update in turn, so once this one has it the slow one has too
+        MatchFeed.Subscription fast = feed.subscribe(MATCH_1, Runnable::run, match -> updated.release());
+
+        source.step(MATCH_1, 3);
+        assertTrue(updated.tryAcquire(3, 5, TimeUnit.SECONDS));
+
+        assertEquals("Three updates should queue a single delivery", 1, busyMainThread.runAll());
+        assertEquals("Only the newest update is delivered", 1, seen.size());
+        assertEquals("IND 3/0", seen.get(0));
+
+        fast.cancel();
+        slow.cancel();
+    }
+
+    @Test
+    public void testPollingStopsWithTheLastSubscription() throws InterruptedException {
+        Semaphore updated = new Semaphore(0);
+        MatchFeed.Subscription one = feed.subscribe(MATCH_1, Runnable::run, match -> updated.release());
+        MatchFeed.Subscription two = feed.subscribe(MATCH_1, Runnable::run, match -> updated.release());
+        MatchFeed.Subscription other = feed.subscribe(MATCH_2, Runnable::run, match -> updated.release());
+        assertEquals(2, feed.activeMatches());
+
+        one.cancel();
+        assertEquals("One subscriber is still following the match", 2, feed.activeMatches());
+        two.cancel();
+        two.cancel(); // Cancelling twice is harmless
+        assertEquals(1, feed.activeMatches());
+        assertNull("Nobody is following the first match any more", feed.getLatest(MATCH_1));
+        other.cancel();
+        assertEquals(0, feed.activeMatches());
+    }
+
+    @Test
+    public void testCancelledSubscriberGetsNoQueuedUpdate() throws InterruptedException {
+        Semaphore updated = new Semaphore(0);
+        QueuedExecutor busyMainThread = new QueuedExecutor();
+        List<String> seen = new ArrayList<>();
+        MatchFeed.Subscription slow = feed.subscribe(MATCH_1, busyMainThread, match -> seen.add(match.getScore()));
+        // Subscribers are offered each update in turn, so once this one has it the slow one has too
+        MatchFeed.Subscription fast = feed.subscribe(MATCH_1, Runnable::run, match -> updated.release());
+
+        source.step(MATCH_1, 1);
+        assertTrue(updated.tryAcquire(5, TimeUnit.SECONDS));
+        slow.cancel();
+        busyMainThread.runAll();
+        assertTrue("Updates waiting when the subscription was cancelled are dropped", seen.isEmpty());
+
+        fast.cancel();
+    }
+
+    @Test
+    public void testCancelRacingSubscribeLeavesNoPollerRunning() throws Exception {
+        // Polls every few milliseconds, so a poller left running after the last cancel shows up quickly
+        ScheduledThreadPoolExecutor fastScheduler = new ScheduledThreadPoolExecutor(2) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                return super.schedule(command, 2, TimeUnit.MILLISECONDS);
+            }
+        };
+        AtomicInteger polls = new AtomicInteger();
+        MatchFeed racingFeed = new MatchFeed(fastScheduler, matchUrl -> () -> {
+            polls.incrementAndGet();
+            return new MatchDetails("India v Australia", matchUrl, "IND 1/0");
+        });
+        try {
+            Runnable churn = () -> {
+                for (int i = 0; i < 500; i++) {
+                    racingFeed.subscribe(MATCH_1, Runnable::run, match -> { }).cancel();
+                }
+            };
+            Thread first = new Thread(churn);
+            Thread second = new Thread(churn);
+            first.start();
+            second.start();
+            first.join();
+            second.join();
+
+            assertEquals(0, racingFeed.activeMatches());
+            Thread.sleep(100);
+            int settled = polls.get();
+            Thread.sleep(200);
+            assertEquals("No poller should outlive its last subscription", settled, polls.get());
+        } finally {
+            fastScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MatchListDiffTest {
+
+    private static final String URL_1 = "https://www.espncricinfo.com/series/series-1/india-vs-australia-3rd-test-1/live-cricket-score";
+    private static final String URL_2 = "https://www.espncricinfo.com/series/series-1/india-vs-australia-3rd-test-2/live-cricket-score";
+
+    @Test
+    public void testStableIdsFollowTheUrl() {
+        assertEquals(MatchListDiff.stableIdOf(URL_1), MatchListDiff.stableIdOf(new String(URL_1.toCharArray())));
+        assertNotEquals("URLs a character apart", MatchListDiff.stableIdOf(URL_1), MatchListDiff.stableIdOf(URL_2));
+
+        Set<Long> ids = new HashSet<>();
+        for (int match = 0; match < 10_000; match++) {
+            ids.add(MatchListDiff.stableIdOf("https://www.espncricinfo.com/series/s/match-" + match + "/live-cricket-score"));
+        }
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    public void testRowsAreTheSameMatchWhileTheUrlIs() {
+        MatchDetails before = new MatchDetails("India v Australia", URL_1, "IND 245/6 (42.3 ov)");
+        MatchDetails after = new MatchDetails("India v Australia", URL_1, "IND 246/6 (42.4 ov)");
+        assertTrue(MatchListDiff.sameMatch(before, after));
+        assertFalse(MatchListDiff.sameMatch(before, new MatchDetails("India v Australia", URL_2, "IND 245/6 (42.3 ov)")));
+        assertFalse(MatchListDiff.sameContents(before, after));
+        assertTrue(MatchListDiff.sameContents(before, new MatchDetails("India v Australia", URL_1, "IND 245/6 (42.3 ov)")));
+        assertTrue(MatchListDiff.sameContents(new MatchDetails("India v Australia", URL_1),
+                new MatchDetails("India v Australia", URL_1, null)));
+    }
+
+    @Test
+    public void testOnlyAScoreChangeIsAPartialRebind() {
+        MatchDetails before = new MatchDetails("India v Australia", URL_1, "IND 245/6 (42.3 ov)");
+        assertSame(MatchListDiff.SCORE_CHANGED,
+                MatchListDiff.changePayload(before, new MatchDetails("India v Australia", URL_1, "IND 246/6 (42.4 ov)")));
+        assertNull("A new title needs the whole row",
+                MatchListDiff.changePayload(before, new MatchDetails("India v Australia, 3rd Test", URL_1, "IND 246/6 (42.4 ov)")));
+    }
+
+    @Test
+    public void testWithScoreReplacesOnlyThatRow() {
+        MatchDetails first = new MatchDetails("India v Australia", URL_1, "IND 245/6 (42.3 ov)");
+        MatchDetails second = new MatchDetails("England v South Africa", URL_2, "ENG 12/0 (3.0 ov)");
+        List<MatchDetails> matches = new ArrayList<>(Arrays.asList(first, second));
+
+        List<MatchDetails> updated = MatchListDiff.withScore(matches, URL_1, "IND 246/6 (42.4 ov)");
+        assertNotSame(matches, updated);
+        assertEquals("IND 246/6 (42.4 ov)", updated.get(0).getScore());
+        assertEquals("India v Australia", updated.get(0).getMatchTitle());
+        assertSame(second, updated.get(1));
+        assertEquals("The list on screen is left alone", "IND 245/6 (42.3 ov)", matches.get(0).getScore());
+
+        assertSame("Same score", updated, MatchListDiff.withScore(updated, URL_1, "IND 246/6 (42.4 ov)"));
+        assertSame("Not listed", updated, MatchListDiff.withScore(updated, "https://example.com/other", "1/0"));
+    }
+}
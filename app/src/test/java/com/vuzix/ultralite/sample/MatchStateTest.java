@@ -0,0 +1,105 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MatchStateTest {
+
+    @Test
+    public void testMatchPageScore() {
+        MatchState state = MatchState.parse("IND 245/6 (42.3 ov)");
+        assertTrue(state.hasScore());
+        assertEquals(245, state.getRuns());
+        assertEquals(6, state.getWickets());
+        assertEquals(42 * 6 + 3, state.getLegalBalls());
+        assertEquals(42, state.getCompletedOvers());
+        assertEquals(MatchState.UNKNOWN, state.getBallLimit());
+        assertEquals(MatchState.UNKNOWN, state.getTarget());
+        assertEquals(1, state.getInnings());
+        assertFalse(state.isResult());
+        assertEquals(245 * 6.0 / 255, state.getRunRate(), 1e-9);
+        assertTrue(Double.isNaN(state.getRequiredRate()));
+    }
+
+    @Test
+    public void testLimitedOversChase() {
+        MatchState state = MatchState.parse("SA 150/4 (17.0/20 ov, target 181)");
+        assertEquals(150, state.getRuns());
+        assertEquals(102, state.getLegalBalls());
+        assertEquals(120, state.getBallLimit());
+        assertEquals(181, state.getTarget());
+        assertEquals(31, state.getRunsRequired());
+        assertEquals(18, state.getBallsRemaining());
+        assertEquals(31 * 6.0 / 18, state.getRequiredRate(), 1e-9);
+
+        MatchState need = MatchState.parse("IND 245/6 (44.3/50 ov) India need 36 runs in 33 balls");
+        assertEquals(281, need.getTarget());
+        assertEquals(33, need.getBallsRemaining());
+    }
+
+    @Test
+    public void testRssInnings() {
+        MatchState first = MatchState.parse("India 310/8 * v Australia");
+        assertEquals(310, first.getRuns());
+        assertEquals(8, first.getWickets());
+        assertEquals(1, first.getInnings());
+        assertEquals(MatchState.UNKNOWN, first.getLegalBalls());
+
+        MatchState second = MatchState.parse("India 312 v Australia 0/0 *");
+        assertEquals(0, second.getRuns());
+        assertEquals(2, second.getInnings());
+        assertNotEquals(first.getBattingTeamId(), second.getBattingTeamId());
+
+        MatchState third = MatchState.parse("India 312 v Australia 150 & 4/0 *");
+        assertEquals(4, third.getRuns());
+        assertEquals(3, third.getInnings());
+        assertEquals("The follow-on is batted by the same team", second.getBattingTeamId(), third.getBattingTeamId());
+        assertFalse(second.sameInningsAs(third));
+
+        MatchState allOut = MatchState.parse("Oman 70/9 & 103 * v Pakistan 362");
+        assertEquals(103, allOut.getRuns());
+        assertEquals("No wickets shown means all out", 10, allOut.getWickets());
+        assertEquals(3, allOut.getInnings());
+        assertEquals(MatchState.parse("OMAN 1/0 *").getBattingTeamId(), allOut.getBattingTeamId());
+
+        MatchState declared = MatchState.parse("Delhi 400/5d & 64/1 * v Afghanistan 227/9");
+        assertEquals(64, declared.getRuns());
+        assertEquals(3, declared.getInnings());
+        assertEquals(MatchState.parse("delhi 1/0 *").getBattingTeamId(), declared.getBattingTeamId());
+    }
+
+    @Test
+    public void testStatusAndResultText() {
+        MatchState rain = MatchState.parse("Rain stops play");
+        assertFalse(rain.hasScore());
+        assertFalse(rain.isResult());
+
+        MatchState won = MatchState.parse("India won by 45 runs");
+        assertFalse("The margin is not a score", won.hasScore());
+        assertTrue(won.isResult());
+
+        assertTrue(MatchState.parse("Match Drawn").isResult());
+        assertTrue(MatchState.parse("AUS 300/7 (50 ov) - Match abandoned").isResult());
+
+        assertFalse("Format names are not scores", MatchState.parse("India v England, 2nd T20").hasScore());
+        assertFalse(MatchState.parse("Score not available").hasScore());
+    }
+
+    @Test
+    public void testSameScoreIgnoresWording() {
+        MatchState a = MatchState.parse("IND 245/6 (42.3 ov)");
+        MatchState b = MatchState.parse("IND  245/6  (42.3 ov) - Drinks");
+        MatchState c = MatchState.parse("IND 246/6 (42.4 ov)");
+        assertTrue(a.sameScoreAs(b));
+        assertFalse(a.sameScoreAs(c));
+        assertTrue(a.sameInningsAs(c));
+    }
+
+    @Test
+    public void testMatchDetailsParsesOnce() {
+        MatchDetails match = new MatchDetails("India vs Australia", "url", "IND 245/6 (42.3 ov)");
+        assertSame(match.getMatchState(), match.getMatchState());
+        assertEquals(245, match.getMatchState().getRuns());
+        assertNull(new MatchDetails("India vs Australia", "url").getMatchState());
+    }
+}
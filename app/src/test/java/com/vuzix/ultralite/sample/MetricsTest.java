@@ -0,0 +1,80 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+    }
+
+    @Test
+    public void testCounterIsSharedByName() {
+        Metrics.Counter counter = Metrics.counter("test.counter");
+        counter.increment();
+        counter.add(4);
+        assertSame(counter, Metrics.counter("test.counter"));
+        assertEquals(5, Metrics.counter("test.counter").get());
+    }
+
+    @Test
+    public void testHistogramPercentilesAreUpperBoundsWithinAFactorOfTwo() {
+        Metrics.Histogram histogram = Metrics.histogram("test.latency_us");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(100, histogram.max());
+        assertEquals(50.5, histogram.mean(), 0.001);
+
+        long p50 = histogram.percentile(0.5);
+        assertTrue("p50 " + p50, p50 >= 50 && p50 < 100);
+        long p99 = histogram.percentile(0.99);
+        assertTrue("p99 " + p99, p99 >= 99 && p99 <= 100);
+        assertEquals("Never reports more than the largest value", 100, histogram.percentile(1.0));
+    }
+
+    @Test
+    public void testHistogramHandlesZerosAndNegatives() {
+        Metrics.Histogram histogram = Metrics.histogram("test.zeros");
+        histogram.record(0);
+        histogram.record(-5);
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void testEmptyHistogramReportsZero() {
+        Metrics.Histogram histogram = Metrics.histogram("test.empty");
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(0, histogram.mean(), 0);
+    }
+
+    @Test
+    public void testResetKeepsInstancesButZeroesThem() {
+        Metrics.Counter counter = Metrics.counter("test.reset");
+        Metrics.Histogram histogram = Metrics.histogram("test.reset_us");
+        counter.add(3);
+        histogram.record(1000);
+        Metrics.reset();
+        assertSame(counter, Metrics.counter("test.reset"));
+        assertEquals(0, counter.get());
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void testReportListsEveryMetric() {
+        Metrics.counter("test.report.hits").add(7);
+        Metrics.histogram("test.report.fetch_us").record(250);
+        String report = Metrics.report();
+        assertTrue(report, report.contains("test.report.hits"));
+        assertTrue(report, report.contains("test.report.fetch_us"));
+        assertTrue(report, report.contains(" 7\n") || report.contains(" 7" + System.lineSeparator()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+public class RssFeedParserTest {
+
+    private static InputStream savedFeed() {
+        InputStream in = RssFeedParserTest.class.getResourceAsStream("/livescores.xml");
+        assertNotNull("livescores.xml test resource is missing", in);
+        return in;
+    }
+
+    private static InputStream feed(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testMatchesDomParseOfSavedFeed() throws IOException {
+        ArrayList<MatchDetails> streamed;
+        try (InputStream in = savedFeed()) {
+            streamed = RssFeedParser.parse(in, null, RssFeedParser.NO_LIMIT);
+        }
+
+        // The DOM walk the feed used to go through, kept here as the reference result
+        Document doc;
+        try (InputStream in = savedFeed()) {
+            doc = Jsoup.parse(in, null, "", Parser.xmlParser());
+        }
+        ArrayList<Element> items = doc.select("item");
+
+        assertFalse("Saved feed should contain items", items.isEmpty());
+        assertEquals("Every item should be read", items.size(), streamed.size());
+        for (int i = 0; i < items.size(); i++) {
+            Element item = items.get(i);
+            MatchDetails match = streamed.get(i);
+            assertEquals("Title of item " + i, item.selectFirst("title").text(), match.getMatchTitle());
+            assertEquals("Link of item " + i, item.selectFirst("link").text(), match.getMatchUrl());
+            assertEquals("Score of item " + i, item.selectFirst("description").text().trim(), match.getScore());
+        }
+    }
+
+    @Test
+    public void testTeamFilterDropsItemsWhileParsing() throws IOException {
+        TeamFilter filter = new TeamFilter(Collections.<String>emptyList(), Arrays.asList("south africa", "delhi"));
+        ArrayList<MatchDetails> all;
+        ArrayList<MatchDetails> filtered;
+        try (InputStream in = savedFeed()) {
+            all = RssFeedParser.parse(in, null, RssFeedParser.NO_LIMIT);
+        }
+        try (InputStream in = savedFeed()) {
+            filtered = RssFeedParser.parse(in, null, RssFeedParser.NO_LIMIT, filter);
+        }
+        int expected = 0;
+        for (MatchDetails match : all) {
+            String title = match.getMatchTitle().toLowerCase();
+            if (!title.contains("south africa") && !title.contains("delhi")) {
+                expected++;
+            }
+        }
+        assertTrue("Saved feed should contain blocked teams", expected < all.size());
+        assertEquals(expected, filtered.size());
+        for (MatchDetails match : filtered) {
+            assertFalse(match.getMatchTitle(), match.getMatchTitle().contains("South Africa"));
+        }
+
+        // Only accepted items count toward the limit
+        try (InputStream in = savedFeed()) {
+            filtered = RssFeedParser.parse(in, null, 3, new TeamFilter(Arrays.asList("south africa"), Collections.<String>emptyList()));
+        }
+        assertEquals(3, filtered.size());
+        for (MatchDetails match : filtered) {
+            assertTrue(match.getMatchTitle(), match.getMatchTitle().contains("South Africa"));
+        }
+    }
+
+    @Test
+    public void testItemLimitStopsEarly() throws IOException {
+        ArrayList<MatchDetails> matches;
+        try (InputStream in = savedFeed()) {
+            matches = RssFeedParser.parse(in, null, 3);
+        }
+        assertEquals("Parsing should stop after the item limit", 3, matches.size());
+    }
+
+    @Test
+    public void testItemLimitIgnoresTruncatedRemainder() throws IOException {
+        // Anything after the limit is never read, so a truncated body does not matter
+        String xml = "<rss><channel>" +
+            "<item><title>India 245/6 * v Australia</title><link>http://www.cricinfo.com/ci/engine/match/1.html</link></item>" +
+            "<item><title>Broken";
+        ArrayList<MatchDetails> matches = RssFeedParser.parse(feed(xml), null, 1);
+        assertEquals("First item should be returned", 1, matches.size());
+        assertEquals("India 245/6 * v Australia", matches.get(0).getMatchTitle());
+    }
+
+    @Test
+    public void testMissingFieldsAndWhitespace() throws IOException {
+        String xml = "<?xml version=\"1.0\"?><rss><channel>" +
+            "<title>Cricinfo Live Scores</title>" +
+            "<item><title>  Sri Lanka\n 178/7 *   v Australia </title>" +
+            "<link>http://www.cricinfo.com/ci/engine/match/2.html</link>" +
+            "<description>   </description></item>" +
+            "<item><title>No link here</title></item>" +
+            "<item><title>Nepal 120/3 v Oman</title>" +
+            "<link>http://www.cricinfo.com/ci/engine/match/3.html</link>" +
+            "<description><![CDATA[Nepal 120/3 & v Oman]]></description></item>" +
+            "</channel></rss>";
+        ArrayList<MatchDetails> matches = RssFeedParser.parse(feed(xml), null, RssFeedParser.NO_LIMIT);
+
+        assertEquals("Item without a link should be skipped", 2, matches.size());
+        assertEquals("Whitespace should be normalized", "Sri Lanka 178/7 * v Australia", matches.get(0).getMatchTitle());
+        assertEquals("Blank description should use the default", "Score not available", matches.get(0).getScore());
+        assertEquals("CDATA description should be read", "Nepal 120/3 & v Oman", matches.get(1).getScore());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedFeed() throws IOException {
+        RssFeedParser.parse(feed("<rss><channel><item><title>x</item>"), null, RssFeedParser.NO_LIMIT);
+    }
+}
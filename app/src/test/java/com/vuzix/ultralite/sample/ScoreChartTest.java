@@ -0,0 +1,110 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ScoreChartTest {
+
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 60;
+
+    // Height of the lit column at x, counted up from the bottom row
+    private static int columnHeight(ScoreChart chart, int x) {
+        int height = 0;
+        while (height < chart.getHeight() && chart.isSet(x, chart.getHeight() - 1 - height)) {
+            height++;
+        }
+        return height;
+    }
+
+    private static int litPixelsIn(ScoreChart chart, int left, int right) {
+        int lit = 0;
+        for (int x = left; x < right; x++) {
+            for (int y = 0; y < chart.getHeight(); y++) {
+                lit += chart.isSet(x, y) ? 1 : 0;
+            }
+        }
+        return lit;
+    }
+
+    @Test
+    public void testManhattanBarsFollowTheRunsOfEachOver() {
+        ScoreHistory history = new ScoreHistory(50);
+        history.append(1, 6, 0, 6);
+        history.append(1, 12, 0, 6);
+        history.append(1, 0, 0, 6);
+        history.append(1, 24, 0, 6);
+        ScoreChart chart = new ScoreChart(WIDTH, HEIGHT).drawManhattan(history);
+
+        int slot = WIDTH / ScoreChart.MIN_OVERS;
+        // Bar heights above the baseline row
+        int full = columnHeight(chart, 3 * slot) - 1;
+        assertTrue(full > 40);
+        assertEquals("Half the runs, half the bar", full / 2.0, columnHeight(chart, slot) - 1, 1);
+        assertEquals(full / 4.0, columnHeight(chart, 0) - 1, 1);
+        assertEquals("An over without runs is only the baseline", 1, columnHeight(chart, 2 * slot));
+        assertEquals("Bars are separated by a gap", 1, columnHeight(chart, slot - 1));
+        assertEquals("Nothing is drawn after the last over", 1, columnHeight(chart, 4 * slot + 1));
+    }
+
+    @Test
+    public void testManhattanMarksWicketsAndShowsOnlyTheInningsInProgress() {
+        ScoreHistory history = new ScoreHistory(50);
+        history.append(1, 20, 0, 6);
+        history.append(2, 6, 2, 6);
+        ScoreChart chart = new ScoreChart(WIDTH, HEIGHT).drawManhattan(history);
+
+        // Scaled to this innings alone, whose best over is below the smallest scale
+        int barRows = HEIGHT - 1 - 6;
+        int bar = columnHeight(chart, 0);
+        assertEquals(1 + (6 * barRows + ScoreChart.MIN_OVER_RUNS - 1) / ScoreChart.MIN_OVER_RUNS, bar);
+        assertEquals("The first innings is not drawn", 1, columnHeight(chart, WIDTH / ScoreChart.MIN_OVERS));
+        int marks = 0;
+        for (int y = HEIGHT - 1 - bar; y >= 0; y--) {
+            if (chart.isSet(0, y) && !chart.isSet(0, y + 1)) {
+                marks++;
+            }
+        }
+        assertEquals("One mark per wicket above the bar", 2, marks);
+    }
+
+    @Test
+    public void testWormDrawsEachInningsFromTheOrigin() {
+        ScoreHistory history = new ScoreHistory(50);
+        for (int over = 0; over < 20; over++) {
+            history.append(1, 9, 0, 6);
+        }
+        for (int over = 0; over < 10; over++) {
+            history.append(2, 6, 0, 6);
+        }
+        ScoreChart chart = new ScoreChart(WIDTH, HEIGHT).drawWorm(history);
+
+        // The first innings, 180 in 20 overs, ends at the top right corner of the chart
+        assertTrue(chart.isSet(WIDTH - 1, 1));
+        assertTrue("Both start at the origin", chart.isSet(0, HEIGHT - 1));
+        // The chase only reaches half way, so the left half holds both lines and the right half one
+        int leftHalf = litPixelsIn(chart, 0, WIDTH / 2) - WIDTH / 2;
+        int rightHalf = litPixelsIn(chart, WIDTH / 2, WIDTH) - WIDTH / 2;
+        assertTrue(leftHalf + " lit on the left, " + rightHalf + " on the right", leftHalf > rightHalf * 5 / 4);
+        // The chase is dotted, so it adds less than a second solid line would
+        assertTrue(leftHalf < rightHalf * 2);
+    }
+
+    @Test
+    public void testEmptyHistoryDrawsOnlyTheBaseline() {
+        ScoreChart chart = new ScoreChart(WIDTH, HEIGHT);
+        ScoreHistory empty = new ScoreHistory(10);
+        assertEquals(WIDTH, litPixelsIn(chart.drawManhattan(empty), 0, WIDTH));
+        assertEquals(WIDTH, litPixelsIn(chart.drawWorm(empty), 0, WIDTH));
+    }
+
+    @Test
+    public void testRedrawingStartsFromABlankChart() {
+        ScoreHistory history = new ScoreHistory(10);
+        history.append(1, 24, 3, 6);
+        ScoreChart chart = new ScoreChart(WIDTH, HEIGHT);
+        chart.drawManhattan(history);
+        chart.drawManhattan(new ScoreHistory(10));
+        assertEquals(WIDTH, litPixelsIn(chart, 0, WIDTH));
+    }
+}
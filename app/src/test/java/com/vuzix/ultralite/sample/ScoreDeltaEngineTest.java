@@ -0,0 +1,93 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ScoreDeltaEngineTest {
+
+    private static final String URL = "https://www.espncricinfo.com/live-cricket-scores/series-1/match-1";
+
+    @Test
+    public void testFirstScoreAndUnchangedScore() {
+        ScoreDeltaEngine engine = new ScoreDeltaEngine();
+
+        List<ScoreEvent> first = engine.update(URL, "IND 245/6 (42.3 ov)");
+        assertEquals("First score should be reported once", 1, first.size());
+        assertEquals(ScoreEvent.Type.SCORE, first.get(0).getType());
+
+        assertTrue("Unchanged score should produce no events", engine.update(URL, "IND 245/6 (42.3 ov)").isEmpty());
+        assertTrue("Missing score should produce no events", engine.update(URL, null).isEmpty());
+    }
+
+    @Test
+    public void testRunsWicketsAndOvers() {
+        ScoreDeltaEngine engine = new ScoreDeltaEngine();
+        engine.update(URL, "IND 245/6 (42.3 ov)");
+
+        List<ScoreEvent> runs = engine.update(URL, "IND 249/6 (42.4 ov)");
+        assertEquals(1, runs.size());
+        assertEquals(ScoreEvent.Type.RUNS, runs.get(0).getType());
+        assertEquals("Runs added", 4, runs.get(0).getValue());
+
+        List<ScoreEvent> wicketAndOver = engine.update(URL, "IND 249/7 (43.0 ov)");
+        assertEquals(2, wicketAndOver.size());
+        assertEquals(ScoreEvent.Type.WICKET, wicketAndOver.get(0).getType());
+        assertEquals(1, wicketAndOver.get(0).getValue());
+        assertEquals(ScoreEvent.Type.OVER_COMPLETED, wicketAndOver.get(1).getType());
+        assertEquals("Completed overs", 43, wicketAndOver.get(1).getValue());
+    }
+
+    @Test
+    public void testInningsChangeFromRssFormat() {
+        ScoreDeltaEngine engine = new ScoreDeltaEngine();
+        engine.update(URL, "India 310/8 * v Australia");
+
+        List<ScoreEvent> change = engine.update(URL, "India 312 v Australia 0/0 *");
+        assertEquals(1, change.size());
+        assertEquals(ScoreEvent.Type.INNINGS_CHANGE, change.get(0).getType());
+
+        List<ScoreEvent> followOn = engine.update(URL, "India 312 v Australia 150 & 4/0 *");
+        assertEquals("Second innings of the same team is a new innings",
+            ScoreEvent.Type.INNINGS_CHANGE, followOn.get(0).getType());
+    }
+
+    @Test
+    public void testResultAndStatus() {
+        ScoreDeltaEngine engine = new ScoreDeltaEngine();
+        engine.update(URL, "IND 245/6 (42.3 ov)");
+
+        List<ScoreEvent> status = engine.update(URL, "Rain stops play");
+        assertEquals(ScoreEvent.Type.STATUS, status.get(0).getType());
+
+        engine.update(URL, "IND 300/6 (50.0 ov)");
+        List<ScoreEvent> result = engine.update(URL, "India won by 45 runs");
+        assertEquals(1, result.size());
+        assertEquals(ScoreEvent.Type.RESULT, result.get(0).getType());
+    }
+
+    @Test
+    public void testMatchesAreTrackedSeparately() {
+        ScoreDeltaEngine engine = new ScoreDeltaEngine();
+        engine.update(URL, "IND 245/6 (42.3 ov)");
+        List<ScoreEvent> other = engine.update(URL + "-other", "IND 245/6 (42.3 ov)");
+        assertEquals("Another match should get its own first score", ScoreEvent.Type.SCORE, other.get(0).getType());
+
+        engine.forget(URL);
+        assertEquals("Forgotten match should start over", ScoreEvent.Type.SCORE,
+            engine.update(URL, "IND 245/6 (42.3 ov)").get(0).getType());
+    }
+
+    @Test
+    public void testDescribe() {
+        List<ScoreEvent> events = Arrays.asList(
+            new ScoreEvent(ScoreEvent.Type.WICKET, URL, 1, "IND 249/7 (43.0 ov)"),
+            new ScoreEvent(ScoreEvent.Type.OVER_COMPLETED, URL, 43, "IND 249/7 (43.0 ov)"));
+        assertEquals("WICKET, End of over 43: IND 249/7 (43.0 ov)", ScoreEvent.describe(events));
+        assertEquals("IND 249/7 (43.0 ov)", ScoreEvent.describe(Arrays.asList(
+            new ScoreEvent(ScoreEvent.Type.SCORE, URL, 0, "IND 249/7 (43.0 ov)"))));
+        assertEquals(Arrays.asList("WICKET, End of over 43", "IND 249/7 (43.0 ov)"), ScoreEvent.lines(events));
+    }
+}
@@ -0,0 +1,129 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class ScoreHistoryTest {
+
+    private static void update(ScoreHistory history, String score) {
+        history.update(MatchState.parse(score));
+    }
+
+    @Test
+    public void testRecordsEachCompletedOver() {
+        ScoreHistory history = new ScoreHistory(50);
+        update(history, "IND 0/0 (0.0 ov)");
+        update(history, "IND 4/0 (0.3 ov)");
+        assertEquals("An over in progress is not recorded", 0, history.size());
+        update(history, "IND 9/0 (1.0 ov)");
+        update(history, "IND 12/1 (2.0 ov)");
+        update(history, "IND 12/1 (2.0 ov)");
+
+        assertEquals(2, history.size());
+        assertEquals(9, history.runsAt(0));
+        assertEquals(0, history.wicketsAt(0));
+        assertEquals(3, history.runsAt(1));
+        assertEquals(1, history.wicketsAt(1));
+        assertEquals(6, history.ballsAt(1));
+        assertEquals(1, history.inningsAt(1));
+    }
+
+    @Test
+    public void testSharesRunsByBallsWhenPollsMissTheEndOfAnOver() {
+        ScoreHistory history = new ScoreHistory(50);
+        update(history, "IND 10/0 (1.0 ov)");
+        // Three overs and two balls went by between polls: 40 runs over 20 balls, 2 runs a ball
+        update(history, "IND 50/1 (4.2 ov)");
+
+        assertEquals(4, history.size());
+        assertEquals(12, history.runsAt(1));
+        assertEquals(12, history.runsAt(2));
+        assertEquals(12, history.runsAt(3));
+        // The last two balls' share stays with the over in progress
+        update(history, "IND 55/1 (5.0 ov)");
+        assertEquals(5, history.size());
+        assertEquals(9, history.runsAt(4));
+        int total = 0;
+        for (int over = 0; over < history.size(); over++) {
+            total += history.runsAt(over);
+        }
+        assertEquals("Every run lands in some over", 55, total);
+        int wickets = 0;
+        for (int over = 0; over < history.size(); over++) {
+            wickets += history.wicketsAt(over);
+        }
+        assertEquals(1, wickets);
+    }
+
+    @Test
+    public void testClosesAnInningsThatEndsMidOver() {
+        ScoreHistory history = new ScoreHistory(50);
+        update(history, "India 150/9 * v Australia (19.0 ov)");
+        update(history, "India 158/9 * v Australia (19.4 ov)");
+        update(history, "India 160 v Australia 0/0 * (0.0 ov)");
+        update(history, "India 160 v Australia 7/0 * (1.0 ov)");
+
+        assertEquals(21, history.size());
+        assertEquals(1, history.inningsAt(19));
+        assertEquals("The last over of the first innings", 4, history.ballsAt(19));
+        assertEquals(8, history.runsAt(19));
+        assertEquals(2, history.inningsAt(20));
+        assertEquals(7, history.runsAt(20));
+
+        update(history, "India 158/9 * v Australia (19.4 ov)");
+        assertEquals("A stale poll from the earlier innings is ignored", 21, history.size());
+    }
+
+    @Test
+    public void testIgnoresStatesWithoutOvers() {
+        ScoreHistory history = new ScoreHistory(50);
+        update(history, "Rain stops play");
+        update(history, "India 310/8 * v Australia");
+        history.update(null);
+        assertEquals(0, history.size());
+    }
+
+    @Test
+    public void testOverwritesTheOldestOversWhenFull() {
+        ScoreHistory history = new ScoreHistory(3);
+        for (int over = 0; over < 5; over++) {
+            history.append(1, over, 0, 6);
+        }
+        assertEquals(3, history.size());
+        assertEquals(3, history.capacity());
+        assertEquals(2, history.runsAt(0));
+        assertEquals(4, history.runsAt(2));
+        try {
+            history.runsAt(3);
+            fail("Only the overs held can be read");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void testAppendingDoesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+        ScoreHistory history = new ScoreHistory(120);
+        MatchState[] states = new MatchState[600];
+        for (int over = 0; over < states.length; over++) {
+            states[over] = MatchState.parse("IND " + over * 7 + "/0 (" + (over + 1) + ".0 ov)");
+        }
+        history.update(states[0]); // Warm up
+
+        long before = allocations.getThreadAllocatedBytes(thread);
+        for (int over = 1; over < states.length; over++) {
+            history.update(states[over]);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+        assertEquals(120, history.size());
+        assertTrue("Recording 599 overs allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
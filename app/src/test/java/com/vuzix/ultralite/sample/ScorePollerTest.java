@@ -0,0 +1,97 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScorePollerTest {
+
+    private static final String URL = "https://www.espncricinfo.com/live-cricket-scores/series-1/match-1";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testPhaseOf() {
+        assertEquals(ScorePoller.Phase.LIVE, ScorePoller.phaseOf("IND 245/6 (42.3 ov)"));
+        assertEquals(ScorePoller.Phase.BREAK, ScorePoller.phaseOf("Innings Break: IND 310/8"));
+        assertEquals(ScorePoller.Phase.BREAK, ScorePoller.phaseOf("Rain stops play"));
+        assertEquals(ScorePoller.Phase.BREAK, ScorePoller.phaseOf("Stumps - Day 1: Team Alpha trail by 100 runs"));
+        assertEquals(ScorePoller.Phase.BREAK, ScorePoller.phaseOf("Tea - Day 2"));
+        assertEquals("Team names containing break words are still live",
+            ScorePoller.Phase.LIVE, ScorePoller.phaseOf("Bahrain 120/3 * v Oman"));
+        assertEquals(ScorePoller.Phase.FINISHED, ScorePoller.phaseOf("India won by 45 runs"));
+        assertTrue("Break polls should be slower than live polls",
+            ScorePoller.intervalFor(ScorePoller.Phase.BREAK) > ScorePoller.intervalFor(ScorePoller.Phase.LIVE));
+    }
+
+    @Test
+    public void testBackoffGrowsWithJitterAndIsCapped() {
+        Random random = new Random(42);
+        long previousWindow = 0;
+        for (int failures = 1; failures <= 10; failures++) {
+            long window = Math.min(ScorePoller.LIVE_INTERVAL_MS << (failures - 1), ScorePoller.MAX_BACKOFF_MS);
+            long delay = ScorePoller.backoffDelay(failures, random);
+            assertTrue("Delay should be at least half the window", delay >= window / 2);
+            assertTrue("Delay should not exceed the window", delay <= window);
+            assertTrue("Window should never shrink", window >= previousWindow);
+            previousWindow = window;
+        }
+        assertTrue("Backoff should be capped", ScorePoller.backoffDelay(1000, random) <= ScorePoller.MAX_BACKOFF_MS);
+    }
+
+    @Test
+    public void testPollsImmediatelyAndKeepsLatest() throws InterruptedException {
+        Semaphore polled = new Semaphore(0);
+        AtomicInteger polls = new AtomicInteger();
+        ScorePoller poller = new ScorePoller(scheduler, () -> {
+            polls.incrementAndGet();
+            return new MatchDetails("India v Australia", URL, "IND 245/6 (42.3 ov)");
+        }, match -> polled.release());
+
+        assertNull("Nothing should be known before the first poll", poller.getLatest());
+        poller.start();
+        assertTrue("First poll should run right away", polled.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals("IND 245/6 (42.3 ov)", poller.getLatest().getScore());
+        assertEquals(1, polls.get());
+        poller.stop();
+    }
+
+    @Test
+    public void testFailedPollKeepsLastValue() throws InterruptedException {
+        Semaphore polled = new Semaphore(0);
+        ScorePoller poller = new ScorePoller(scheduler, () -> {
+            throw new java.io.IOException("offline");
+        }, match -> polled.release());
+        poller.start();
+        assertFalse("Failed polls should not notify", polled.tryAcquire(500, TimeUnit.MILLISECONDS));
+        assertNull(poller.getLatest());
+        poller.stop();
+    }
+
+    @Test
+    public void testStopBeforeStartLeavesThePollerStopped() throws InterruptedException {
+        AtomicInteger polls = new AtomicInteger();
+        ScorePoller poller = new ScorePoller(scheduler, () -> {
+            polls.incrementAndGet();
+            return new MatchDetails("India v Australia", URL, "IND 245/6 (42.3 ov)");
+        }, null);
+
+        // The order a cancel racing a subscribe could produce
+        poller.stop();
+        poller.start();
+        Thread.sleep(200);
+        assertEquals("A stopped poller never polls", 0, polls.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ScorecardRendererTest {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 480;
+
+    // Records what would be drawn where; each image is the text it shows
+    private final List<String> drawn = new ArrayList<>();
+    private final ScorecardRenderer<String> renderer = new ScorecardRenderer<>(
+            ScorecardRenderer.defaultLayout(WIDTH, HEIGHT),
+            (text, fontSize, width, height) -> text,
+            (field, image, x, y) -> drawn.add(field + "=" + image));
+
+    private int show(String score) {
+        drawn.clear();
+        return renderer.show(MatchState.parse(score));
+    }
+
+    @Test
+    public void testFirstUpdateDrawsEveryField() {
+        assertEquals(4, show("SA 150/4 (17.0/20 ov, target 181)"));
+        assertTrue(drawn.contains("SCORE=150/4"));
+        assertTrue(drawn.contains("OVERS=17.0/20 ov"));
+        assertTrue(drawn.contains("RATE=Need 31 off 18  RRR 10.33"));
+        assertTrue(drawn.contains("STATUS="));
+    }
+
+    @Test
+    public void testSingleRunRedrawsOnlyTheChangedFields() {
+        show("IND 245/6 (42.3 ov)");
+        assertEquals(3, show("IND 246/6 (42.4 ov)"));
+        assertEquals("The status line is unchanged",
+                java.util.Arrays.asList("SCORE=246/6", "OVERS=42.4 ov", "RATE=CRR 5.77"), drawn);
+
+        assertEquals("A dot ball changes the overs and the rate", 2, show("IND 246/6 (42.5 ov)"));
+        assertEquals("The same score again draws nothing", 0, show("IND  246/6  (42.5 ov)"));
+    }
+
+    @Test
+    public void testStatusTextLeavesTheScoreUp() {
+        show("IND 245/6 (42.3 ov)");
+        assertEquals(1, show("Rain stops play"));
+        assertEquals("STATUS=Rain stops play", drawn.get(0));
+        assertEquals("Play resumes and the status clears", 1, show("IND 245/6 (42.3 ov)"));
+        assertEquals("STATUS=", drawn.get(0));
+        assertEquals(1, show("IND 245/6 (42.3 ov) - Drinks"));
+    }
+
+    @Test
+    public void testOnlyComparedFieldsCountAsUnchanged() {
+        Metrics.Counter unchanged = Metrics.counter("glasses.fields_unchanged");
+        show("IND 245/6 (42.3 ov)");
+        long before = unchanged.get();
+        show("Rain stops play");
+        assertEquals("Only the status line was compared, and it changed", before, unchanged.get());
+        show("Rain stops play");
+        assertEquals(before + 1, unchanged.get());
+    }
+
+    @Test
+    public void testInvalidateRedrawsEverything() {
+        show("IND 245/6 (42.3 ov)");
+        renderer.invalidate();
+        assertEquals(4, show("IND 245/6 (42.3 ov)"));
+    }
+
+    @Test
+    public void testFieldText() {
+        MatchState allOut = MatchState.parse("India 312 v Australia 0/0 *");
+        assertEquals("0/0", ScorecardRenderer.textOf(ScorecardRenderer.Field.SCORE, allOut));
+        assertEquals("", ScorecardRenderer.textOf(ScorecardRenderer.Field.OVERS, allOut));
+        assertEquals("No overs, no rate", "", ScorecardRenderer.textOf(ScorecardRenderer.Field.RATE, allOut));
+        MatchState abandoned = MatchState.parse("AUS 300/7 (50 ov) - Match abandoned");
+        assertEquals("AUS 300/7 (50 ov) - Match abandoned", ScorecardRenderer.textOf(ScorecardRenderer.Field.STATUS, abandoned));
+        assertEquals("Without a target only the run rate is shown", "CRR 10.00",
+                ScorecardRenderer.textOf(ScorecardRenderer.Field.RATE, MatchState.parse("SA 180/4 (18.0 ov)")));
+    }
+
+    @Test
+    public void testDefaultLayoutFitsTheCanvasWithoutOverlaps() {
+        Map<ScorecardRenderer.Field, ScorecardRenderer.Region> layout = ScorecardRenderer.defaultLayout(WIDTH, HEIGHT);
+        List<ScorecardRenderer.Region> regions = new ArrayList<>(layout.values());
+        regions.add(ScorecardRenderer.chartRegion(WIDTH, HEIGHT));
+        assertEquals(5, regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            ScorecardRenderer.Region a = regions.get(i);
+            assertTrue(a.x >= 0 && a.y >= 0 && a.x + a.width <= WIDTH && a.y + a.height <= HEIGHT);
+            assertTrue(a.width > 0 && a.height > 0);
+            for (int j = i + 1; j < regions.size(); j++) {
+                ScorecardRenderer.Region b = regions.get(j);
+                boolean apart = a.x + a.width <= b.x || b.x + b.width <= a.x
+                        || a.y + a.height <= b.y || b.y + b.height <= a.y;
+                assertTrue("Regions " + i + " and " + j + " overlap", apart);
+            }
+        }
+    }
+}
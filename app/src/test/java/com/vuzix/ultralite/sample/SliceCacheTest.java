@@ -0,0 +1,122 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SliceCacheTest {
+
+    private static SliceCache.Key key(String text) {
+        return new SliceCache.Key(text, 60, 640);
+    }
+
+    // Each value weighs as many bytes as its length
+    private static SliceCache<String> cache(long maxBytes) {
+        return new SliceCache<>(maxBytes, (key, value) -> value.length());
+    }
+
+    @Test
+    public void testKeyCoversEverythingThatAffectsThePixels() {
+        assertEquals(key("IND 245/6"), key("IND 245/6"));
+        assertEquals(key("IND 245/6").hashCode(), key("IND 245/6").hashCode());
+        assertNotEquals(key("IND 245/6"), key("IND 246/6"));
+        assertNotEquals(key("IND 245/6"), new SliceCache.Key("IND 245/6", 48, 640));
+        assertNotEquals(key("IND 245/6"), new SliceCache.Key("IND 245/6", 60, 320));
+    }
+
+    @Test
+    public void testRendersOnlyOnMiss() {
+        SliceCache<String> cache = cache(1000);
+        List<String> rendered = new ArrayList<>();
+        SliceCache.Renderer<String> renderer = key -> {
+            rendered.add(key.getText());
+            return "pixels of " + key.getText();
+        };
+
+        assertEquals("pixels of Overs 42.3", cache.getOrRender(key("Overs 42.3"), renderer));
+        assertEquals("pixels of Overs 42.3", cache.getOrRender(key("Overs 42.3"), renderer));
+        assertEquals("pixels of India", cache.getOrRender(key("India"), renderer));
+
+        assertEquals(Arrays.asList("Overs 42.3", "India"), rendered);
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWhenOverTheMemoryCap() {
+        SliceCache<String> cache = cache(30);
+        cache.put(key("a"), "0123456789");
+        cache.put(key("b"), "0123456789");
+        cache.put(key("c"), "0123456789");
+        assertNotNull("Touching a makes b the least recently used", cache.get(key("a")));
+
+        cache.put(key("d"), "0123456789");
+        assertNull(cache.get(key("b")));
+        assertNotNull(cache.get(key("a")));
+        assertNotNull(cache.get(key("c")));
+        assertNotNull(cache.get(key("d")));
+        assertEquals(30, cache.sizeBytes());
+
+        // A big entry evicts as many old ones as it takes
+        cache.put(key("e"), "01234567890123456789");
+        assertEquals(2, cache.size());
+        assertEquals(30, cache.sizeBytes());
+    }
+
+    @Test
+    public void testReplacingAnEntryUpdatesItsWeight() {
+        SliceCache<String> cache = cache(100);
+        cache.put(key("a"), "0123456789");
+        cache.put(key("a"), "01234");
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.sizeBytes());
+    }
+
+    @Test
+    public void testEntryLargerThanTheCapIsNotCached() {
+        SliceCache<String> cache = cache(10);
+        cache.put(key("a"), "0123");
+        cache.put(key("huge"), "0123456789abcdef");
+        assertNull(cache.get(key("huge")));
+        assertNotNull("Existing entries survive", cache.get(key("a")));
+    }
+
+    @Test
+    public void testLineSenderSendsOnlyChangedPositions() {
+        SliceCache<List<String>> cache = new SliceCache<>(10_000, (key, slices) -> slices.size() * 10);
+        List<String> rasterized = new ArrayList<>();
+        List<String> sent = new ArrayList<>();
+        CachedLineSender<String> sender = new CachedLineSender<>(cache,
+                (line, sliceHeight, width) -> {
+                    rasterized.add(line);
+                    return Collections.singletonList("[" + line + "]");
+                },
+                (slice, position) -> sent.add(position + ":" + slice),
+                60, 640, 3, "[]");
+
+        assertEquals(3, sender.send(Arrays.asList("End of over 42", "IND 245/6 (42.0 ov)")));
+        assertEquals(Arrays.asList("0:[]", "1:[End of over 42]", "2:[IND 245/6 (42.0 ov)]"), sent);
+
+        // Only the score line changed
+        sent.clear();
+        assertEquals(1, sender.send(Arrays.asList("End of over 42", "IND 249/6 (42.1 ov)")));
+        assertEquals(Collections.singletonList("2:[IND 249/6 (42.1 ov)]"), sent);
+
+        // Back to an earlier score: sent again, but not rasterized again
+        sent.clear();
+        rasterized.clear();
+        sender.send(Arrays.asList("End of over 42", "IND 245/6 (42.0 ov)"));
+        assertEquals(Collections.singletonList("2:[IND 245/6 (42.0 ov)]"), sent);
+        assertTrue(rasterized.isEmpty());
+
+        // After a reconnect everything is sent again, still from the cache
+        sent.clear();
+        sender.invalidate();
+        assertEquals(3, sender.send(Arrays.asList("End of over 42", "IND 245/6 (42.0 ov)")));
+        assertTrue(rasterized.isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SnapshotCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<MatchDetails> MATCHES = Arrays.asList(
+        new MatchDetails("India 245/6 * v Australia", "http://www.cricinfo.com/ci/engine/match/1.html", "India 245/6 * v Australia"),
+        new MatchDetails("Nepal v Oman", "http://www.cricinfo.com/ci/engine/match/2.html", null));
+
+    private SnapshotCache cache() {
+        return new SnapshotCache(new File(folder.getRoot(), SnapshotCache.FILE_NAME));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        SnapshotCache cache = cache();
+        cache.save(MATCHES, 1_000_000L);
+
+        SnapshotCache.Snapshot snapshot = cache().load();
+
+        assertNotNull("Saved snapshot should load", snapshot);
+        assertEquals(1_000_000L, snapshot.getSavedAtMillis());
+        assertEquals(2, snapshot.getMatches().size());
+        assertEquals("India 245/6 * v Australia", snapshot.getMatches().get(0).getMatchTitle());
+        assertEquals("http://www.cricinfo.com/ci/engine/match/1.html", snapshot.getMatches().get(0).getMatchUrl());
+        assertEquals("India 245/6 * v Australia", snapshot.getMatches().get(0).getScore());
+        assertNull("Missing score should stay missing", snapshot.getMatches().get(1).getScore());
+    }
+
+    @Test
+    public void testEmptyAndShortListsRoundTrip() throws IOException {
+        SnapshotCache cache = cache();
+        cache.save(Collections.<MatchDetails>emptyList(), 5L);
+        assertEquals("28 bytes: header and checksum only", 28, new File(folder.getRoot(), SnapshotCache.FILE_NAME).length());
+        SnapshotCache.Snapshot empty = cache.load();
+        assertNotNull("An empty list is a valid snapshot", empty);
+        assertEquals(5L, empty.getSavedAtMillis());
+        assertTrue(empty.getMatches().isEmpty());
+
+        cache.save(Collections.singletonList(new MatchDetails("", "a", null)), 6L);
+        SnapshotCache.Snapshot one = cache.load();
+        assertNotNull("A single short match is a valid snapshot", one);
+        assertEquals(1, one.getMatches().size());
+        assertEquals("a", one.getMatches().get(0).getMatchUrl());
+    }
+
+    @Test
+    public void testSaveReplacesPreviousSnapshot() throws IOException {
+        SnapshotCache cache = cache();
+        cache.save(MATCHES, 1L);
+        cache.save(MATCHES.subList(0, 1), 2L);
+
+        SnapshotCache.Snapshot snapshot = cache.load();
+        assertEquals(2L, snapshot.getSavedAtMillis());
+        assertEquals(1, snapshot.getMatches().size());
+        assertFalse("Temporary file should be gone", new File(folder.getRoot(), SnapshotCache.FILE_NAME + ".tmp").exists());
+    }
+
+    @Test
+    public void testMissingFile() {
+        assertNull(cache().load());
+    }
+
+    @Test
+    public void testCorruptionIsDetected() throws IOException {
+        cache().save(MATCHES, 1_000_000L);
+        File file = new File(folder.getRoot(), SnapshotCache.FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(30);
+            int b = raf.read();
+            raf.seek(30);
+            raf.write(b ^ 0x01);
+        }
+        assertNull("Flipped bit should fail the checksum", cache().load());
+    }
+
+    @Test
+    public void testTruncationIsDetected() throws IOException {
+        cache().save(MATCHES, 1_000_000L);
+        File file = new File(folder.getRoot(), SnapshotCache.FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        assertNull("Truncated file should be ignored", cache().load());
+    }
+
+    @Test
+    public void testUnknownVersionIsIgnored() throws IOException {
+        cache().save(MATCHES, 1_000_000L);
+        File file = new File(folder.getRoot(), SnapshotCache.FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.writeInt(99);
+        }
+        assertNull("Snapshot from another version should be ignored", cache().load());
+    }
+
+    @Test
+    public void testStaleness() throws IOException {
+        cache().save(MATCHES, 1_000_000L);
+        SnapshotCache.Snapshot snapshot = cache().load();
+
+        assertEquals(60_000L, snapshot.ageMillis(1_060_000L));
+        assertFalse(snapshot.isStale(1_060_000L, 5 * 60_000L));
+        assertTrue(snapshot.isStale(1_000_000L + 6 * 60_000L, 5 * 60_000L));
+    }
+}
@@ -0,0 +1,25 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TeamFilterPreferencesTest {
+
+    @Test
+    public void testParsesLinesAndCommas() {
+        assertEquals(Arrays.asList("india", "Royal Challengers", "delhi"),
+                TeamFilterPreferences.parseList(" india\n\nRoyal Challengers , delhi,\n"));
+        assertTrue(TeamFilterPreferences.parseList("  \n , ").isEmpty());
+    }
+
+    @Test
+    public void testFormatsOnePerLineAndReadsBack() {
+        String text = TeamFilterPreferences.formatList(Arrays.asList("mumbai", "chennai", "delhi"));
+        assertEquals("chennai\ndelhi\nmumbai", text);
+        assertEquals(Arrays.asList("chennai", "delhi", "mumbai"), TeamFilterPreferences.parseList(text));
+        assertEquals("", TeamFilterPreferences.formatList(Collections.<String>emptySet()));
+    }
+}
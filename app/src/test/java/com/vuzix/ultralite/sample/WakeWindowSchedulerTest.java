@@ -0,0 +1,122 @@
+package com.vuzix.ultralite.sample;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WakeWindowSchedulerTest {
+
+    private final WakeWindowScheduler scheduler = new WakeWindowScheduler(1000, WakeWindowScheduler.RADIO_TAIL_MS, 2);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    @Test
+    public void testTasksDueCloseTogetherShareAWake() throws Exception {
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicLong firstRanAt = new AtomicLong();
+        AtomicLong secondRanAt = new AtomicLong();
+        long scheduledAt = now();
+        scheduler.schedule(() -> {
+            firstRanAt.set(now());
+            done.countDown();
+        }, 200, TimeUnit.MILLISECONDS);
+        scheduler.schedule(() -> {
+            secondRanAt.set(now());
+            done.countDown();
+        }, 250, TimeUnit.MILLISECONDS);
+        assertEquals(1, scheduler.pendingWakes());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue("Neither runs before both are due", firstRanAt.get() - scheduledAt >= 250);
+        assertTrue(secondRanAt.get() - firstRanAt.get() < 100);
+        assertEquals(0, scheduler.pendingWakes());
+    }
+
+    @Test
+    public void testTasksBeyondTheToleranceWakeSeparately() {
+        scheduler.schedule(() -> { }, 500, TimeUnit.MILLISECONDS);
+        // Put off by at most half of its delay, so it cannot wait for the other
+        scheduler.schedule(() -> { }, 100, TimeUnit.MILLISECONDS);
+        scheduler.schedule(() -> { }, 5000, TimeUnit.MILLISECONDS);
+        assertEquals(3, scheduler.pendingWakes());
+    }
+
+    @Test
+    public void testTasksWithoutADelayRunStraightAway() throws Exception {
+        CountDownLatch later = new CountDownLatch(1);
+        scheduler.schedule(later::countDown, 2000, TimeUnit.MILLISECONDS);
+        CountDownLatch now = new CountDownLatch(1);
+        long submittedAt = now();
+        scheduler.execute(now::countDown);
+
+        assertTrue(now.await(5, TimeUnit.SECONDS));
+        assertTrue(now() - submittedAt < 1000);
+        assertEquals(1, later.getCount());
+    }
+
+    @Test
+    public void testCancellingEveryTaskDropsTheWake() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        ScheduledFuture<?> first = scheduler.schedule(ran::countDown, 200, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> second = scheduler.schedule(ran::countDown, 250, TimeUnit.MILLISECONDS);
+        assertTrue(first.getDelay(TimeUnit.MILLISECONDS) <= 200);
+
+        first.cancel(false);
+        assertEquals("The other task still needs the wake", 1, scheduler.pendingWakes());
+        second.cancel(false);
+        assertEquals(0, scheduler.pendingWakes());
+        assertFalse(ran.await(500, TimeUnit.MILLISECONDS));
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void testASlowTaskDoesNotHoldUpTheNextWake() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            slowStarted.countDown();
+            try {
+                // Like a list refresh waiting out its batch deadline
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch poll = new CountDownLatch(1);
+        scheduler.schedule(poll::countDown, 100, TimeUnit.MILLISECONDS);
+        try {
+            assertTrue("The poll runs while the slow task is still blocked", poll.await(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testRadioTimeCountsOverlappingTailsOnce() {
+        long tail = WakeWindowScheduler.RADIO_TAIL_MS;
+        scheduler.recordBurst(0, 2000);
+        // Starts while the radio is still on from the first burst, so only the later tail end adds up
+        scheduler.recordBurst(5000, 6000);
+        assertEquals(6000 + tail, scheduler.radioActiveMillisInHourBefore(6000));
+
+        scheduler.recordBurst(60_000, 61_000);
+        assertEquals(6000 + tail + 1000 + tail, scheduler.radioActiveMillisInHourBefore(61_000));
+        assertEquals("The first minute has dropped out of the hour", 1000 + tail,
+                scheduler.radioActiveMillisInHourBefore(WakeWindowScheduler.HOUR_MS + 30_000));
+        assertEquals(0, scheduler.radioActiveMillisInHourBefore(3 * WakeWindowScheduler.HOUR_MS));
+    }
+}
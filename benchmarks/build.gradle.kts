@@ -0,0 +1,63 @@
+// JMH benchmarks for the scraping and parsing hot paths. Plain JVM, so it runs on a desktop without
+// an emulator: ./gradlew :benchmarks:jmh
+// Results, including the gc profiler's allocation rate, are written to build/results/jmh/results.json
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+java {
+    // Same language level as the app, so the benchmarked code compiles here exactly as it does there
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+sourceSets {
+    main {
+        java {
+            // The app classes under test, compiled straight from the app module. Only those that do
+            // not need the Android framework or the Ultralite SDK; android.util.Log is shimmed here.
+            srcDir("../app/src/main/java")
+            include(
+                "android/util/Log.java",
+                "com/vuzix/ultralite/sample/CricinfoLive.java",
+                "com/vuzix/ultralite/sample/ConditionalFetcher.java",
+                "com/vuzix/ultralite/sample/DebugLog.java",
+                "com/vuzix/ultralite/sample/FetchGateway.java",
+                "com/vuzix/ultralite/sample/HttpClients.java",
+                "com/vuzix/ultralite/sample/Metrics.java",
+                "com/vuzix/ultralite/sample/RssFeedParser.java",
+                "com/vuzix/ultralite/sample/MatchDetails.java",
+                "com/vuzix/ultralite/sample/MatchState.java",
+                "com/vuzix/ultralite/sample/KeywordMatcher.java",
+                "com/vuzix/ultralite/sample/ListingPageParser.java",
+                "com/vuzix/ultralite/sample/TeamFilter.java",
+                "com/vuzix/ultralite/sample/ScoreDeltaEngine.java",
+                "com/vuzix/ultralite/sample/ScoreEvent.java",
+                "com/vuzix/ultralite/sample/SliceCache.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation("org.jsoup:jsoup:1.18.3")
+    implementation("com.squareup.okhttp3:okhttp:4.12.0")
+    implementation("com.squareup.okhttp3:okhttp-brotli:4.12.0")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    benchmarkMode.set(listOf("thrpt", "avgt"))
+    timeUnit.set("us")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    // Benchmarked once the real pages are checked in; see src/jmh/resources/captures/README.md
+    val captures = listOf("listing.html", "match.html").map { file("src/jmh/resources/captures/$it") }
+    if (!captures.all { it.isFile }) {
+        excludes.add("CapturedPageBenchmark")
+    }
+}
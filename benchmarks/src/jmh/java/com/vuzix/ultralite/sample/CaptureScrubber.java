@@ -0,0 +1,74 @@
+package com.vuzix.ultralite.sample;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a page saved from the live site into a capture that can be checked in under
+ * src/jmh/resources/captures.
+ *
+ * The markup the extractors walk is kept as it was served: every element, class and link, and the
+ * text of the page. What goes is what belongs to the visit rather than the page, and what the app
+ * never reads: scripts, with the hydration state and any session or consent data in them, styles,
+ * iframes, inline SVG, comments, meta tags other than the charset, and event, data-* and style
+ * attributes. Scripts and styles are also most of the bytes of a real page, and jsoup only skips over
+ * them, so the capture stays representative of the parsing work.
+ *
+ * Usage: CaptureScrubber saved-page.html captures/listing.html
+ */
+public final class CaptureScrubber {
+
+    private CaptureScrubber() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CaptureScrubber <saved page> <capture to write>");
+            System.exit(2);
+        }
+        Document page = Jsoup.parse(new File(args[0]), null, "https://www.espncricinfo.com");
+        scrub(page);
+        try (OutputStream out = new FileOutputStream(args[1])) {
+            out.write(page.outerHtml().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static void scrub(Document page) {
+        page.select("script, style, noscript, iframe, svg, link[rel~=(?i)preload|prefetch|preconnect|dns-prefetch]").remove();
+        page.select("meta:not([charset])").remove();
+        List<Node> comments = new ArrayList<>();
+        for (Element element : page.getAllElements()) {
+            List<String> dropped = new ArrayList<>();
+            for (Attribute attribute : element.attributes()) {
+                String key = attribute.getKey();
+                if (key.startsWith("data-") || key.startsWith("on") || key.equals("style") || key.equals("nonce")) {
+                    dropped.add(key);
+                }
+            }
+            for (String key : dropped) {
+                element.removeAttr(key);
+            }
+            for (Node child : element.childNodes()) {
+                if (child instanceof Comment) {
+                    comments.add(child);
+                }
+            }
+        }
+        for (Node comment : comments) {
+            comment.remove();
+        }
+        page.charset(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Parsing the live-scores RSS feed as captured from the live site, next to {@link RssBenchmark}'s
+ * generated feeds of the same and other sizes.
+ */
+@State(Scope.Benchmark)
+public class CapturedFeedBenchmark {
+
+    private byte[] feed;
+
+    @Setup
+    public void setUp() throws IOException {
+        feed = Corpus.capture(Corpus.RSS_CAPTURE);
+        if (parse().isEmpty()) {
+            throw new IllegalStateException(Corpus.RSS_CAPTURE + " yields no matches");
+        }
+    }
+
+    @Benchmark
+    public ArrayList<MatchDetails> parse() throws IOException {
+        return RssFeedParser.parse(new ByteArrayInputStream(feed), null, RssFeedParser.NO_LIMIT);
+    }
+}
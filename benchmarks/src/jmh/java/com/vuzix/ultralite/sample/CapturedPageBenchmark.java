@@ -0,0 +1,42 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * The same extraction as the generated-page benchmarks, on the listing and match pages captured from
+ * the live site, to check the generated ones still cost what the real ones do. Only run once both
+ * captures listed in src/jmh/resources/captures/README.md are checked in.
+ */
+@State(Scope.Benchmark)
+public class CapturedPageBenchmark {
+
+    private String listing;
+    private byte[] matchPage;
+
+    @Setup
+    public void setUp() {
+        listing = new String(Corpus.capture(Corpus.LISTING_CAPTURE), StandardCharsets.UTF_8);
+        matchPage = Corpus.capture(Corpus.MATCH_CAPTURE);
+        if (CricinfoLive.getLiveMatches(listing).isEmpty()) {
+            throw new IllegalStateException(Corpus.LISTING_CAPTURE + " yields no matches; recapture it");
+        }
+    }
+
+    @Benchmark
+    public ArrayList<MatchDetails> listing() {
+        return CricinfoLive.getLiveMatches(listing);
+    }
+
+    @Benchmark
+    public String matchPage() throws IOException {
+        return CricinfoLive.getLiveScoreOfSelectedMatch(Corpus.MATCH_URL, new ByteArrayInputStream(matchPage), "UTF-8");
+    }
+}
@@ -0,0 +1,185 @@
+package com.vuzix.ultralite.sample;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Builds the pages the benchmarks parse: the live-scores listing, a match page and the RSS feed, each
+ * at several sizes.
+ *
+ * The pages are generated rather than captured, with the same element structure and class names the
+ * extractors in CricinfoLive look for and the same item format as the live feed, padded with the
+ * kind of markup that surrounds them on the real site (navigation, ads, commentary). Generation is
+ * seeded, so every run parses byte-for-byte the same input.
+ *
+ * Pages captured from the real site, scrubbed by {@link CaptureScrubber}, are loaded by
+ * {@link #capture} for {@link CapturedPageBenchmark}.
+ */
+final class Corpus {
+    private static final String[] TEAMS = {
+            "Australia", "England", "India", "South Africa", "New Zealand", "Pakistan", "Sri Lanka",
+            "West Indies", "Bangladesh", "Afghanistan", "Ireland", "Zimbabwe", "Surrey", "Essex",
+            "Lancashire", "Yorkshire", "Wellington", "Otago", "Victoria", "Queensland"
+    };
+    static final String MATCH_URL = "https://www.espncricinfo.com/series/bench-series-1/bench-match-1/live-cricket-score";
+
+    // Captures under src/jmh/resources/captures
+    static final String LISTING_CAPTURE = "listing.html";
+    static final String MATCH_CAPTURE = "match.html";
+    static final String RSS_CAPTURE = "livescores.xml";
+
+    private Corpus() {
+    }
+
+    /**
+     * The bytes of a captured page, as checked in.
+     *
+     * @throws IllegalStateException If the capture is not there
+     */
+    static byte[] capture(String name) {
+        try (InputStream in = Corpus.class.getResourceAsStream("/captures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("No capture " + name + "; see src/jmh/resources/captures/README.md");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1; ) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The live-scores listing page with this many match cards, each surrounded by non-match cards.
+     */
+    static String listingPage(int matches) {
+        Random random = new Random(matches);
+        StringBuilder html = new StringBuilder(4096 + matches * 1200);
+        html.append("<!DOCTYPE html><html><head><title>Live Cricket Scores</title>");
+        appendHeadClutter(html, random);
+        html.append("</head><body><div class=\"ds-flex ds-flex-col\">");
+        appendNavigation(html);
+        for (int i = 0; i < matches; i++) {
+            String home = TEAMS[random.nextInt(TEAMS.length)];
+            String away = TEAMS[random.nextInt(TEAMS.length)];
+            html.append("<div class=\"ds-p-4 ds-border-b ds-border-line\">")
+                    .append("<div class=\"ds-text-tight-xs ds-truncate ds-text-typo-mid3\">")
+                    .append(i % 3 == 0 ? "LIVE" : "RESULT").append(" &bull; ").append(i + 1).append("th Match, Group ")
+                    .append((char) ('A' + i % 4)).append("</div>")
+                    .append("<a href=\"/series/bench-series-").append(i).append("/bench-match-").append(i)
+                    .append("/live-cricket-scores/").append(i).append("\" class=\"ds-no-tap-higlight\">")
+                    .append("<p class=\"ds-text-tight-m ds-font-bold ds-truncate ds-text-typo\">")
+                    .append(home).append(" vs ").append(away).append(", ").append(i + 1).append("th Match</p>")
+                    .append("<div class=\"ds-flex ds-items-center ds-justify-between ds-mb-1\"><div>")
+                    .append("<span class=\"ds-text-compact-s\">").append(home).append(' ')
+                    .append(random.nextInt(350)).append('/').append(random.nextInt(10)).append("</span></div></div>")
+                    .append("</a></div>");
+            if (i % 4 == 3) {
+                // Promotional and news cards between the fixtures, which must be rejected
+                html.append("<div class=\"ds-p-4\"><a href=\"/story/bench-story-").append(i)
+                        .append("\"><p class=\"ds-text-tight-m ds-font-bold ds-truncate ds-text-typo\">Video highlights ")
+                        .append(i).append("</p></a></div>");
+            }
+        }
+        appendFooter(html, random);
+        html.append("</div></body></html>");
+        return html.toString();
+    }
+
+    /**
+     * A match page whose score sits near the top, followed by this many commentary entries.
+     */
+    static String matchPage(int commentaryEntries) {
+        Random random = new Random(commentaryEntries);
+        StringBuilder html = new StringBuilder(4096 + commentaryEntries * 400);
+        html.append("<!DOCTYPE html><html><head><title>India vs Australia, 1st ODI - Live Cricket Score</title>");
+        appendHeadClutter(html, random);
+        html.append("</head><body>");
+        appendNavigation(html);
+        html.append("<div class=\"ds-flex ds-flex-col ds-mt-3\">")
+                .append("<div class=\"ds-flex ds-items-center ds-justify-between\">")
+                .append("<p class=\"ds-text-tight-m ds-font-bold ds-truncate ds-text-typo\">India</p>")
+                .append("<div class=\"ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap\">IND 245/6 (42.3 ov)</div>")
+                .append("</div><div class=\"ds-flex ds-items-center ds-justify-between\">")
+                .append("<p class=\"ds-text-tight-m ds-font-bold ds-truncate ds-text-typo\">Australia</p>")
+                .append("<div class=\"ds-text-compact-m ds-text-typo-title ds-text-right ds-whitespace-nowrap\"></div>")
+                .append("</div><p class=\"ds-text-tight-s ds-font-regular ds-line-clamp-2 ds-text-typo\">")
+                .append("India chose to bat.</p></div>");
+        html.append("<div class=\"ds-commentary\">");
+        for (int i = 0; i < commentaryEntries; i++) {
+            int over = 42 - i / 6;
+            int ball = 6 - i % 6;
+            html.append("<div class=\"ds-flex ds-py-3 ds-border-b\"><span class=\"ds-text-tight-s ds-font-regular ds-mb-1\">")
+                    .append(over).append('.').append(ball).append("</span><div class=\"ds-ml-4\">")
+                    .append("<p class=\"ci-html-content\">Bowler to Batter, ")
+                    .append(random.nextInt(7)).append(" run, ")
+                    .append("full and wide outside off, driven firmly to the fielder at cover who dives to his left</p>")
+                    .append("</div></div>");
+        }
+        html.append("</div>");
+        appendFooter(html, random);
+        html.append("</body></html>");
+        return html.toString();
+    }
+
+    /**
+     * The live-scores RSS feed with this many items.
+     */
+    static byte[] rssFeed(int items) {
+        Random random = new Random(items);
+        StringBuilder xml = new StringBuilder(512 + items * 320);
+        xml.append("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<rss version=\"2.0\">\n<channel>\n")
+                .append("<title>Cricinfo Live Scores</title>\n<ttl>2</ttl>\n<link>http://www.cricinfo.com</link>\n")
+                .append("<description>Latest scores from Cricinfo</description>\n");
+        for (int i = 0; i < items; i++) {
+            String home = TEAMS[random.nextInt(TEAMS.length)];
+            String away = TEAMS[random.nextInt(TEAMS.length)];
+            String score = random.nextBoolean()
+                    ? home + " " + random.nextInt(400) + "/" + random.nextInt(10) + " * v " + away
+                    : home + " " + random.nextInt(400) + " &amp; " + random.nextInt(300) + "/" + random.nextInt(10)
+                    + " * v " + away + " " + random.nextInt(400) + "/" + random.nextInt(10);
+            int id = 1400000 + i;
+            xml.append("<item>\n<title>").append(score).append("</title>\n")
+                    .append("<link>http://www.cricinfo.com/ci/engine/match/").append(id).append(".html?CMP=OTC-RSS</link>\n")
+                    .append("<description>").append(score).append("</description>\n")
+                    .append("<guid>http://www.cricinfo.com/ci/engine/match/").append(id).append(".html</guid>\n</item>\n");
+        }
+        xml.append("</channel>\n</rss>\n");
+        return xml.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void appendHeadClutter(StringBuilder html, Random random) {
+        for (int i = 0; i < 20; i++) {
+            html.append("<meta name=\"bench-meta-").append(i).append("\" content=\"").append(random.nextLong()).append("\">");
+        }
+        html.append("<script>window.__INITIAL_STATE__={\"page\":\"bench\",\"ads\":[");
+        for (int i = 0; i < 50; i++) {
+            html.append("{\"slot\":").append(i).append(",\"id\":").append(random.nextInt()).append("},");
+        }
+        html.append("{}]};</script>");
+    }
+
+    private static void appendNavigation(StringBuilder html) {
+        html.append("<nav class=\"ds-nav\"><ul>");
+        for (int i = 0; i < 40; i++) {
+            html.append("<li class=\"ds-nav-item\"><a href=\"/section/").append(i).append("\">Section ").append(i).append("</a></li>");
+        }
+        html.append("</ul></nav>");
+    }
+
+    private static void appendFooter(StringBuilder html, Random random) {
+        html.append("<footer class=\"ds-footer\">");
+        for (int i = 0; i < 30; i++) {
+            html.append("<div class=\"ds-ad-slot\" data-id=\"").append(random.nextInt()).append("\"></div>")
+                    .append("<a href=\"/link/").append(i).append("\">Footer link ").append(i).append("</a>");
+        }
+        html.append("</footer>");
+    }
+}
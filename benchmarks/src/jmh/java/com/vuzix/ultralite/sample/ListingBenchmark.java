@@ -0,0 +1,46 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.util.ArrayList;
+
+/**
+ * Match extraction from the live-scores listing page, the fallback when the RSS feed is unavailable.
+ */
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int matches;
+
+    private String html;
+    private Document parsed;
+
+    @Setup
+    public void setUp() {
+        html = Corpus.listingPage(matches);
+        int found = CricinfoLive.getLiveMatches(html).size();
+        if (found != matches) {
+            throw new IllegalStateException("Corpus should yield " + matches + " matches, got " + found);
+        }
+        parsed = Jsoup.parse(html, "https://www.espncricinfo.com");
+    }
+
+    @Benchmark
+    public ArrayList<MatchDetails> getLiveMatches() {
+        return CricinfoLive.getLiveMatches(html);
+    }
+
+    // Extraction alone, without parsing the HTML into a Document
+    @Benchmark
+    public ArrayList<MatchDetails> extractFromParsedPage() {
+        return CricinfoLive.getLiveMatches(parsed);
+    }
+}
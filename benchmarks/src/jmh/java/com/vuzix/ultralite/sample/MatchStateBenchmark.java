@@ -0,0 +1,47 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Reading score strings into MatchState and diffing successive scores, done for every match on
+ * every poll.
+ */
+@State(Scope.Benchmark)
+public class MatchStateBenchmark {
+    private static final String[] SCORES = {
+            "IND 245/6 (42.3 ov)",
+            "SA 150/4 (17.0/20 ov, target 181)",
+            "India 312 v Australia 150 & 4/0 *",
+            "Delhi 400/5d & 64/1 * v Afghanistan 227/9",
+            "India won by 45 runs",
+    };
+
+    private ScoreDeltaEngine engine;
+    private int ball;
+
+    @Setup
+    public void setUp() {
+        engine = new ScoreDeltaEngine();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String score : SCORES) {
+            blackhole.consume(MatchState.parse(score));
+        }
+    }
+
+    // One new ball of an ODI innings per invocation
+    @Benchmark
+    public List<ScoreEvent> deltaPerBall() {
+        int balls = ball++ % 300;
+        String score = "IND " + balls + "/" + balls / 30 + " (" + balls / 6 + "." + balls % 6 + " ov)";
+        return engine.update(Corpus.MATCH_URL, score);
+    }
+}
@@ -0,0 +1,34 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Parsing the live-scores RSS feed, the main source of the match list.
+ */
+@State(Scope.Benchmark)
+public class RssBenchmark {
+
+    // A quiet day, a typical day, and a day with a full domestic programme
+    @Param({"10", "42", "200"})
+    public int items;
+
+    private byte[] feed;
+
+    @Setup
+    public void setUp() {
+        feed = Corpus.rssFeed(items);
+    }
+
+    @Benchmark
+    public ArrayList<MatchDetails> parse() throws IOException {
+        return RssFeedParser.parse(new ByteArrayInputStream(feed), null, RssFeedParser.NO_LIMIT);
+    }
+}
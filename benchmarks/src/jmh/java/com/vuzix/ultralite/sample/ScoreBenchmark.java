@@ -0,0 +1,47 @@
+package com.vuzix.ultralite.sample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Score extraction from a match page, done on every poll of the selected match. The winning strategy
+ * is remembered across invocations, as it is across polls of a real match.
+ */
+@State(Scope.Benchmark)
+public class ScoreBenchmark {
+
+    // Commentary entries below the score: none, about one innings, and a full day of a Test
+    @Param({"0", "300", "1500"})
+    public int commentary;
+
+    private String html;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        html = Corpus.matchPage(commentary);
+        bytes = html.getBytes(StandardCharsets.UTF_8);
+        String score = CricinfoLive.getLiveScoreOfSelectedMatch(Corpus.MATCH_URL, html);
+        if (!score.equals("IND 245/6 (42.3 ov)")) {
+            throw new IllegalStateException("Corpus should yield the score, got " + score);
+        }
+    }
+
+    @Benchmark
+    public String fromString() {
+        return CricinfoLive.getLiveScoreOfSelectedMatch(Corpus.MATCH_URL, html);
+    }
+
+    // The path taken on the network, reading the response body as a stream
+    @Benchmark
+    public String fromStream() throws IOException {
+        return CricinfoLive.getLiveScoreOfSelectedMatch(Corpus.MATCH_URL, new ByteArrayInputStream(bytes), "UTF-8");
+    }
+}
@@ -16,4 +16,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "ArCricketAlert"
 include(":app")
+include(":benchmarks")
  
\ No newline at end of file